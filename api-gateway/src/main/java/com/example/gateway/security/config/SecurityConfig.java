@@ -46,6 +46,8 @@ public class SecurityConfig {
                         .pathMatchers("/api/files/download/**").permitAll()
                         // 静态资源不需要认证
                         .pathMatchers("/", "/static/**", "/public/**").permitAll()
+                        // 缓存运维端点可以清除缓存并列出热点key，只允许管理员访问
+                        .pathMatchers("/actuator/cacheadmin/**").hasRole("ADMIN")
                         // 健康检查接口不需要认证
                         .pathMatchers("/actuator/**").permitAll()
                         // 其他API接口需要认证
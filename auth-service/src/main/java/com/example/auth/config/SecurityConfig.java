@@ -26,6 +26,8 @@ public class SecurityConfig {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .authorizeRequests()
+                // 缓存运维端点只允许管理员访问
+                .antMatchers("/actuator/cacheadmin/**").hasRole("ADMIN")
                 // 允许未登录访问的路径
                 .antMatchers("/api/auth/admin/login", "/api/auth/user/login", "/api/auth/register", "/api/auth/wechat-login").permitAll()
                 .anyRequest().authenticated()
@@ -40,6 +40,21 @@ public class DietRecordQueryCommand implements Serializable {
      * 每页大小，默认10条
      */
     private Integer size = 10;
+
+    /**
+     * 是否使用游标分页（按日期、时间、ID倒序定位，不跳过前面的行），默认否
+     */
+    private Boolean seek;
+
+    /**
+     * 游标分页时上一页返回的 nextCursor，为空表示第一页
+     */
+    private String cursor;
+
+    /**
+     * 是否统计总数，为空时页码分页统计、游标分页不统计
+     */
+    private Boolean searchCount;
     
     /**
      * 创建一个新的命令对象，设置用户ID
@@ -0,0 +1,108 @@
+package com.example.diet.dto;
+
+import lombok.Data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 日期范围内有饮食记录的用户集合（位图格式）
+ * 第 userId 位为1表示该用户活跃，位序与Redis位图一致（第0位是第一个字节的最高位），传输时使用Deflate压缩
+ */
+@Data
+public class ActiveUserBitmapDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    /**
+     * 活跃用户数
+     */
+    private long cardinality;
+    /**
+     * Deflate压缩后的位图
+     */
+    private byte[] compressedBitmap;
+
+    public ActiveUserBitmapDTO() {
+    }
+
+    /**
+     * @param bitmap 未压缩的位图，可以为null（没有活跃用户）
+     */
+    public ActiveUserBitmapDTO(LocalDate startDate, LocalDate endDate, long cardinality, byte[] bitmap) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.cardinality = cardinality;
+        this.compressedBitmap = compress(bitmap != null ? bitmap : new byte[0]);
+    }
+
+    /**
+     * 解压位图并按升序列出活跃用户ID
+     */
+    public List<Long> toUserIds() {
+        return bitmapToUserIds(decompress(compressedBitmap));
+    }
+
+    /**
+     * 按升序列出未压缩位图中为1的位
+     */
+    public static List<Long> bitmapToUserIds(byte[] bitmap) {
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < bitmap.length; i++) {
+            int b = bitmap[i] & 0xFF;
+            for (int bit = 0; b != 0 && bit < 8; bit++) {
+                if ((b & (0x80 >>> bit)) != 0) {
+                    userIds.add((long) i * 8 + bit);
+                }
+            }
+        }
+        return userIds;
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 8));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] data) {
+        if (data == null || data.length == 0) {
+            return new byte[0];
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("活跃用户位图数据不完整");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("活跃用户位图解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.diet.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 多个用户在日期范围内每天的营养素合计（紧凑格式）
+ * 二维数组第一维与 {@link #userIds} 下标对应，第二维为距 {@link #startDate} 的天数；没有记录的日期为0
+ */
+@Data
+public class DailyMacroSumsDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate startDate;
+    private int days;
+    /**
+     * 用户ID，顺序与请求一致（已去重）
+     */
+    private long[] userIds;
+    private int[][] recordCounts;
+    private double[][] calories;
+    private double[][] protein;
+    private double[][] carbs;
+    private double[][] fat;
+
+    public DailyMacroSumsDTO() {
+    }
+
+    public DailyMacroSumsDTO(LocalDate startDate, int days, long[] userIds) {
+        this.startDate = startDate;
+        this.days = days;
+        this.userIds = userIds;
+        this.recordCounts = new int[userIds.length][days];
+        this.calories = new double[userIds.length][days];
+        this.protein = new double[userIds.length][days];
+        this.carbs = new double[userIds.length][days];
+        this.fat = new double[userIds.length][days];
+    }
+}
@@ -16,6 +16,21 @@ public class DietRecordQueryDTO implements Serializable {
     private String mealType;
     private Integer page = 1;
     private Integer size = 10;
+
+    /**
+     * 是否使用游标分页，用于小程序无限滚动
+     */
+    private Boolean seek;
+
+    /**
+     * 上一页返回的 nextCursor，为空表示第一页
+     */
+    private String cursor;
+
+    /**
+     * 是否统计总数，为空时页码分页统计、游标分页不统计
+     */
+    private Boolean searchCount;
     
     /**
      * 用户ID - 主要用于管理员后台查询特定用户的记录
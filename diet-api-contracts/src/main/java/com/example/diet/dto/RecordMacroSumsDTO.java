@@ -0,0 +1,40 @@
+package com.example.diet.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 饮食记录的营养素合计（紧凑格式）
+ * 各数组等长，同一下标对应同一条饮食记录
+ */
+@Data
+public class RecordMacroSumsDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long[] recordIds;
+    private long[] userIds;
+    private LocalDate[] dates;
+    private double[] calories;
+    private double[] protein;
+    private double[] carbs;
+    private double[] fat;
+
+    public RecordMacroSumsDTO() {
+    }
+
+    public RecordMacroSumsDTO(int size) {
+        this.recordIds = new long[size];
+        this.userIds = new long[size];
+        this.dates = new LocalDate[size];
+        this.calories = new double[size];
+        this.protein = new double[size];
+        this.carbs = new double[size];
+        this.fat = new double[size];
+    }
+
+    public int size() {
+        return recordIds != null ? recordIds.length : 0;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.shared.event.DomainEvent;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 /**
@@ -34,6 +35,26 @@ public class DietRecordAddedEvent extends DomainEvent {
      */
     private String mealType;
 
+    /**
+     * 本条记录的热量合计（千卡），旧版本发布的事件中为null
+     */
+    private BigDecimal calories;
+
+    /**
+     * 本条记录的蛋白质合计（g）
+     */
+    private BigDecimal protein;
+
+    /**
+     * 本条记录的碳水化合物合计（g）
+     */
+    private BigDecimal carbs;
+
+    /**
+     * 本条记录的脂肪合计（g）
+     */
+    private BigDecimal fat;
+
     /**
      * 构造函数
      *
@@ -50,6 +71,25 @@ public class DietRecordAddedEvent extends DomainEvent {
         this.mealType = mealType;
     }
 
+    /**
+     * 构造函数（携带本条记录的营养合计，订阅方可据此增量更新统计）
+     */
+    public DietRecordAddedEvent(Long userId, Long dietRecordId, LocalDate recordDate, String mealType,
+                                BigDecimal calories, BigDecimal protein, BigDecimal carbs, BigDecimal fat) {
+        this(userId, dietRecordId, recordDate, mealType);
+        this.calories = calories;
+        this.protein = protein;
+        this.carbs = carbs;
+        this.fat = fat;
+    }
+
+    /**
+     * 是否携带营养合计
+     */
+    public boolean hasNutritionTotals() {
+        return calories != null && protein != null && carbs != null && fat != null;
+    }
+
     @Override
     public String toString() {
         return "DietRecordAddedEvent{" +
@@ -57,6 +97,7 @@ public class DietRecordAddedEvent extends DomainEvent {
                 ", dietRecordId=" + dietRecordId +
                 ", recordDate=" + recordDate +
                 ", mealType='" + mealType + '\'' +
+                ", calories=" + calories +
                 ", eventId='" + getEventId() + '\'' +
                 ", timestamp=" + getTimestamp() +
                 '}';
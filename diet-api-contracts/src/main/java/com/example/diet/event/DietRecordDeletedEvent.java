@@ -0,0 +1,56 @@
+package com.example.diet.event;
+
+import com.example.shared.event.DomainEvent;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 饮食记录删除事件
+ * 当用户或管理员删除饮食记录时发布此事件，用于通知其他服务进行相应处理
+ */
+@Getter
+@NoArgsConstructor  // Jackson反序列化需要
+public class DietRecordDeletedEvent extends DomainEvent {
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 饮食记录ID
+     */
+    private Long dietRecordId;
+
+    /**
+     * 记录日期
+     */
+    private LocalDate recordDate;
+
+    /**
+     * 构造函数
+     *
+     * @param userId 用户ID
+     * @param dietRecordId 饮食记录ID
+     * @param recordDate 记录日期
+     */
+    public DietRecordDeletedEvent(Long userId, Long dietRecordId, LocalDate recordDate) {
+        super(userId.toString(), 1L, "diet-service");
+        this.userId = userId;
+        this.dietRecordId = dietRecordId;
+        this.recordDate = recordDate;
+    }
+
+    @Override
+    public String toString() {
+        return "DietRecordDeletedEvent{" +
+                "userId=" + userId +
+                ", dietRecordId=" + dietRecordId +
+                ", recordDate=" + recordDate +
+                ", eventId='" + getEventId() + '\'' +
+                ", timestamp=" + getTimestamp() +
+                '}';
+    }
+}
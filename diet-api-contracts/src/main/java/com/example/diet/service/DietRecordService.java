@@ -3,10 +3,14 @@ package com.example.diet.service;
 import com.example.diet.command.DietRecordAddCommand;
 import com.example.diet.command.DietRecordDeleteCommand;
 import com.example.diet.command.DietRecordQueryCommand;
+import com.example.diet.dto.ActiveUserBitmapDTO;
+import com.example.diet.dto.DailyMacroSumsDTO;
 import com.example.diet.dto.DietRecordResponseDTO;
+import com.example.diet.dto.RecordMacroSumsDTO;
 import com.example.shared.response.PageResult;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -44,6 +48,22 @@ public interface DietRecordService {
      */
     List<Long> findActiveUserIdsByDateRange(LocalDate startDate, LocalDate endDate);
 
+    /**
+     * 统计指定日期范围内有饮食记录的用户数（单日即日活）
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 活跃用户数
+     */
+    long countActiveUsers(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 获取指定日期范围内有饮食记录的用户位图，用户量大时代替 {@link #findActiveUserIdsByDateRange}
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 压缩的活跃用户位图
+     */
+    ActiveUserBitmapDTO getActiveUserBitmap(LocalDate startDate, LocalDate endDate);
+
     /**
      * 根据时间周期获取热门食物统计
      * @param period 时间周期：week(周)、month(月)、quarter(季度)
@@ -78,6 +98,27 @@ public interface DietRecordService {
     Map<Long, Map<String, List<DietRecordResponseDTO>>> getBatchDietRecordsForNutritionStat(
             List<Long> userIds, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * 批量获取多个用户在日期范围内每天的营养素合计
+     * 只返回统计所需的数值，不组装饮食记录DTO，适合营养统计等只关心每日合计的场景
+     *
+     * @param userIds 用户ID集合
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 按用户、按天索引的营养素合计
+     */
+    DailyMacroSumsDTO getDailyMacroSums(Collection<Long> userIds, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 批量获取多个用户在日期范围内每条饮食记录的营养素合计
+     *
+     * @param userIds 用户ID集合
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 每条饮食记录的营养素合计
+     */
+    RecordMacroSumsDTO getRecordMacroSums(Collection<Long> userIds, LocalDate startDate, LocalDate endDate);
+
     /**
      * 获取所有用户的饮食记录列表（管理员使用）- 使用Command对象
      * @param command 饮食记录查询命令对象
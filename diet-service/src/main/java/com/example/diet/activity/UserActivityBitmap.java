@@ -0,0 +1,218 @@
+package com.example.diet.activity;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.diet.entity.DietRecord;
+import com.example.diet.mapper.DietRecordMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 用户每日活跃位图
+ * 每天一个Redis位图，第 userId 位表示该用户当天是否有饮食记录；新增记录时置位，删除当天最后一条记录时清零。
+ * 日活为一次 BITCOUNT，日期范围内的活跃用户为各天位图 BITOP OR 的结果。
+ * 某天第一次被查询时从数据库填充一次，之后只靠增量维护。填充只置位不清空，不会覆盖填充期间增量写入的标记。
+ */
+@Slf4j
+@Component
+public class UserActivityBitmap {
+
+    private static final String KEY_PREFIX = "diet:active:";
+    private static final String BUILT_KEY_PREFIX = "diet:active:built:";
+    private static final String TEMP_KEY_PREFIX = "diet:active:tmp:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final DietRecordMapper dietRecordMapper;
+
+    /**
+     * 每天位图的保留时间，过期后再查询会从数据库重新填充
+     */
+    private final Duration retention;
+
+    @Autowired
+    public UserActivityBitmap(StringRedisTemplate redisTemplate,
+                              DietRecordMapper dietRecordMapper,
+                              @Value("${app.diet.activity.retention-days:400}") int retentionDays) {
+        this.redisTemplate = redisTemplate;
+        this.dietRecordMapper = dietRecordMapper;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * 标记用户当天活跃，在事务提交后执行
+     */
+    public void markActive(Long userId, LocalDate date) {
+        afterCommit(() -> setBit(userId, date, true));
+    }
+
+    /**
+     * 清除用户当天的活跃标记（当天已没有饮食记录），在事务提交后执行
+     * 提交后重新确认当天没有记录再清零，清零后再确认一次，期间有并发新增的记录时恢复标记
+     */
+    public void markInactive(Long userId, LocalDate date) {
+        afterCommit(() -> {
+            try {
+                if (hasRecords(userId, date)) {
+                    return;
+                }
+                setBit(userId, date, false);
+                if (hasRecords(userId, date)) {
+                    setBit(userId, date, true);
+                }
+            } catch (Exception e) {
+                log.error("确认用户当天记录失败，保留活跃标记: userId={}, date={}", userId, date, e);
+            }
+        });
+    }
+
+    /**
+     * 日期范围内的活跃用户数
+     */
+    public long count(LocalDate startDate, LocalDate endDate) {
+        return withMergedKey(startDate, endDate, key -> {
+            Long count = redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.stringCommands().bitCount(bytes(key)));
+            return count != null ? count : 0L;
+        });
+    }
+
+    /**
+     * 日期范围内的活跃用户位图（未压缩），没有活跃用户时返回空数组
+     */
+    public byte[] bitmap(LocalDate startDate, LocalDate endDate) {
+        return withMergedKey(startDate, endDate, key -> {
+            byte[] bitmap = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(bytes(key)));
+            return bitmap != null ? bitmap : new byte[0];
+        });
+    }
+
+    /**
+     * 单天直接使用当天的位图；多天先 BITOP OR 到临时key，用完删除
+     */
+    private <T> T withMergedKey(LocalDate startDate, LocalDate endDate, Function<String, T> reader) {
+        ensureBuilt(startDate, endDate);
+        if (startDate.equals(endDate)) {
+            return reader.apply(dayKey(startDate));
+        }
+
+        List<byte[]> dayKeys = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            dayKeys.add(bytes(dayKey(day)));
+        }
+        String tempKey = TEMP_KEY_PREFIX + UUID.randomUUID();
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.stringCommands()
+                    .bitOp(RedisStringCommands.BitOperation.OR, bytes(tempKey), dayKeys.toArray(new byte[0][])));
+            return reader.apply(tempKey);
+        } finally {
+            redisTemplate.delete(tempKey);
+        }
+    }
+
+    private void setBit(Long userId, LocalDate date, boolean active) {
+        String key = dayKey(date);
+        try {
+            redisTemplate.opsForValue().setBit(key, userId, active);
+            redisTemplate.expire(key, retention);
+        } catch (Exception e) {
+            // 活跃位图只用于统计，不影响饮食记录本身
+            log.error("更新用户活跃位图失败: userId={}, date={}, active={}", userId, date, active, e);
+        }
+    }
+
+    private boolean hasRecords(Long userId, LocalDate date) {
+        LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(DietRecord::getUserId, userId).eq(DietRecord::getDate, date);
+        return dietRecordMapper.selectCount(wrapper) > 0;
+    }
+
+    /**
+     * 从数据库填充范围内尚未填充过的日期，一次查询覆盖所有缺失的日期
+     */
+    private void ensureBuilt(LocalDate startDate, LocalDate endDate) {
+        List<String> builtKeys = new ArrayList<>();
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            builtKeys.add(BUILT_KEY_PREFIX + day);
+            days.add(day);
+        }
+        List<String> built = redisTemplate.opsForValue().multiGet(builtKeys);
+
+        List<LocalDate> missing = new ArrayList<>();
+        for (int i = 0; i < days.size(); i++) {
+            if (built == null || built.get(i) == null) {
+                missing.add(days.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        LocalDate from = missing.get(0);
+        LocalDate to = missing.get(missing.size() - 1);
+        LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(DietRecord::getDate, DietRecord::getUserId)
+                .between(DietRecord::getDate, from, to)
+                .groupBy(DietRecord::getDate, DietRecord::getUserId);
+        Map<LocalDate, List<Long>> usersByDay = new HashMap<>();
+        for (DietRecord row : dietRecordMapper.selectList(wrapper)) {
+            usersByDay.computeIfAbsent(row.getDate(), d -> new ArrayList<>()).add(row.getUserId());
+        }
+        log.info("从数据库填充用户活跃位图: {} 至 {}, 缺失天数={}", from, to, missing.size());
+
+        long retentionSeconds = retention.getSeconds();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (LocalDate day : missing) {
+                byte[] key = bytes(dayKey(day));
+                // 只置位不删除：查询之后由 markActive 写入的标记保留
+                List<Long> userIds = usersByDay.get(day);
+                if (userIds != null) {
+                    for (Long userId : userIds) {
+                        connection.stringCommands().setBit(key, userId, true);
+                    }
+                    connection.keyCommands().expire(key, retentionSeconds);
+                }
+                connection.stringCommands().setEx(bytes(BUILT_KEY_PREFIX + day), retentionSeconds, bytes("1"));
+            }
+            return null;
+        });
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private static String dayKey(LocalDate date) {
+        return KEY_PREFIX + date;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
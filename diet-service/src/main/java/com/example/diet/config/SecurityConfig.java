@@ -30,6 +30,8 @@ public class SecurityConfig {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .authorizeRequests()
+                // 缓存运维端点只允许管理员访问
+                .antMatchers("/actuator/cacheadmin/**").hasRole("ADMIN")
                 // 饮食记录相关接口需要认证
                 .anyRequest().authenticated()
                 .and()
@@ -0,0 +1,27 @@
+package com.example.diet.entity;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 饮食记录营养素合计查询结果（按记录或按用户日期分组）
+ */
+@Data
+public class DietRecordMacroSum {
+    /**
+     * 饮食记录ID，按用户日期分组时为null
+     */
+    private Long recordId;
+    private Long userId;
+    private LocalDate date;
+    /**
+     * 记录数，按记录分组时为1
+     */
+    private Integer recordCount;
+    private BigDecimal calories;
+    private BigDecimal protein;
+    private BigDecimal carbs;
+    private BigDecimal fat;
+}
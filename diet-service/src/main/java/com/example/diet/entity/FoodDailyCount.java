@@ -0,0 +1,15 @@
+package com.example.diet.entity;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 食物每日出现次数查询结果（按日期、食物名称分组）
+ */
+@Data
+public class FoodDailyCount {
+    private LocalDate date;
+    private String foodName;
+    private Long count;
+}
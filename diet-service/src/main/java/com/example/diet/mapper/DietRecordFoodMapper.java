@@ -1,9 +1,9 @@
 package com.example.diet.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.diet.entity.DietRecordFood;
+import com.example.shared.mapper.BatchBaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 
 @Mapper
-public interface DietRecordFoodMapper extends BaseMapper<DietRecordFood> {
+public interface DietRecordFoodMapper extends BatchBaseMapper<DietRecordFood> {
 }
\ No newline at end of file
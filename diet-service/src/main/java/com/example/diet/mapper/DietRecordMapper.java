@@ -2,18 +2,21 @@ package com.example.diet.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.diet.entity.DietRecord;
+import com.example.diet.entity.DietRecordMacroSum;
+import com.example.diet.entity.FoodDailyCount;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 @Mapper
 public interface DietRecordMapper extends BaseMapper<DietRecord> {
     /**
-     * 查询指定时间范围内的热门食物
+     * 查询指定时间范围内的热门食物（联表 GROUP BY，仅在热门食物计数不可用时使用）
      * @param startDate 开始日期
      * @param endDate 结束日期
      * @param limit 返回数量限制
@@ -29,4 +32,60 @@ public interface DietRecordMapper extends BaseMapper<DietRecord> {
     List<Map<String, Object>> findPopularFoods(@Param("startDate") LocalDate startDate,
                                                @Param("endDate") LocalDate endDate,
                                                @Param("limit") int limit);
-}
\ No newline at end of file
+
+    /**
+     * 按日期统计每种食物出现的次数，用于填充热门食物计数
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 每个日期、食物名称一行
+     */
+    @Select("SELECT dr.date, drf.food_name, COUNT(*) AS count " +
+            "FROM diet_record_foods drf " +
+            "JOIN diet_records dr ON drf.diet_record_id = dr.id " +
+            "WHERE dr.date BETWEEN #{startDate} AND #{endDate} " +
+            "GROUP BY dr.date, drf.food_name")
+    List<FoodDailyCount> countFoodsByDate(@Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按用户和日期汇总营养素（一次GROUP BY）
+     * @param userIds 用户ID列表
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 每个有记录的用户日期一行
+     */
+    @Select("<script>" +
+            "SELECT dr.user_id, dr.date, COUNT(DISTINCT dr.id) AS record_count, " +
+            "COALESCE(SUM(drf.calories), 0) AS calories, COALESCE(SUM(drf.protein), 0) AS protein, " +
+            "COALESCE(SUM(drf.carbs), 0) AS carbs, COALESCE(SUM(drf.fat), 0) AS fat " +
+            "FROM diet_records dr " +
+            "LEFT JOIN diet_record_foods drf ON drf.diet_record_id = dr.id " +
+            "WHERE dr.date BETWEEN #{startDate} AND #{endDate} " +
+            "AND dr.user_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY dr.user_id, dr.date" +
+            "</script>")
+    List<DietRecordMacroSum> sumMacrosByUserAndDate(@Param("userIds") Collection<Long> userIds,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按饮食记录汇总营养素
+     * @param userIds 用户ID列表
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 每条饮食记录一行
+     */
+    @Select("<script>" +
+            "SELECT dr.id AS record_id, dr.user_id, dr.date, 1 AS record_count, " +
+            "COALESCE(SUM(drf.calories), 0) AS calories, COALESCE(SUM(drf.protein), 0) AS protein, " +
+            "COALESCE(SUM(drf.carbs), 0) AS carbs, COALESCE(SUM(drf.fat), 0) AS fat " +
+            "FROM diet_records dr " +
+            "LEFT JOIN diet_record_foods drf ON drf.diet_record_id = dr.id " +
+            "WHERE dr.date BETWEEN #{startDate} AND #{endDate} " +
+            "AND dr.user_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY dr.id, dr.user_id, dr.date" +
+            "</script>")
+    List<DietRecordMacroSum> sumMacrosByRecord(@Param("userIds") Collection<Long> userIds,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+}
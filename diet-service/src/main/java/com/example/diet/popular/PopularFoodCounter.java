@@ -0,0 +1,200 @@
+package com.example.diet.popular;
+
+import com.example.diet.entity.FoodDailyCount;
+import com.example.diet.mapper.DietRecordMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 热门食物计数器
+ * 每天一个Redis有序集合（member为食物名称，score为当天出现次数），新增/删除饮食记录时增减计数；
+ * 查询一段时间的热门食物时对各天的有序集合做一次 ZUNIONSTORE 再取前N名，不再对明细表做联表 GROUP BY。
+ * 某天第一次被查询时从数据库按天汇总一次填充（之前的增减计数会被覆盖，数据库结果已包含它们），
+ * 之后只靠增量维护；填充与并发写入交错时个别计数可能略有偏差，对排行榜可以接受。
+ */
+@Slf4j
+@Component
+public class PopularFoodCounter {
+
+    private static final String KEY_PREFIX = "diet:popular:";
+    private static final String BUILT_KEY_PREFIX = "diet:popular:built:";
+    private static final String TEMP_KEY_PREFIX = "diet:popular:tmp:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final DietRecordMapper dietRecordMapper;
+
+    /**
+     * 每天计数的保留时间，需覆盖最长的查询周期（季度）
+     */
+    private final Duration retention;
+
+    @Autowired
+    public PopularFoodCounter(StringRedisTemplate redisTemplate,
+                              DietRecordMapper dietRecordMapper,
+                              @Value("${app.diet.popular-foods.retention-days:100}") int retentionDays) {
+        this.redisTemplate = redisTemplate;
+        this.dietRecordMapper = dietRecordMapper;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * 饮食记录新增后增加当天各食物的计数，在事务提交后执行
+     *
+     * @param foodNames 记录中每条食物明细的名称（同名明细各计一次）
+     */
+    public void recordAdded(LocalDate date, Collection<String> foodNames) {
+        afterCommit(() -> increment(date, foodNames, 1));
+    }
+
+    /**
+     * 饮食记录删除后减少当天各食物的计数，在事务提交后执行
+     */
+    public void recordDeleted(LocalDate date, Collection<String> foodNames) {
+        afterCommit(() -> increment(date, foodNames, -1));
+    }
+
+    /**
+     * 查询日期范围内出现次数最多的食物
+     *
+     * @return 按次数倒序的食物名称到次数的映射
+     */
+    public Map<String, Long> topFoods(LocalDate startDate, LocalDate endDate, int limit) {
+        List<String> keys = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            keys.add(dayKey(day));
+        }
+        ensureBuilt(startDate, endDate);
+
+        String tempKey = TEMP_KEY_PREFIX + UUID.randomUUID();
+        Set<ZSetOperations.TypedTuple<String>> top;
+        try {
+            redisTemplate.opsForZSet().unionAndStore(keys.get(0), keys.subList(1, keys.size()), tempKey);
+            top = redisTemplate.opsForZSet().reverseRangeWithScores(tempKey, 0, limit - 1);
+        } finally {
+            redisTemplate.delete(tempKey);
+        }
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (top != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : top) {
+                if (tuple.getScore() != null && tuple.getScore() > 0) {
+                    result.put(tuple.getValue(), tuple.getScore().longValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    private void increment(LocalDate date, Collection<String> foodNames, int delta) {
+        if (foodNames.isEmpty()) {
+            return;
+        }
+        String key = dayKey(date);
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (String foodName : foodNames) {
+                        operations.opsForZSet().incrementScore(key, foodName, delta);
+                    }
+                    if (delta < 0) {
+                        operations.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, 0);
+                    }
+                    operations.expire(key, retention);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            // 计数只影响排行榜，不影响饮食记录本身
+            log.error("更新热门食物计数失败: date={}, delta={}", date, delta, e);
+        }
+    }
+
+    /**
+     * 从数据库填充范围内尚未填充过的日期，一次查询覆盖所有缺失的日期
+     */
+    private void ensureBuilt(LocalDate startDate, LocalDate endDate) {
+        List<String> builtKeys = new ArrayList<>();
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            builtKeys.add(BUILT_KEY_PREFIX + day);
+            days.add(day);
+        }
+        List<String> built = redisTemplate.opsForValue().multiGet(builtKeys);
+
+        List<LocalDate> missing = new ArrayList<>();
+        for (int i = 0; i < days.size(); i++) {
+            if (built == null || built.get(i) == null) {
+                missing.add(days.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        LocalDate from = missing.get(0);
+        LocalDate to = missing.get(missing.size() - 1);
+        Map<LocalDate, Map<String, Long>> countsByDay = new HashMap<>();
+        for (FoodDailyCount count : dietRecordMapper.countFoodsByDate(from, to)) {
+            countsByDay.computeIfAbsent(count.getDate(), d -> new HashMap<>())
+                    .put(count.getFoodName(), count.getCount());
+        }
+        log.info("从数据库填充热门食物计数: {} 至 {}, 缺失天数={}", from, to, missing.size());
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (LocalDate day : missing) {
+                    String key = dayKey(day);
+                    operations.delete(key);
+                    Map<String, Long> counts = countsByDay.get(day);
+                    if (counts != null) {
+                        counts.forEach((foodName, count) -> operations.opsForZSet().add(key, foodName, count));
+                        operations.expire(key, retention);
+                    }
+                    operations.opsForValue().set(BUILT_KEY_PREFIX + day, "1", retention);
+                }
+                return null;
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private static String dayKey(LocalDate date) {
+        return KEY_PREFIX + date;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.diet.service;
+
+import com.example.diet.entity.DietRecord;
+import com.example.shared.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+/**
+ * 饮食记录列表的分页游标
+ * 记录排序键（日期、时间、ID）编码为URL安全的Base64字符串，客户端只需原样回传
+ */
+final class DietRecordCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDate date;
+    private final LocalTime time;
+    private final Long id;
+
+    private DietRecordCursor(LocalDate date, LocalTime time, Long id) {
+        this.date = date;
+        this.time = time;
+        this.id = id;
+    }
+
+    /**
+     * 以某条记录作为下一页的起点生成游标
+     */
+    static String encode(DietRecord record) {
+        String raw = record.getDate() + SEPARATOR + record.getTime() + SEPARATOR + record.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static DietRecordCursor decode(String cursor) throws BusinessException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new DietRecordCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BusinessException(400, "无效的分页游标");
+        }
+    }
+
+    LocalDate getDate() {
+        return date;
+    }
+
+    LocalTime getTime() {
+        return time;
+    }
+
+    Long getId() {
+        return id;
+    }
+}
@@ -7,20 +7,29 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.diet.command.DietRecordAddCommand;
 import com.example.diet.command.DietRecordDeleteCommand;
 import com.example.diet.command.DietRecordQueryCommand;
+import com.example.diet.activity.UserActivityBitmap;
+import com.example.diet.dto.ActiveUserBitmapDTO;
+import com.example.diet.dto.DailyMacroSumsDTO;
 import com.example.diet.dto.DietRecordFoodDTO;
 import com.example.diet.dto.DietRecordResponseDTO;
+import com.example.diet.dto.RecordMacroSumsDTO;
 import com.example.user.dto.UserInfoDTO;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import com.example.diet.entity.DietRecord;
 import com.example.diet.entity.DietRecordFood;
+import com.example.diet.entity.DietRecordMacroSum;
 import com.example.diet.event.DietRecordAddedEvent;
+import com.example.diet.event.DietRecordDeletedEvent;
+import com.example.shared.cache.namespace.CacheNamespaceEvict;
+import com.example.shared.cache.namespace.CacheNamespaces;
 import com.example.shared.event.EventPublisher;
 import com.example.shared.response.PageResult;
 import com.example.diet.service.DietRecordService;
 import com.example.user.service.UserService;
 import com.example.diet.mapper.DietRecordFoodMapper;
 import com.example.diet.mapper.DietRecordMapper;
+import com.example.diet.popular.PopularFoodCounter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.dubbo.config.annotation.DubboReference;
@@ -30,13 +39,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -50,6 +65,19 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
     private final DietRecordMapper dietRecordMapper;
     private final DietRecordFoodMapper dietRecordFoodMapper;
     private final EventPublisher eventPublisher;
+    private final CacheNamespaces cacheNamespaces;
+    private final PopularFoodCounter popularFoodCounter;
+    private final UserActivityBitmap userActivityBitmap;
+
+    /**
+     * 批量查询食物明细时每条IN语句包含的记录数
+     */
+    private static final int FOOD_QUERY_CHUNK_SIZE = 1000;
+
+    /**
+     * 分页查询每页最多返回的记录数，页码分页与游标分页共用
+     */
+    private static final int MAX_PAGE_SIZE = 100;
 
     @DubboReference
     private UserService userService;
@@ -57,10 +85,16 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
     @Autowired
     public DietRecordServiceImpl(DietRecordMapper dietRecordMapper,
                                  DietRecordFoodMapper dietRecordFoodMapper,
-                                 EventPublisher eventPublisher) {
+                                 EventPublisher eventPublisher,
+                                 CacheNamespaces cacheNamespaces,
+                                 PopularFoodCounter popularFoodCounter,
+                                 UserActivityBitmap userActivityBitmap) {
         this.dietRecordMapper = dietRecordMapper;
         this.dietRecordFoodMapper = dietRecordFoodMapper;
         this.eventPublisher = eventPublisher;
+        this.cacheNamespaces = cacheNamespaces;
+        this.popularFoodCounter = popularFoodCounter;
+        this.userActivityBitmap = userActivityBitmap;
     }
 
 
@@ -83,50 +117,74 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
      * 将DietRecord转换为ResponseDTO
      */
     private DietRecordResponseDTO convertToResponseDTO(DietRecord dietRecord) {
-        DietRecordResponseDTO responseDTO = new DietRecordResponseDTO();
-        BeanUtils.copyProperties(dietRecord, responseDTO);
+        return convertToResponseDTOs(Collections.singletonList(dietRecord)).get(0);
+    }
 
-        // 获取用户信息
+    /**
+     * 批量将DietRecord转换为ResponseDTO
+     * 所有记录的食物明细按批次IN查询，用户名通过一次批量RPC获取，再在内存中组装
+     */
+    private List<DietRecordResponseDTO> convertToResponseDTOs(List<DietRecord> dietRecords) {
+        if (dietRecords.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 批量获取用户名
+        Map<Long, UserInfoDTO> users = new HashMap<>();
+        List<Long> userIds = dietRecords.stream()
+                .map(DietRecord::getUserId)
+                .distinct()
+                .collect(Collectors.toList());
         try {
-            UserInfoDTO user = userService.getUserById(dietRecord.getUserId());
-            if (user != null) {
-                responseDTO.setUsername(user.getUsername());
-            } else {
-                // 如果找不到用户，设置默认值
-                responseDTO.setUsername("未知用户");
-            }
+            users = userService.getUsersByIds(userIds);
         } catch (Exception e) {
-            log.error("获取用户信息失败，用户ID: {}", dietRecord.getUserId(), e);
-            responseDTO.setUsername("未知用户");
+            log.error("批量获取用户信息失败，用户数: {}", userIds.size(), e);
         }
 
-        // 获取食物明细
-        LambdaQueryWrapper<DietRecordFood> foodWrapper = new LambdaQueryWrapper<>();
-        foodWrapper.eq(DietRecordFood::getDietRecordId, dietRecord.getId());
-        List<DietRecordFood> foodList = dietRecordFoodMapper.selectList(foodWrapper);
-
-        // 转换食物明细
-        List<DietRecordFoodDTO> foodDTOList = foodList.stream().map(food -> {
-            DietRecordFoodDTO foodDTO = new DietRecordFoodDTO();
-            foodDTO.setFoodId(food.getFoodId());
-            foodDTO.setName(food.getFoodName());
-            foodDTO.setAmount(food.getAmount());
-            foodDTO.setUnit(food.getUnit());
-            foodDTO.setCalories(food.getCalories());
-            foodDTO.setProtein(food.getProtein());
-            foodDTO.setFat(food.getFat());
-            foodDTO.setCarbs(food.getCarbs());
-            foodDTO.setGrams(food.getGrams());
-            return foodDTO;
-        }).collect(Collectors.toList());
+        // 批量获取食物明细，按记录ID分组
+        Map<Long, List<DietRecordFoodDTO>> foodsByRecord = new HashMap<>();
+        List<Long> recordIds = dietRecords.stream().map(DietRecord::getId).collect(Collectors.toList());
+        for (int i = 0; i < recordIds.size(); i += FOOD_QUERY_CHUNK_SIZE) {
+            List<Long> chunk = recordIds.subList(i, Math.min(i + FOOD_QUERY_CHUNK_SIZE, recordIds.size()));
+            LambdaQueryWrapper<DietRecordFood> foodWrapper = new LambdaQueryWrapper<>();
+            foodWrapper.in(DietRecordFood::getDietRecordId, chunk)
+                       .orderByAsc(DietRecordFood::getId);
+            for (DietRecordFood food : dietRecordFoodMapper.selectList(foodWrapper)) {
+                foodsByRecord.computeIfAbsent(food.getDietRecordId(), k -> new ArrayList<>())
+                             .add(convertFoodToDTO(food));
+            }
+        }
 
-        responseDTO.setFoods(foodDTOList);
+        List<DietRecordResponseDTO> responseDTOs = new ArrayList<>(dietRecords.size());
+        for (DietRecord dietRecord : dietRecords) {
+            DietRecordResponseDTO responseDTO = new DietRecordResponseDTO();
+            BeanUtils.copyProperties(dietRecord, responseDTO);
+
+            UserInfoDTO user = users.get(dietRecord.getUserId());
+            // 如果找不到用户，设置默认值
+            responseDTO.setUsername(user != null ? user.getUsername() : "未知用户");
+            responseDTO.setFoods(foodsByRecord.getOrDefault(dietRecord.getId(), new ArrayList<>()));
+            responseDTOs.add(responseDTO);
+        }
+        return responseDTOs;
+    }
 
-        return responseDTO;
+    private DietRecordFoodDTO convertFoodToDTO(DietRecordFood food) {
+        DietRecordFoodDTO foodDTO = new DietRecordFoodDTO();
+        foodDTO.setFoodId(food.getFoodId());
+        foodDTO.setName(food.getFoodName());
+        foodDTO.setAmount(food.getAmount());
+        foodDTO.setUnit(food.getUnit());
+        foodDTO.setCalories(food.getCalories());
+        foodDTO.setProtein(food.getProtein());
+        foodDTO.setFat(food.getFat());
+        foodDTO.setCarbs(food.getCarbs());
+        foodDTO.setGrams(food.getGrams());
+        return foodDTO;
     }
 
     @Override
-    @Cacheable(value = "dietRecord", key = "'countByDate_' + #date")
+    @Cacheable(value = "dietRecord", key = "@cacheNamespaces.key('dietRecord', 'global') + 'countByDate_' + #date")
     public int countDietRecordsByDate(LocalDate date) {
         // 构建查询条件
         LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
@@ -137,24 +195,18 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
     }
 
     @Override
-    @Cacheable(value = "dietRecord", key = "'activeUsers_' + #date")
     public List<Long> findActiveUserIdsByDate(LocalDate date) {
-        // 构建查询条件
-        LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(DietRecord::getDate, date)
-                .select(DietRecord::getUserId)
-                .groupBy(DietRecord::getUserId);
-
-        // 查询并提取用户ID
-        return dietRecordMapper.selectList(wrapper)
-                .stream()
-                .map(DietRecord::getUserId)
-                .collect(Collectors.toList());
+        return findActiveUserIdsByDateRange(date, date);
     }
 
     @Override
-    @Cacheable(value = "dietRecord", key = "'activeUsersRange_' + #startDate + '_' + #endDate")
     public List<Long> findActiveUserIdsByDateRange(LocalDate startDate, LocalDate endDate) {
+        try {
+            return ActiveUserBitmapDTO.bitmapToUserIds(userActivityBitmap.bitmap(startDate, endDate));
+        } catch (Exception e) {
+            log.error("读取用户活跃位图失败，改为从数据库查询: {} 至 {}", startDate, endDate, e);
+        }
+
         // 构建查询条件
         LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
         wrapper.between(DietRecord::getDate, startDate, endDate)
@@ -168,11 +220,23 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public long countActiveUsers(LocalDate startDate, LocalDate endDate) {
+        return userActivityBitmap.count(startDate, endDate);
+    }
 
-
+    @Override
+    public ActiveUserBitmapDTO getActiveUserBitmap(LocalDate startDate, LocalDate endDate) {
+        byte[] bitmap = userActivityBitmap.bitmap(startDate, endDate);
+        long cardinality = 0;
+        for (byte b : bitmap) {
+            cardinality += Integer.bitCount(b & 0xFF);
+        }
+        return new ActiveUserBitmapDTO(startDate, endDate, cardinality, bitmap);
+    }
 
     @Override
-    @Cacheable(value = "dietRecord", key = "'popular_' + #period + '_' + #limit")
+    @Cacheable(value = "popularFoods", key = "#period + '_' + #limit")
     public List<Map<String, Object>> getPopularFoodsByPeriod(String period, int limit) {
         // 根据时间周期确定日期范围
         LocalDate endDate = LocalDate.now();
@@ -191,6 +255,20 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
                 break;
         }
 
+        // 合并每天的热门食物计数
+        try {
+            List<Map<String, Object>> result = new ArrayList<>();
+            popularFoodCounter.topFoods(startDate, endDate, limit).forEach((name, count) -> {
+                Map<String, Object> foodMap = new HashMap<>();
+                foodMap.put("name", name);
+                foodMap.put("count", count);
+                result.add(foodMap);
+            });
+            return result;
+        } catch (Exception e) {
+            log.error("读取热门食物计数失败，改为从数据库查询: period={}", period, e);
+        }
+
         log.debug("从数据库查询热门食物数据, 日期范围: {} 至 {}, 周期: {}", startDate, endDate, period);
         // 从食物明细表查询该时间段内的热门食物
         List<Map<String, Object>> popularFoods = dietRecordMapper.findPopularFoods(startDate, endDate, limit);
@@ -212,7 +290,8 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
 
     @Override
     @Transactional
-    @CacheEvict(value = "dietRecord", allEntries = true)
+    @CacheNamespaceEvict(cacheName = "dietRecord", namespaces = {"'u' + #command.userId", "'global'"})
+    @CacheEvict(value = "dietRecord", key = "'detail_' + #result")
     public Long addDietRecord(DietRecordAddCommand command) {
         // 1. 保存饮食记录主表
         DietRecord dietRecord = new DietRecord();
@@ -227,6 +306,7 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
 
         dietRecordMapper.insert(dietRecord);
         Long recordId = dietRecord.getId();
+        userActivityBitmap.markActive(dietRecord.getUserId(), dietRecord.getDate());
 
         // 2. 保存食物明细
         if (command.getFoods() != null && !command.getFoods().isEmpty()) {
@@ -249,19 +329,36 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
                 foodList.add(food);
             }
 
-            // 批量插入食物记录
-            for (DietRecordFood food : foodList) {
-                dietRecordFoodMapper.insert(food);
-            }
+            // 批量插入食物记录（单条多行INSERT）
+            dietRecordFoodMapper.insertBatch(foodList);
+
+            popularFoodCounter.recordAdded(dietRecord.getDate(),
+                    foodList.stream().map(DietRecordFood::getFoodName).collect(Collectors.toList()));
         }
 
-        // 3. 发布饮食记录添加事件
+        // 3. 发布饮食记录添加事件（携带本条记录的营养合计，供营养服务增量更新每日统计）
         try {
+            BigDecimal calories = BigDecimal.ZERO;
+            BigDecimal protein = BigDecimal.ZERO;
+            BigDecimal carbs = BigDecimal.ZERO;
+            BigDecimal fat = BigDecimal.ZERO;
+            if (command.getFoods() != null) {
+                for (DietRecordAddCommand.DietRecordFoodCommand foodCommand : command.getFoods()) {
+                    calories = calories.add(nullToZero(foodCommand.getCalories()));
+                    protein = protein.add(nullToZero(foodCommand.getProtein()));
+                    carbs = carbs.add(nullToZero(foodCommand.getCarbs()));
+                    fat = fat.add(nullToZero(foodCommand.getFat()));
+                }
+            }
             DietRecordAddedEvent event = new DietRecordAddedEvent(
                 command.getUserId(),
                 recordId,
                 dietRecord.getDate(),
-                command.getMealType()
+                command.getMealType(),
+                calories,
+                protein,
+                carbs,
+                fat
             );
             eventPublisher.publish(event);
             log.info("发布饮食记录添加事件: userId={}, recordId={}, date={}",
@@ -276,15 +373,22 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
     }
 
     @Override
-    @Cacheable(value = "dietRecord", key = "'records_' + #command.userId + '_' + #command.page + '_' + #command.size + '_' + (#command.startDate ?: '') + '_' + (#command.endDate ?: '') + '_' + (#command.mealType ?: '')")
+    @Cacheable(value = "dietRecord", key = "@cacheNamespaces.key('dietRecord', 'u' + #command.userId) + 'records_' + #command.userId + '_' + #command.page + '_' + #command.size + '_' + (#command.startDate ?: '') + '_' + (#command.endDate ?: '') + '_' + (#command.mealType ?: '') + '_' + (#command.seek ?: '') + '_' + (#command.cursor ?: '') + '_' + (#command.searchCount ?: '')")
     public PageResult<DietRecordResponseDTO> getDietRecords(DietRecordQueryCommand command) {
         log.debug("从数据库查询饮食记录列表");
 
-        // 构建查询条件
-        LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(DietRecord::getUserId, command.getUserId());
+        return queryDietRecordPage(command, () -> {
+            LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(DietRecord::getUserId, command.getUserId());
+            applyListFilters(wrapper, command);
+            return wrapper;
+        });
+    }
 
-        // 日期范围过滤
+    /**
+     * 日期范围、餐次类型过滤
+     */
+    private void applyListFilters(LambdaQueryWrapper<DietRecord> wrapper, DietRecordQueryCommand command) {
         if (StringUtils.isNotBlank(command.getStartDate())) {
             LocalDate startDate = LocalDate.parse(command.getStartDate());
             wrapper.ge(DietRecord::getDate, startDate);
@@ -293,25 +397,59 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
             LocalDate endDate = LocalDate.parse(command.getEndDate());
             wrapper.le(DietRecord::getDate, endDate);
         }
-
-        // 餐次类型过滤
         if (StringUtils.isNotBlank(command.getMealType())) {
             wrapper.eq(DietRecord::getMealType, command.getMealType());
         }
+    }
 
-        // 按日期和时间倒序排列
-        wrapper.orderByDesc(DietRecord::getDate).orderByDesc(DietRecord::getTime);
+    /**
+     * 按日期、时间、ID倒序分页查询饮食记录
+     * 每页条数限制在 1~{@value #MAX_PAGE_SIZE} 之间。
+     * 页码分页使用 LIMIT offset；游标分页从游标位置向后取 size+1 条判断是否还有下一页，
+     * 配合 (user_id, date, time, id) / (date, time, id) 索引不再扫描前面的行。
+     *
+     * @param filterWrapper 每次返回一个只含过滤条件的新查询条件，统计总数与取数据各用一个
+     */
+    private PageResult<DietRecordResponseDTO> queryDietRecordPage(DietRecordQueryCommand command,
+                                                                  Supplier<LambdaQueryWrapper<DietRecord>> filterWrapper) {
+        int size = Math.min(MAX_PAGE_SIZE, Math.max(1, command.getSize() != null ? command.getSize() : 10));
 
-        // 执行分页查询
-        IPage<DietRecord> page = new Page<>(command.getPage(), command.getSize());
-        page = dietRecordMapper.selectPage(page, wrapper);
+        if (!Boolean.TRUE.equals(command.getSeek())) {
+            LambdaQueryWrapper<DietRecord> wrapper = filterWrapper.get();
+            wrapper.orderByDesc(DietRecord::getDate).orderByDesc(DietRecord::getTime).orderByDesc(DietRecord::getId);
 
-        // 转换为响应DTO
-        List<DietRecordResponseDTO> records = page.getRecords().stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+            int current = Math.max(1, command.getPage() != null ? command.getPage() : 1);
+            boolean searchCount = !Boolean.FALSE.equals(command.getSearchCount());
+            IPage<DietRecord> page = new Page<>(current, size, searchCount);
+            page = dietRecordMapper.selectPage(page, wrapper);
+
+            List<DietRecordResponseDTO> records = convertToResponseDTOs(page.getRecords());
+            return PageResult.of(records, searchCount ? page.getTotal() : PageResult.TOTAL_UNKNOWN, current, size);
+        }
+
+        LambdaQueryWrapper<DietRecord> wrapper = filterWrapper.get();
+        if (StringUtils.isNotBlank(command.getCursor())) {
+            DietRecordCursor cursor = DietRecordCursor.decode(command.getCursor());
+            // (date, time, id) < 游标，先用 date <= 游标日期 限定索引扫描范围
+            wrapper.le(DietRecord::getDate, cursor.getDate())
+                    .and(w -> w.lt(DietRecord::getDate, cursor.getDate())
+                            .or(x -> x.eq(DietRecord::getDate, cursor.getDate()).lt(DietRecord::getTime, cursor.getTime()))
+                            .or(x -> x.eq(DietRecord::getDate, cursor.getDate()).eq(DietRecord::getTime, cursor.getTime())
+                                    .lt(DietRecord::getId, cursor.getId())));
+        }
+        wrapper.orderByDesc(DietRecord::getDate).orderByDesc(DietRecord::getTime).orderByDesc(DietRecord::getId)
+                .last("LIMIT " + (size + 1));
+
+        List<DietRecord> rows = dietRecordMapper.selectList(wrapper);
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = DietRecordCursor.encode(rows.get(size - 1));
+        }
 
-        return PageResult.of(records, page.getTotal(), command.getPage(), command.getSize());
+        long total = Boolean.TRUE.equals(command.getSearchCount())
+                ? dietRecordMapper.selectCount(filterWrapper.get()) : PageResult.TOTAL_UNKNOWN;
+        return PageResult.ofCursor(convertToResponseDTOs(rows), total, size, nextCursor);
     }
 
     @Override
@@ -338,12 +476,12 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
         // 按用户ID和日期分组
         Map<Long, Map<String, List<DietRecordResponseDTO>>> result = new HashMap<>();
 
-        for (DietRecord dietRecord : dietRecords) {
-            Long userId = dietRecord.getUserId();
-            String dateStr = dietRecord.getDate().toString();
+        // 批量转换为ResponseDTO
+        List<DietRecordResponseDTO> responseDTOs = convertToResponseDTOs(dietRecords);
 
-            // 转换为ResponseDTO
-            DietRecordResponseDTO responseDTO = convertToResponseDTO(dietRecord);
+        for (DietRecordResponseDTO responseDTO : responseDTOs) {
+            Long userId = responseDTO.getUserId();
+            String dateStr = responseDTO.getDate().toString();
 
             // 按用户ID分组
             result.computeIfAbsent(userId, k -> new HashMap<>())
@@ -356,57 +494,91 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
     }
 
     @Override
-    @Cacheable(value = "dietRecord", key = "'all_' + #command.page + '_' + #command.size + '_' + (#command.startDate ?: '') + '_' + (#command.endDate ?: '') + '_' + (#command.mealType ?: '')")
-    public PageResult<DietRecordResponseDTO> getAllUsersDietRecords(DietRecordQueryCommand command) {
-
-        log.debug("管理员查询所有用户的饮食记录: userId={}, page={}, size={}, startDate={}, endDate={}, mealType={}",
-                command.getUserId(), command.getPage(), command.getSize(),
-                command.getStartDate(), command.getEndDate(), command.getMealType());
-
-        // 构建查询条件
-        LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
+    public DailyMacroSumsDTO getDailyMacroSums(Collection<Long> userIds, LocalDate startDate, LocalDate endDate) {
+        List<Long> distinctUserIds = distinctNonNull(userIds);
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        long[] userIdArray = distinctUserIds.stream().mapToLong(Long::longValue).toArray();
+        DailyMacroSumsDTO result = new DailyMacroSumsDTO(startDate, Math.max(days, 0), userIdArray);
+        if (distinctUserIds.isEmpty() || days <= 0) {
+            return result;
+        }
 
-        // 用户ID过滤，仅管理员后台使用
-        if (command.getUserId() != null) {
-            wrapper.eq(DietRecord::getUserId, command.getUserId());
+        Map<Long, Integer> userIndexes = new HashMap<>();
+        for (int i = 0; i < userIdArray.length; i++) {
+            userIndexes.put(userIdArray[i], i);
         }
 
-        // 日期范围过滤
-        if (StringUtils.isNotBlank(command.getStartDate())) {
-            LocalDate startDate = LocalDate.parse(command.getStartDate());
-            wrapper.ge(DietRecord::getDate, startDate);
+        List<DietRecordMacroSum> sums = dietRecordMapper.sumMacrosByUserAndDate(distinctUserIds, startDate, endDate);
+        for (DietRecordMacroSum sum : sums) {
+            int u = userIndexes.get(sum.getUserId());
+            int d = (int) ChronoUnit.DAYS.between(startDate, sum.getDate());
+            result.getRecordCounts()[u][d] = sum.getRecordCount();
+            result.getCalories()[u][d] = sum.getCalories().doubleValue();
+            result.getProtein()[u][d] = sum.getProtein().doubleValue();
+            result.getCarbs()[u][d] = sum.getCarbs().doubleValue();
+            result.getFat()[u][d] = sum.getFat().doubleValue();
         }
-        if (StringUtils.isNotBlank(command.getEndDate())) {
-            LocalDate endDate = LocalDate.parse(command.getEndDate());
-            wrapper.le(DietRecord::getDate, endDate);
+
+        log.debug("批量汇总每日营养素: users={}, days={}, rows={}", userIdArray.length, days, sums.size());
+        return result;
+    }
+
+    @Override
+    public RecordMacroSumsDTO getRecordMacroSums(Collection<Long> userIds, LocalDate startDate, LocalDate endDate) {
+        List<Long> distinctUserIds = distinctNonNull(userIds);
+        if (distinctUserIds.isEmpty() || startDate.isAfter(endDate)) {
+            return new RecordMacroSumsDTO(0);
         }
 
-        // 餐次类型过滤
-        if (StringUtils.isNotBlank(command.getMealType())) {
-            wrapper.eq(DietRecord::getMealType, command.getMealType());
+        List<DietRecordMacroSum> sums = dietRecordMapper.sumMacrosByRecord(distinctUserIds, startDate, endDate);
+        RecordMacroSumsDTO result = new RecordMacroSumsDTO(sums.size());
+        for (int i = 0; i < sums.size(); i++) {
+            DietRecordMacroSum sum = sums.get(i);
+            result.getRecordIds()[i] = sum.getRecordId();
+            result.getUserIds()[i] = sum.getUserId();
+            result.getDates()[i] = sum.getDate();
+            result.getCalories()[i] = sum.getCalories().doubleValue();
+            result.getProtein()[i] = sum.getProtein().doubleValue();
+            result.getCarbs()[i] = sum.getCarbs().doubleValue();
+            result.getFat()[i] = sum.getFat().doubleValue();
         }
 
-        // 按日期和时间倒序排列，确保最新记录在前
-        wrapper.orderByDesc(DietRecord::getDate).orderByDesc(DietRecord::getTime);
+        log.debug("批量汇总饮食记录营养素: users={}, records={}", distinctUserIds.size(), sums.size());
+        return result;
+    }
+
+    private static List<Long> distinctNonNull(Collection<Long> userIds) {
+        if (userIds == null) {
+            return new ArrayList<>();
+        }
+        return userIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
 
-        // 执行分页查询
-        IPage<DietRecord> page = new Page<>(command.getPage(), command.getSize());
-        page = dietRecordMapper.selectPage(page, wrapper);
+    @Override
+    @Cacheable(value = "dietRecord", key = "@cacheNamespaces.key('dietRecord', 'global') + 'all_' + #command.page + '_' + #command.size + '_' + (#command.startDate ?: '') + '_' + (#command.endDate ?: '') + '_' + (#command.mealType ?: '') + '_' + (#command.seek ?: '') + '_' + (#command.cursor ?: '') + '_' + (#command.searchCount ?: '')")
+    public PageResult<DietRecordResponseDTO> getAllUsersDietRecords(DietRecordQueryCommand command) {
 
-        // 转换为响应DTO
-        List<DietRecordResponseDTO> records = page.getRecords().stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        log.debug("管理员查询所有用户的饮食记录: userId={}, page={}, size={}, startDate={}, endDate={}, mealType={}",
+                command.getUserId(), command.getPage(), command.getSize(),
+                command.getStartDate(), command.getEndDate(), command.getMealType());
 
-        PageResult<DietRecordResponseDTO> result = PageResult.of(records, page.getTotal(), command.getPage(), command.getSize());
-        log.debug("从数据库获取管理员查询的饮食记录列表, 共{}条记录", records.size());
+        PageResult<DietRecordResponseDTO> result = queryDietRecordPage(command, () -> {
+            LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
+            // 用户ID过滤，仅管理员后台使用
+            if (command.getUserId() != null) {
+                wrapper.eq(DietRecord::getUserId, command.getUserId());
+            }
+            applyListFilters(wrapper, command);
+            return wrapper;
+        });
+        log.debug("从数据库获取管理员查询的饮食记录列表, 共{}条记录", result.getRecords().size());
 
         return result;
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "dietRecord", allEntries = true)
+    @CacheEvict(value = "dietRecord", key = "'detail_' + #command.recordId")
     public boolean deleteDietRecord(DietRecordDeleteCommand command) {
         // 验证记录是否属于该用户
         LambdaQueryWrapper<DietRecord> wrapper = new LambdaQueryWrapper<>();
@@ -423,14 +595,45 @@ public class DietRecordServiceImpl extends ServiceImpl<DietRecordMapper, DietRec
             return false;
         }
 
-        // 删除食物记录
+        // 删除食物记录（先取出食物名称用于扣减热门食物计数）
         LambdaQueryWrapper<DietRecordFood> foodWrapper = new LambdaQueryWrapper<>();
         foodWrapper.eq(DietRecordFood::getDietRecordId, command.getRecordId());
+        LambdaQueryWrapper<DietRecordFood> foodNameWrapper = new LambdaQueryWrapper<>();
+        foodNameWrapper.select(DietRecordFood::getFoodName).eq(DietRecordFood::getDietRecordId, command.getRecordId());
+        List<String> foodNames = dietRecordFoodMapper.selectList(foodNameWrapper)
+                .stream().map(DietRecordFood::getFoodName).collect(Collectors.toList());
         dietRecordFoodMapper.delete(foodWrapper);
+        popularFoodCounter.recordDeleted(dietRecord.getDate(), foodNames);
 
         // 删除主记录
         dietRecordMapper.deleteById(command.getRecordId());
 
+        // 当天已没有其他记录时清除用户当天的活跃标记
+        LambdaQueryWrapper<DietRecord> remainingWrapper = new LambdaQueryWrapper<>();
+        remainingWrapper.eq(DietRecord::getUserId, dietRecord.getUserId()).eq(DietRecord::getDate, dietRecord.getDate());
+        if (dietRecordMapper.selectCount(remainingWrapper) == 0) {
+            userActivityBitmap.markInactive(dietRecord.getUserId(), dietRecord.getDate());
+        }
+
+        // 管理员删除时命令中没有用户ID，按记录所属用户失效
+        cacheNamespaces.evict("dietRecord", "u" + dietRecord.getUserId(), "global");
+
+        // 发布饮食记录删除事件
+        try {
+            eventPublisher.publish(new DietRecordDeletedEvent(
+                dietRecord.getUserId(), dietRecord.getId(), dietRecord.getDate()));
+            log.info("发布饮食记录删除事件: userId={}, recordId={}, date={}",
+                dietRecord.getUserId(), dietRecord.getId(), dietRecord.getDate());
+        } catch (Exception e) {
+            log.error("发布饮食记录删除事件失败: userId={}, recordId={}",
+                dietRecord.getUserId(), dietRecord.getId(), e);
+            // 事件发布失败不影响主业务流程
+        }
+
         return true;
     }
+
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
 }
\ No newline at end of file
@@ -69,7 +69,8 @@ CREATE TABLE `diet_records` (
   `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
-  KEY `idx_user_date` (`user_id`,`date`) COMMENT '用户日期索引'
+  KEY `idx_user_date_time` (`user_id`,`date`,`time`,`id`) COMMENT '用户记录列表游标分页索引',
+  KEY `idx_date_time` (`date`,`time`,`id`) COMMENT '全部用户记录列表游标分页索引'
 ) ENGINE=InnoDB AUTO_INCREMENT=341 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='饮食记录主表';
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -185,6 +186,35 @@ INSERT INTO `nutrition_advice` VALUES (1,'warning','蛋白质摄入不足','建
 /*!40000 ALTER TABLE `nutrition_advice` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `platform_daily_nutrition`
+--
+
+DROP TABLE IF EXISTS `platform_daily_nutrition`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `platform_daily_nutrition` (
+  `date` date NOT NULL COMMENT '日期',
+  `calories` decimal(16,2) NOT NULL DEFAULT '0.00' COMMENT '所有用户热量合计（千卡）',
+  `protein` decimal(16,2) NOT NULL DEFAULT '0.00' COMMENT '所有用户蛋白质合计（g）',
+  `carbs` decimal(16,2) NOT NULL DEFAULT '0.00' COMMENT '所有用户碳水化合物合计（g）',
+  `fat` decimal(16,2) NOT NULL DEFAULT '0.00' COMMENT '所有用户脂肪合计（g）',
+  `active_users` int NOT NULL DEFAULT '0' COMMENT '当日有饮食记录的用户数',
+  `compliant_users` int NOT NULL DEFAULT '0' COMMENT '当日营养达标的用户数',
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='全平台每日营养汇总表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `platform_daily_nutrition`
+--
+
+LOCK TABLES `platform_daily_nutrition` WRITE;
+/*!40000 ALTER TABLE `platform_daily_nutrition` DISABLE KEYS */;
+/*!40000 ALTER TABLE `platform_daily_nutrition` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `user`
 --
@@ -219,6 +249,93 @@ INSERT INTO `user` VALUES (3,'user1','$2a$10$LzQtjCwPnLF2EMQL0xGBhuRvCgbou.Jo22i
 /*!40000 ALTER TABLE `user` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `user_daily_nutrition`
+--
+
+DROP TABLE IF EXISTS `user_daily_nutrition`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `user_daily_nutrition` (
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `date` date NOT NULL COMMENT '日期',
+  `calories` decimal(10,2) NOT NULL DEFAULT '0.00' COMMENT '热量合计（千卡）',
+  `protein` decimal(10,2) NOT NULL DEFAULT '0.00' COMMENT '蛋白质合计（g）',
+  `carbs` decimal(10,2) NOT NULL DEFAULT '0.00' COMMENT '碳水化合物合计（g）',
+  `fat` decimal(10,2) NOT NULL DEFAULT '0.00' COMMENT '脂肪合计（g）',
+  `record_count` int NOT NULL DEFAULT '0' COMMENT '当日饮食记录数',
+  `compliant` tinyint(1) NOT NULL DEFAULT '0' COMMENT '是否达标：热量、蛋白质、碳水、脂肪均达到目标的80%',
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`user_id`,`date`),
+  KEY `idx_date` (`date`) COMMENT '日期索引'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='用户每日营养汇总表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `user_daily_nutrition`
+--
+
+LOCK TABLES `user_daily_nutrition` WRITE;
+/*!40000 ALTER TABLE `user_daily_nutrition` DISABLE KEYS */;
+/*!40000 ALTER TABLE `user_daily_nutrition` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `user_daily_nutrition_record`
+--
+
+DROP TABLE IF EXISTS `user_daily_nutrition_record`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `user_daily_nutrition_record` (
+  `record_id` bigint NOT NULL COMMENT '饮食记录ID',
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `date` date NOT NULL COMMENT '记录日期',
+  `calories` decimal(10,2) NOT NULL DEFAULT '0.00' COMMENT '热量合计（千卡）',
+  `protein` decimal(10,2) NOT NULL DEFAULT '0.00' COMMENT '蛋白质合计（g）',
+  `carbs` decimal(10,2) NOT NULL DEFAULT '0.00' COMMENT '碳水化合物合计（g）',
+  `fat` decimal(10,2) NOT NULL DEFAULT '0.00' COMMENT '脂肪合计（g）',
+  `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`record_id`),
+  KEY `idx_user_date` (`user_id`,`date`) COMMENT '用户日期索引'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='每日营养汇总明细表';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `user_daily_nutrition_record`
+--
+
+LOCK TABLES `user_daily_nutrition_record` WRITE;
+/*!40000 ALTER TABLE `user_daily_nutrition_record` DISABLE KEYS */;
+/*!40000 ALTER TABLE `user_daily_nutrition_record` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `user_daily_nutrition_tombstone`
+--
+
+DROP TABLE IF EXISTS `user_daily_nutrition_tombstone`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `user_daily_nutrition_tombstone` (
+  `record_id` bigint NOT NULL COMMENT '已删除的饮食记录ID',
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `date` date NOT NULL COMMENT '记录日期',
+  `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '删除事件处理时间',
+  PRIMARY KEY (`record_id`),
+  KEY `idx_created_at` (`created_at`) COMMENT '过期清理索引'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='每日营养汇总删除墓碑表：删除先于添加到达时，使之后的添加失效';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `user_daily_nutrition_tombstone`
+--
+
+LOCK TABLES `user_daily_nutrition_tombstone` WRITE;
+/*!40000 ALTER TABLE `user_daily_nutrition_tombstone` DISABLE KEYS */;
+/*!40000 ALTER TABLE `user_daily_nutrition_tombstone` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `user_nutrition_goals`
 --
@@ -241,7 +358,8 @@ CREATE TABLE `user_nutrition_goals` (
   `is_low_sodium` tinyint(1) DEFAULT '0',
   `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
   `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_user_id` (`user_id`) COMMENT '用户ID索引'
 ) ENGINE=InnoDB AUTO_INCREMENT=2 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -2,6 +2,9 @@ package com.example.file.service;
 
 import com.example.shared.exception.BusinessException;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 文件服务接口，用于处理文件上传和访问
  */
@@ -29,6 +32,17 @@ public interface FileService {
      */
     String generateDownloadPresignedUrl(String fileName, int expiration) throws BusinessException;
 
+    /**
+     * 批量生成文件下载的预签名URL
+     * 只在本地签名，不检查文件是否存在
+     *
+     * @param fileNames 文件名集合，空白文件名会被忽略
+     * @param expiration URL的有效期（分钟）
+     * @return 文件名到预签名URL的映射
+     * @throws BusinessException 生成预签名URL失败时抛出业务异常
+     */
+    Map<String, String> generateDownloadPresignedUrls(Collection<String> fileNames, int expiration) throws BusinessException;
+
     /**
      * 删除指定的文件
      *
@@ -36,4 +50,12 @@ public interface FileService {
      * @throws BusinessException 删除文件失败时抛出业务异常
      */
     void deleteFile(String fileName) throws BusinessException;
+
+    /**
+     * 将文件加入异步删除队列，立即返回
+     * 队列持久化在文件服务端，按批次删除并在失败时退避重试；不存在的文件视为删除成功
+     *
+     * @param fileNames 要删除的文件名集合，空白文件名会被忽略
+     */
+    void enqueueDelete(Collection<String> fileNames);
 }
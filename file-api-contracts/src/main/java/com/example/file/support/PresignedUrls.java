@@ -0,0 +1,50 @@
+package com.example.file.support;
+
+import com.example.file.service.FileService;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 消费方批量生成下载预签名URL的辅助方法
+ * 一页数据中所有对象的文件名合并为一次 {@link FileService#generateDownloadPresignedUrls} 调用，代替逐条RPC
+ */
+public final class PresignedUrls {
+
+    private PresignedUrls() {
+    }
+
+    /**
+     * 为一批对象生成下载URL并回填
+     * 文件名为空或未能生成URL的对象不调用 urlSetter，调用方应事先设置好默认值；
+     * RPC失败时异常直接抛出，由调用方决定降级方式。
+     *
+     * @param fileNameGetter 取对象的文件名
+     * @param urlSetter      回填生成的URL
+     */
+    public static <T> void signAll(FileService fileService, Collection<T> items, int expiration,
+                                   Function<T, String> fileNameGetter, BiConsumer<T, String> urlSetter) {
+        Set<String> fileNames = new LinkedHashSet<>();
+        for (T item : items) {
+            String fileName = item != null ? fileNameGetter.apply(item) : null;
+            if (fileName != null && !fileName.trim().isEmpty()) {
+                fileNames.add(fileName);
+            }
+        }
+        if (fileNames.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> urls = fileService.generateDownloadPresignedUrls(fileNames, expiration);
+        for (T item : items) {
+            String url = item != null ? urls.get(fileNameGetter.apply(item)) : null;
+            if (url != null) {
+                urlSetter.accept(item, url);
+            }
+        }
+    }
+}
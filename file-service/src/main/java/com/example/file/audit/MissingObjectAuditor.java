@@ -0,0 +1,102 @@
+package com.example.file.audit;
+
+import com.example.file.presign.PresignedUrlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预签名文件存在性后台审计（app.file.presign.audit-missing=true 时启用）
+ * 批量签名不再逐个 HEAD 检查，签过名的文件名放入有界队列，由后台线程逐个检查；
+ * 不存在的文件记录告警并清除其缓存的URL。队列满时直接丢弃，审计不影响签名本身。
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.file.presign", name = "audit-missing", havingValue = "true")
+public class MissingObjectAuditor implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MissingObjectAuditor.class);
+
+    private static final int QUEUE_CAPACITY = 10000;
+
+    /**
+     * 关闭时等待后台线程结束的最长时间（毫秒），正在进行的HEAD请求可以在此期间完成
+     */
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final PresignedUrlCache presignedUrlCache;
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread worker;
+
+    @Autowired
+    public MissingObjectAuditor(S3Client s3Client, String bucketName, PresignedUrlCache presignedUrlCache) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.presignedUrlCache = presignedUrlCache;
+        this.worker = new Thread(this::run, "presign-audit");
+        this.worker.setDaemon(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        worker.start();
+    }
+
+    /**
+     * 提交待检查的文件名
+     */
+    public void submit(Collection<String> fileNames) {
+        for (String fileName : fileNames) {
+            if (!queue.offer(fileName)) {
+                log.debug("预签名审计队列已满，丢弃剩余 {} 个文件名", fileNames.size());
+                return;
+            }
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                String fileName = queue.poll(1, TimeUnit.SECONDS);
+                if (fileName != null) {
+                    check(fileName);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("预签名文件审计失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void check(String fileName) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(fileName).build());
+        } catch (NoSuchKeyException e) {
+            log.warn("已签名的文件不存在: {}", fileName);
+            presignedUrlCache.evict(fileName);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        worker.interrupt();
+        worker.join(SHUTDOWN_WAIT_MILLIS);
+        if (worker.isAlive()) {
+            log.warn("预签名审计线程未在 {}ms 内退出", SHUTDOWN_WAIT_MILLIS);
+        }
+    }
+}
@@ -28,6 +28,8 @@ public class SecurityConfig {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .authorizeRequests(authz -> authz
+                        // 缓存运维端点可以清除缓存并列出热点key，只允许管理员访问
+                        .antMatchers("/actuator/cacheadmin/**").hasRole("ADMIN")
                         .antMatchers("/actuator/**").permitAll()
                         .antMatchers("/api/files/download/**").permitAll() // 文件下载允许匿名访问（通过预签名URL控制）
                         .anyRequest().authenticated()
@@ -0,0 +1,133 @@
+package com.example.file.delete;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 持久化的文件删除队列（Redis）
+ * <ul>
+ *     <li>{@value #PENDING_KEY}：ZSET，成员为文件名，分数为下次可处理的时间戳（毫秒）</li>
+ *     <li>{@value #ATTEMPTS_KEY}：HASH，记录每个文件已失败的次数</li>
+ *     <li>{@value #DEAD_KEY}：ZSET，超过最大重试次数的文件，分数为放弃时间，留待人工处理</li>
+ * </ul>
+ * 取出时不移除条目，而是把分数推后一个租约时长：删除成功后移除，进程在处理中崩溃时租约到期自动重新投递，
+ * 多个文件服务实例可以同时消费。
+ */
+@Component
+public class ObjectDeletionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectDeletionQueue.class);
+
+    static final String PENDING_KEY = "file:delete:pending";
+    static final String ATTEMPTS_KEY = "file:delete:attempts";
+    static final String DEAD_KEY = "file:delete:dead";
+
+    /**
+     * 原子地取出到期的成员并推后其分数
+     */
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) "
+                    + "for _, member in ipairs(due) do redis.call('ZADD', KEYS[1], ARGV[3], member) end "
+                    + "return due",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.file.delete.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${app.file.delete.initial-backoff:PT10S}")
+    private Duration initialBackoff;
+
+    @Value("${app.file.delete.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${app.file.delete.max-attempts:10}")
+    private int maxAttempts;
+
+    @Autowired
+    public ObjectDeletionQueue(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 加入队列，已在队列中（包括正在退避）的文件保持原有的处理时间
+     */
+    public void enqueue(Collection<String> fileNames) {
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        for (String fileName : fileNames) {
+            tuples.add(new DefaultTypedTuple<>(fileName, (double) now));
+        }
+        if (!tuples.isEmpty()) {
+            redisTemplate.opsForZSet().addIfAbsent(PENDING_KEY, tuples);
+        }
+    }
+
+    /**
+     * 取出最多 limit 个到期的文件名，租约期内其他消费者不会再取到
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> claim(int limit) {
+        long now = System.currentTimeMillis();
+        List<String> claimed = redisTemplate.execute(CLAIM_SCRIPT, Collections.singletonList(PENDING_KEY),
+                String.valueOf(now), String.valueOf(limit), String.valueOf(now + lease.toMillis()));
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+
+    /**
+     * 删除成功，移出队列
+     */
+    public void complete(Collection<String> fileNames) {
+        if (fileNames.isEmpty()) {
+            return;
+        }
+        Object[] members = fileNames.toArray();
+        redisTemplate.opsForZSet().remove(PENDING_KEY, members);
+        redisTemplate.opsForHash().delete(ATTEMPTS_KEY, members);
+    }
+
+    /**
+     * 删除失败，按失败次数指数退避后重新投递；超过最大次数的转入死信
+     */
+    public void retry(Collection<String> fileNames) {
+        long now = System.currentTimeMillis();
+        List<String> dead = new ArrayList<>();
+        for (String fileName : fileNames) {
+            long attempts = redisTemplate.opsForHash().increment(ATTEMPTS_KEY, fileName, 1);
+            if (attempts >= maxAttempts) {
+                dead.add(fileName);
+                continue;
+            }
+            redisTemplate.opsForZSet().add(PENDING_KEY, fileName, now + backoffMillis(attempts));
+        }
+        if (!dead.isEmpty()) {
+            log.error("文件删除超过最大重试次数，转入死信队列 {}: {}", DEAD_KEY, dead);
+            for (String fileName : dead) {
+                redisTemplate.opsForZSet().add(DEAD_KEY, fileName, now);
+            }
+            complete(dead);
+        }
+    }
+
+    private long backoffMillis(long attempts) {
+        long backoff = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoff.toMillis());
+    }
+}
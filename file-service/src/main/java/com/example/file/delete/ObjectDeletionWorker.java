@@ -0,0 +1,131 @@
+package com.example.file.delete;
+
+import com.example.file.presign.PresignedUrlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 文件删除队列消费者
+ * 定时从 {@link ObjectDeletionQueue} 取出到期的文件名，每批最多1000个（DeleteObjects 的上限）通过
+ * {@link S3AsyncClient} 批量删除，同一轮的多个批次并发执行，全部完成后才开始下一轮。
+ * 单个文件返回错误时只重试该文件，整批请求失败时重试整批。
+ */
+@Component
+public class ObjectDeletionWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectDeletionWorker.class);
+
+    /**
+     * S3 DeleteObjects 单次请求的最大key数
+     */
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    private final ObjectDeletionQueue queue;
+    private final S3AsyncClient s3AsyncClient;
+    private final String bucketName;
+    private final PresignedUrlCache presignedUrlCache;
+
+    @Value("${app.file.delete.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.file.delete.max-batches-per-poll:10}")
+    private int maxBatchesPerPoll;
+
+    @Autowired
+    public ObjectDeletionWorker(ObjectDeletionQueue queue, S3AsyncClient s3AsyncClient, String bucketName,
+                                PresignedUrlCache presignedUrlCache) {
+        this.queue = queue;
+        this.s3AsyncClient = s3AsyncClient;
+        this.bucketName = bucketName;
+        this.presignedUrlCache = presignedUrlCache;
+    }
+
+    @Scheduled(fixedDelayString = "${app.file.delete.poll-interval:PT1S}")
+    public void poll() {
+        int size = Math.max(1, Math.min(batchSize, MAX_KEYS_PER_REQUEST));
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                List<String> batch = queue.claim(size);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                inFlight.add(deleteBatch(batch));
+                if (batch.size() < size) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // 定时任务抛出异常不会终止调度，但这里统一记录后等待下一轮
+            log.warn("读取文件删除队列失败: {}", e.getMessage());
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+    }
+
+    private CompletableFuture<Void> deleteBatch(List<String> fileNames) {
+        List<ObjectIdentifier> objects = new ArrayList<>(fileNames.size());
+        for (String fileName : fileNames) {
+            objects.add(ObjectIdentifier.builder().key(fileName).build());
+        }
+        DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(objects).quiet(true).build())
+                .build();
+
+        return s3AsyncClient.deleteObjects(request)
+                .handle((response, error) -> {
+                    try {
+                        onBatchComplete(fileNames, response, error);
+                    } catch (Exception e) {
+                        // 结果未能写回队列时条目仍在租约中，租约到期后会重新投递
+                        log.error("处理文件删除结果失败: count={}", fileNames.size(), e);
+                    }
+                    return null;
+                });
+    }
+
+    private void onBatchComplete(List<String> fileNames, DeleteObjectsResponse response, Throwable error) {
+        if (error != null) {
+            log.warn("批量删除文件失败，稍后重试: count={}, error={}", fileNames.size(), error.getMessage());
+            queue.retry(fileNames);
+            return;
+        }
+
+        // quiet 模式下响应只包含失败的key，删除不存在的key也算成功
+        Set<String> failed = new LinkedHashSet<>();
+        for (S3Error s3Error : response.errors()) {
+            failed.add(s3Error.key());
+            log.warn("删除文件失败，稍后重试: key={}, code={}, message={}",
+                    s3Error.key(), s3Error.code(), s3Error.message());
+        }
+        List<String> deleted = new ArrayList<>(fileNames.size());
+        for (String fileName : fileNames) {
+            if (!failed.contains(fileName)) {
+                deleted.add(fileName);
+            }
+        }
+
+        presignedUrlCache.evictAll(deleted);
+        queue.complete(deleted);
+        if (!failed.isEmpty()) {
+            queue.retry(failed);
+        }
+        log.debug("批量删除文件完成: deleted={}, failed={}", deleted.size(), failed.size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.file.presign;
+
+import java.io.Serializable;
+
+/**
+ * 缓存中的下载预签名URL，记录签名时间和有效期，读取时据此判断剩余有效期
+ */
+public class PresignedUrl implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String url;
+
+    /**
+     * 签名时间（毫秒时间戳）
+     */
+    private long signedAt;
+
+    /**
+     * 签名有效期（分钟）
+     */
+    private int expirationMinutes;
+
+    public PresignedUrl() {
+    }
+
+    public PresignedUrl(String url, long signedAt, int expirationMinutes) {
+        this.url = url;
+        this.signedAt = signedAt;
+        this.expirationMinutes = expirationMinutes;
+    }
+
+    /**
+     * 距离URL失效还剩的毫秒数，已失效时为负数
+     */
+    public long remainingMillis(long now) {
+        return signedAt + expirationMinutes * 60_000L - now;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public long getSignedAt() {
+        return signedAt;
+    }
+
+    public void setSignedAt(long signedAt) {
+        this.signedAt = signedAt;
+    }
+
+    public int getExpirationMinutes() {
+        return expirationMinutes;
+    }
+
+    public void setExpirationMinutes(int expirationMinutes) {
+        this.expirationMinutes = expirationMinutes;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.file.presign;
+
+import com.example.shared.util.CacheBatchUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 感知有效期的下载预签名URL缓存（缓存名 fileUrl）
+ * <ul>
+ *     <li>请求的有效期向上取整到固定档位（{@link #EXPIRATION_BUCKETS}），按"文件名@档位"缓存，签名时使用档位时长</li>
+ *     <li>剩余有效期不足请求有效期的 min-remaining-fraction 时视为未命中，由调用方重新签名</li>
+ *     <li>剩余有效期低于档位时长的 refresh-remaining-fraction 时照常返回，同时在后台重新签名替换缓存</li>
+ * </ul>
+ * 缓存条目本身的TTL只用于回收内存，URL是否可用以条目中记录的签名时间为准。
+ */
+@Component
+public class PresignedUrlCache implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PresignedUrlCache.class);
+
+    public static final String CACHE_NAME = "fileUrl";
+
+    /**
+     * 有效期档位（分钟），最大7天为S3预签名URL的上限
+     */
+    static final int[] EXPIRATION_BUCKETS = {5, 15, 30, 60, 120, 360, 720, 1440, 10080};
+
+    private static final int REFRESH_QUEUE_CAPACITY = 1000;
+
+    private final S3Presigner s3Presigner;
+    private final String bucketName;
+    private final CacheManager cacheManager;
+
+    @Value("${app.file.presign.min-remaining-fraction:0.5}")
+    private double minRemainingFraction;
+
+    @Value("${app.file.presign.refresh-remaining-fraction:0.75}")
+    private double refreshRemainingFraction;
+
+    /**
+     * 正在后台重新签名的缓存key，避免同一key重复提交
+     */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(REFRESH_QUEUE_CAPACITY), r -> {
+                Thread t = new Thread(r, "presign-refresh");
+                t.setDaemon(true);
+                return t;
+            });
+
+    @Autowired
+    public PresignedUrlCache(S3Presigner s3Presigner, String bucketName, CacheManager cacheManager) {
+        this.s3Presigner = s3Presigner;
+        this.bucketName = bucketName;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 读取剩余有效期足够的URL
+     *
+     * @return 未命中或剩余有效期不足时返回null
+     */
+    public String get(String fileName, int expiration) {
+        return getAll(Collections.singletonList(fileName), expiration).get(fileName);
+    }
+
+    /**
+     * 批量读取剩余有效期足够的URL，结果只包含可用的文件名
+     */
+    public Map<String, String> getAll(Collection<String> fileNames, int expiration) {
+        int bucket = bucketOf(expiration);
+        Map<String, String> keys = new LinkedHashMap<>();
+        for (String fileName : fileNames) {
+            keys.put(cacheKey(fileName, bucket), fileName);
+        }
+        Map<Object, Object> cached = CacheBatchUtil.getAll(cacheManager, CACHE_NAME, keys.keySet());
+
+        long now = System.currentTimeMillis();
+        long minRemaining = (long) (Math.min(expiration, bucket) * 60_000L * minRemainingFraction);
+        long refreshBelow = (long) (bucket * 60_000L * refreshRemainingFraction);
+        Map<String, String> result = new LinkedHashMap<>();
+        List<String> toRefresh = new ArrayList<>();
+        keys.forEach((key, fileName) -> {
+            Object value = cached.get(key);
+            if (!(value instanceof PresignedUrl)) {
+                return;
+            }
+            PresignedUrl entry = (PresignedUrl) value;
+            long remaining = entry.remainingMillis(now);
+            if (remaining < minRemaining) {
+                return;
+            }
+            result.put(fileName, entry.getUrl());
+            if (remaining < refreshBelow && refreshing.add(key)) {
+                toRefresh.add(fileName);
+            }
+        });
+        if (!toRefresh.isEmpty()) {
+            scheduleRefresh(toRefresh, bucket);
+        }
+        return result;
+    }
+
+    /**
+     * 按档位时长签名并写入缓存
+     */
+    public String sign(String fileName, int expiration) {
+        return signAll(Collections.singletonList(fileName), expiration).get(fileName);
+    }
+
+    /**
+     * 批量按档位时长签名并写入缓存，签名在本地完成，不访问存储服务
+     */
+    public Map<String, String> signAll(Collection<String> fileNames, int expiration) {
+        int bucket = bucketOf(expiration);
+        long now = System.currentTimeMillis();
+        Map<String, PresignedUrl> entries = new LinkedHashMap<>();
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String fileName : fileNames) {
+            PresignedUrl entry = new PresignedUrl(presign(fileName, bucket), now, bucket);
+            entries.put(cacheKey(fileName, bucket), entry);
+            result.put(fileName, entry.getUrl());
+        }
+        CacheBatchUtil.putAll(cacheManager, CACHE_NAME, entries);
+        return result;
+    }
+
+    /**
+     * 清除文件在所有有效期档位下缓存的URL
+     */
+    public void evict(String fileName) {
+        evictAll(Collections.singletonList(fileName));
+    }
+
+    /**
+     * 批量清除文件在所有有效期档位下缓存的URL
+     */
+    public void evictAll(Collection<String> fileNames) {
+        if (fileNames.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(fileNames.size() * EXPIRATION_BUCKETS.length);
+        for (String fileName : fileNames) {
+            for (int bucket : EXPIRATION_BUCKETS) {
+                keys.add(cacheKey(fileName, bucket));
+            }
+        }
+        CacheBatchUtil.evictAll(cacheManager, CACHE_NAME, keys);
+    }
+
+    private void scheduleRefresh(List<String> fileNames, int bucket) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    signAll(fileNames, bucket);
+                } catch (Exception e) {
+                    log.warn("后台重新签名失败: count={}, error={}", fileNames.size(), e.getMessage());
+                } finally {
+                    fileNames.forEach(fileName -> refreshing.remove(cacheKey(fileName, bucket)));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 队列已满时放弃本次刷新，旧URL仍在可用期内，下次读取会再次尝试
+            fileNames.forEach(fileName -> refreshing.remove(cacheKey(fileName, bucket)));
+        }
+    }
+
+    private String presign(String fileName, int minutes) {
+        // 创建预签名下载请求，添加缓存控制
+        // 设置缓存时间为1天（86400秒）
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .responseCacheControl("public, max-age=86400") // 添加缓存控制响应头
+                .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(minutes))
+                .getObjectRequest(getObjectRequest)
+                .build();
+
+        return s3Presigner.presignGetObject(presignRequest).url().toString();
+    }
+
+    /**
+     * 请求的有效期向上取整到档位，超过最大档位时取最大档位
+     */
+    static int bucketOf(int expiration) {
+        for (int bucket : EXPIRATION_BUCKETS) {
+            if (expiration <= bucket) {
+                return bucket;
+            }
+        }
+        return EXPIRATION_BUCKETS[EXPIRATION_BUCKETS.length - 1];
+    }
+
+    private static String cacheKey(String fileName, int bucket) {
+        return fileName + "@" + bucket;
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -1,23 +1,31 @@
 package com.example.file.service;
 
+import com.example.file.audit.MissingObjectAuditor;
+import com.example.file.delete.ObjectDeletionQueue;
+import com.example.file.presign.PresignedUrlCache;
 import com.example.shared.exception.BusinessException;
 import com.example.file.service.FileService;
 import org.apache.dubbo.config.annotation.DubboService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +51,18 @@ public class CloudflareR2FileServiceImpl implements FileService {
     @Value("${cloudflare.r2.allowed-types}")
     private String allowedTypes;
 
+    @Autowired
+    private PresignedUrlCache presignedUrlCache;
+
+    @Autowired
+    private ObjectDeletionQueue objectDeletionQueue;
+
+    /**
+     * 未开启 app.file.presign.audit-missing 时为空
+     */
+    @Autowired
+    private ObjectProvider<MissingObjectAuditor> missingObjectAuditor;
+
     @Override
     public String generateUploadPresignedUrl(Long userId, String fileType, String contentType, int expiration)
             throws BusinessException {
@@ -79,13 +99,17 @@ public class CloudflareR2FileServiceImpl implements FileService {
     }
 
     @Override
-    @Cacheable(value = "fileUrl", key = "#fileName")
     public String generateDownloadPresignedUrl(String fileName, int expiration) throws BusinessException {
         try {
             if (!StringUtils.hasText(fileName)) {
                 throw new BusinessException(400, "文件名不能为空");
             }
 
+            String cachedUrl = presignedUrlCache.get(fileName, expiration);
+            if (cachedUrl != null) {
+                return cachedUrl;
+            }
+
             // 检查文件是否存在
             try {
                 HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
@@ -98,23 +122,7 @@ public class CloudflareR2FileServiceImpl implements FileService {
                 throw new BusinessException(404, "文件不存在：" + fileName);
             }
 
-            // 创建预签名下载请求，添加缓存控制
-            // 设置缓存时间为1天（86400秒）
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .responseCacheControl("public, max-age=86400") // 添加缓存控制响应头
-                    .build();
-
-            GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(Duration.ofMinutes(expiration))
-                    .getObjectRequest(getObjectRequest)
-                    .build();
-
-            // 生成预签名URL
-            String presignedUrl = s3Presigner.presignGetObject(presignRequest).url().toString();
-
-            return presignedUrl;
+            return presignedUrlCache.sign(fileName, expiration);
         } catch (S3Exception e) {
             if (e instanceof NoSuchKeyException) {
                 throw new BusinessException(404, "文件不存在：" + fileName);
@@ -124,12 +132,52 @@ public class CloudflareR2FileServiceImpl implements FileService {
     }
 
     @Override
-    @CacheEvict(value = "fileUrl", key = "#fileName")
+    public Map<String, String> generateDownloadPresignedUrls(Collection<String> fileNames, int expiration)
+            throws BusinessException {
+        Set<String> names = new LinkedHashSet<>();
+        for (String fileName : fileNames) {
+            if (StringUtils.hasText(fileName)) {
+                names.add(fileName);
+            }
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        if (names.isEmpty()) {
+            return result;
+        }
+
+        // 与单个生成共用有效期感知的URL缓存，只对未命中或剩余有效期不足的文件签名
+        Map<String, String> cached = presignedUrlCache.getAll(names, expiration);
+        List<String> toSign = new ArrayList<>();
+        for (String fileName : names) {
+            if (!cached.containsKey(fileName)) {
+                toSign.add(fileName);
+            }
+        }
+        Map<String, String> signed;
+        try {
+            signed = toSign.isEmpty() ? Collections.emptyMap() : presignedUrlCache.signAll(toSign, expiration);
+        } catch (S3Exception e) {
+            throw new BusinessException(500, "生成预签名URL失败：" + e.getMessage());
+        }
+        for (String fileName : names) {
+            String url = cached.get(fileName);
+            result.put(fileName, url != null ? url : signed.get(fileName));
+        }
+
+        MissingObjectAuditor auditor = missingObjectAuditor.getIfAvailable();
+        if (auditor != null && !toSign.isEmpty()) {
+            auditor.submit(toSign);
+        }
+        return result;
+    }
+
+    @Override
     public void deleteFile(String fileName) throws BusinessException {
         try {
             if (!StringUtils.hasText(fileName)) {
                 throw new BusinessException(400, "文件名不能为空");
             }
+            presignedUrlCache.evict(fileName);
 
             // 检查文件是否存在
             try {
@@ -156,6 +204,25 @@ public class CloudflareR2FileServiceImpl implements FileService {
         }
     }
 
+    @Override
+    public void enqueueDelete(Collection<String> fileNames) {
+        if (fileNames == null || fileNames.isEmpty()) {
+            return;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String fileName : fileNames) {
+            if (StringUtils.hasText(fileName)) {
+                names.add(fileName);
+            }
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        // 入队即不再下发URL，实际删除由 ObjectDeletionWorker 批量完成
+        presignedUrlCache.evictAll(names);
+        objectDeletionQueue.enqueue(names);
+    }
+
     /**
      * 检查文件类型是否有效
      */
@@ -0,0 +1,118 @@
+package com.example.file.delete;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文件删除队列测试：租约、指数退避、死信
+ */
+public class ObjectDeletionQueueTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private HashOperations<String, Object, Object> hashOperations;
+    private ObjectDeletionQueue queue;
+
+    /**
+     * 各ZSET中最后一次写入的分数
+     */
+    private final Map<String, Map<String, Double>> scores = new HashMap<>();
+    private final Map<Object, Long> attempts = new HashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+
+        doAnswer(invocation -> {
+            scores.computeIfAbsent(invocation.getArgument(0), k -> new HashMap<>())
+                    .put(invocation.getArgument(1), invocation.getArgument(2));
+            return true;
+        }).when(zSetOperations).add(anyString(), anyString(), anyDouble());
+        doAnswer(invocation -> attempts.merge(invocation.getArgument(1), 1L, Long::sum))
+                .when(hashOperations).increment(anyString(), any(), eq(1L));
+
+        queue = new ObjectDeletionQueue(redisTemplate);
+        ReflectionTestUtils.setField(queue, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(queue, "initialBackoff", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(queue, "maxBackoff", Duration.ofHours(1));
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testClaim_PushesScoreOutByLease() {
+        Object[][] scriptArgs = new Object[1][];
+        doAnswer(invocation -> {
+            scriptArgs[0] = Arrays.copyOfRange(invocation.getArguments(), 2, invocation.getArguments().length);
+            return Arrays.asList("a.jpg", "b.jpg");
+        }).when(redisTemplate).execute(any(RedisScript.class), eq(Collections.singletonList(ObjectDeletionQueue.PENDING_KEY)),
+                any(), any(), any());
+
+        long before = System.currentTimeMillis();
+        List<String> claimed = queue.claim(100);
+        long after = System.currentTimeMillis();
+
+        assertEquals(Arrays.asList("a.jpg", "b.jpg"), claimed);
+        long dueBy = Long.parseLong((String) scriptArgs[0][0]);
+        assertEquals("100", scriptArgs[0][1]);
+        long leaseUntil = Long.parseLong((String) scriptArgs[0][2]);
+        assertTrue(dueBy >= before && dueBy <= after);
+        assertEquals(Duration.ofMinutes(5).toMillis(), leaseUntil - dueBy);
+    }
+
+    @Test
+    public void testRetry_BackoffGrowsWithAttempts() {
+        long start = System.currentTimeMillis();
+        queue.retry(Collections.singletonList("a.jpg"));
+        double first = scores.get(ObjectDeletionQueue.PENDING_KEY).get("a.jpg") - start;
+        queue.retry(Collections.singletonList("a.jpg"));
+        double second = scores.get(ObjectDeletionQueue.PENDING_KEY).get("a.jpg") - start;
+
+        // 第1次失败退避10秒，第2次20秒
+        assertTrue(first >= 10_000 && first < 11_000, "first=" + first);
+        assertTrue(second >= 20_000 && second < 21_000, "second=" + second);
+        assertNull(scores.get(ObjectDeletionQueue.DEAD_KEY));
+    }
+
+    @Test
+    public void testRetry_MovesToDeadLetterAfterMaxAttempts() {
+        queue.retry(Collections.singletonList("a.jpg"));
+        queue.retry(Collections.singletonList("a.jpg"));
+        queue.retry(Arrays.asList("a.jpg", "b.jpg"));
+
+        assertTrue(scores.get(ObjectDeletionQueue.DEAD_KEY).containsKey("a.jpg"));
+        assertFalse(scores.get(ObjectDeletionQueue.DEAD_KEY).containsKey("b.jpg"));
+        // 转入死信后移出待处理队列并清除失败次数
+        verify(zSetOperations).remove(ObjectDeletionQueue.PENDING_KEY, "a.jpg");
+        verify(hashOperations).delete(ObjectDeletionQueue.ATTEMPTS_KEY, "a.jpg");
+        verify(zSetOperations, never()).remove(ObjectDeletionQueue.PENDING_KEY, "b.jpg");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.file.delete;
+
+import com.example.file.presign.PresignedUrlCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文件删除队列消费者测试：批量删除结果如何写回队列
+ */
+public class ObjectDeletionWorkerTest {
+
+    private static final List<String> BATCH = Arrays.asList("a.jpg", "b.jpg", "c.jpg");
+
+    private ObjectDeletionQueue queue;
+    private S3AsyncClient s3AsyncClient;
+    private PresignedUrlCache presignedUrlCache;
+    private ObjectDeletionWorker worker;
+
+    @BeforeEach
+    public void setUp() {
+        queue = mock(ObjectDeletionQueue.class);
+        s3AsyncClient = mock(S3AsyncClient.class);
+        presignedUrlCache = mock(PresignedUrlCache.class);
+        // 第一次取到一批不足 batch-size 的文件，本轮结束
+        when(queue.claim(anyInt())).thenReturn(BATCH, Collections.emptyList());
+
+        worker = new ObjectDeletionWorker(queue, s3AsyncClient, "bucket", presignedUrlCache);
+        ReflectionTestUtils.setField(worker, "batchSize", 1000);
+        ReflectionTestUtils.setField(worker, "maxBatchesPerPoll", 10);
+    }
+
+    @Test
+    public void testPoll_AllDeletedAreAcked() {
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+        worker.poll();
+
+        ArgumentCaptor<DeleteObjectsRequest> request = forClass(DeleteObjectsRequest.class);
+        verify(s3AsyncClient).deleteObjects(request.capture());
+        assertEquals(BATCH, request.getValue().delete().objects().stream()
+                .map(ObjectIdentifier::key).collect(Collectors.toList()));
+        assertTrue(request.getValue().delete().quiet());
+        verify(queue).complete(BATCH);
+        verify(presignedUrlCache).evictAll(BATCH);
+        verify(queue, never()).retry(anyCollection());
+    }
+
+    @Test
+    public void testPoll_PartialErrorsRetryOnlyFailedKeys() {
+        DeleteObjectsResponse response = DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("b.jpg").code("InternalError").message("try again").build())
+                .build();
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        worker.poll();
+
+        verify(queue).complete(Arrays.asList("a.jpg", "c.jpg"));
+        verify(presignedUrlCache).evictAll(Arrays.asList("a.jpg", "c.jpg"));
+        ArgumentCaptor<Collection> retried = forClass(Collection.class);
+        verify(queue).retry(retried.capture());
+        assertEquals(Collections.singletonList("b.jpg"), Arrays.asList(retried.getValue().toArray()));
+    }
+
+    @Test
+    public void testPoll_FailedRequestRetriesWholeBatch() {
+        CompletableFuture<DeleteObjectsResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(SdkClientException.create("connection reset"));
+        when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(failed);
+
+        worker.poll();
+
+        verify(queue).retry(BATCH);
+        verify(queue, never()).complete(anyCollection());
+        verify(presignedUrlCache, never()).evictAll(anyCollection());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.food.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 食物名称联想结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodSuggestionDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Integer id;         // 食物ID
+    private String name;        // 食物名称
+    private Integer categoryId; // 分类ID
+}
@@ -5,6 +5,7 @@ import com.example.food.command.FoodQueryCommand;
 import com.example.food.command.FoodSaveCommand;
 import com.example.food.command.FoodUpdateCommand;
 import com.example.food.dto.FoodItemDTO;
+import com.example.food.dto.FoodSuggestionDTO;
 import com.example.shared.response.PageResult;
 
 import java.util.List;
@@ -28,6 +29,14 @@ public interface FoodService {
      */
     FoodItemDTO getFoodById(Integer id);
 
+    /**
+     * 按名称前缀联想食物，按热度排序
+     * @param prefix 输入的前缀
+     * @param limit 返回数量限制
+     * @return 联想结果
+     */
+    List<FoodSuggestionDTO> suggestFoods(String prefix, int limit);
+
     /**
      * 获取所有食物分类
      * @return 分类列表
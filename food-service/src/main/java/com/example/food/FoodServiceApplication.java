@@ -4,6 +4,7 @@ import org.apache.dubbo.config.spring.context.annotation.EnableDubbo;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 食物服务启动类
@@ -11,6 +12,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication
 @EnableDubbo(scanBasePackages = "com.example.food.service")
 @MapperScan("com.example.food.mapper")
+@EnableScheduling
 public class FoodServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(FoodServiceApplication.class, args);
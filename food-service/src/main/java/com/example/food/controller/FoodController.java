@@ -4,6 +4,7 @@ import com.example.food.command.FoodQueryCommand;
 import com.example.food.dto.FoodCategoryDTO;
 import com.example.food.dto.FoodItemDTO;
 import com.example.food.dto.FoodQueryRequestDTO;
+import com.example.food.dto.FoodSuggestionDTO;
 import org.springframework.beans.BeanUtils;
 import com.example.shared.response.ApiResponse;
 import com.example.shared.response.PageResult;
@@ -42,6 +43,17 @@ public class FoodController {
         return ResponseEntity.ok(ApiResponse.success(result));
     }
 
+    /**
+     * 食物名称联想
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<FoodSuggestionDTO>>> suggestFoods(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") Integer limit) {
+        List<FoodSuggestionDTO> suggestions = foodService.suggestFoods(prefix, limit);
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
+    }
+
     /**
      * 获取食物详情
      */
@@ -0,0 +1,287 @@
+package com.example.food.search;
+
+import com.example.food.entity.Food;
+import com.example.food.mapper.FoodMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 食物关键词搜索的内存倒排索引
+ * 食物名称和份量描述按字符的一元、二元组建立倒排表，查询时取关键词各二元组倒排表的交集，
+ * 再逐条确认包含关系，结果与 LIKE '%关键词%' 一致（比较时忽略大小写和空白），不访问数据库。
+ * 启动时从数据库全量构建，本节点的增删改即时更新；其他节点的修改由定时全量重建同步。
+ * 重建期间本节点的增删改同时记入待重放日志，切换前在新索引上重放，避免被读取时刻更早的数据库快照覆盖。
+ */
+@Component
+public class FoodSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodSearchIndex.class);
+
+    private final FoodMapper foodMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, Food> foods = new HashMap<>();
+    private Map<String, Set<Integer>> postings = new HashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * 重建期间发生的增删改，按食物ID只保留最后一次，值为null表示删除；不在重建时为null
+     */
+    private Map<Integer, Food> pendingChanges;
+
+    @Autowired
+    public FoodSearchIndex(FoodMapper foodMapper) {
+        this.foodMapper = foodMapper;
+    }
+
+    /**
+     * 启动完成后构建索引，之后按固定间隔全量重建，同步其他节点的修改
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.food.search.rebuild-interval:PT5M}",
+               fixedDelayString = "${app.food.search.rebuild-interval:PT5M}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            List<Food> all = foodMapper.selectList(null);
+            Map<Integer, Food> newFoods = new HashMap<>(all.size() * 2);
+            Map<String, Set<Integer>> newPostings = new HashMap<>();
+            for (Food food : all) {
+                putInternal(newFoods, newPostings, food);
+            }
+
+            lock.writeLock().lock();
+            try {
+                pendingChanges.forEach((id, food) -> {
+                    removeInternal(newFoods, newPostings, id);
+                    if (food != null) {
+                        putInternal(newFoods, newPostings, food);
+                    }
+                });
+                foods = newFoods;
+                postings = newPostings;
+                ready = true;
+            } finally {
+                pendingChanges = null;
+                lock.writeLock().unlock();
+            }
+            logger.info("食物搜索索引构建完成，食物数: {}, 词条数: {}", newFoods.size(), newPostings.size());
+        } catch (Exception e) {
+            // 构建失败时保留旧索引；从未构建成功时搜索回退到数据库
+            logger.error("食物搜索索引构建失败", e);
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 当前索引中全部食物的副本
+     */
+    public List<Food> snapshot() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(foods.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或更新一条食物
+     */
+    public void put(Food food) {
+        if (food == null || food.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(foods, postings, food.getId());
+            putInternal(foods, postings, food);
+            if (pendingChanges != null) {
+                pendingChanges.put(food.getId(), food);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(foods, postings, id);
+            if (pendingChanges != null) {
+                pendingChanges.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 按关键词搜索，结果按相关度排序
+     * 名称完全相同 > 名称以关键词开头 > 名称包含关键词（位置越靠前越相关）> 仅份量描述包含；同等相关度时名称短的在前
+     *
+     * @param categoryId 为null时不按分类过滤
+     * @return 全部匹配的食物，由调用方分页
+     */
+    public List<Food> search(String keyword, Integer categoryId) {
+        String query = normalize(keyword);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Food> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Integer id : candidates(query)) {
+                Food food = foods.get(id);
+                if (food != null && (categoryId == null || categoryId.equals(food.getCategoryId()))
+                        && score(food, query) > 0) {
+                    matches.add(food);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt((Food food) -> score(food, query)).reversed()
+                .thenComparingInt(food -> food.getFoodName() != null ? food.getFoodName().length() : Integer.MAX_VALUE)
+                .thenComparing(Food::getId));
+        return matches;
+    }
+
+    /**
+     * 关键词各二元组（单字关键词用一元组）倒排表的交集，从最短的倒排表开始求交
+     */
+    private Collection<Integer> candidates(String query) {
+        Set<String> queryGrams = new LinkedHashSet<>();
+        if (query.length() == 1) {
+            queryGrams.add(query);
+        } else {
+            for (int i = 0; i + 2 <= query.length(); i++) {
+                queryGrams.add(query.substring(i, i + 2));
+            }
+        }
+
+        List<Set<Integer>> lists = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            Set<Integer> list = postings.get(gram);
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Integer> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 相关度，0表示不匹配
+     */
+    private static int score(Food food, String query) {
+        String name = normalize(food.getFoodName());
+        int position = name.indexOf(query);
+        if (position >= 0) {
+            if (name.equals(query)) {
+                return 1000;
+            }
+            return position == 0 ? 900 : Math.max(500, 800 - position);
+        }
+        return normalize(food.getMeasure()).contains(query) ? 100 : 0;
+    }
+
+    private static void putInternal(Map<Integer, Food> foods, Map<String, Set<Integer>> postings, Food food) {
+        foods.put(food.getId(), food);
+        for (String gram : grams(food)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(food.getId());
+        }
+    }
+
+    private static void removeInternal(Map<Integer, Food> foods, Map<String, Set<Integer>> postings, Integer id) {
+        Food old = foods.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old)) {
+            Set<Integer> list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * 名称和份量描述的全部一元、二元组
+     */
+    private static Set<String> grams(Food food) {
+        Set<String> grams = new HashSet<>();
+        for (String text : new String[]{normalize(food.getFoodName()), normalize(food.getMeasure())}) {
+            for (int i = 0; i < text.length(); i++) {
+                grams.add(text.substring(i, i + 1));
+                if (i + 2 <= text.length()) {
+                    grams.add(text.substring(i, i + 2));
+                }
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * 统一小写并去掉空白，与 MySQL 的大小写不敏感比较保持一致
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
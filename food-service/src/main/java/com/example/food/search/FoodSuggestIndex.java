@@ -0,0 +1,141 @@
+package com.example.food.search;
+
+import com.example.diet.service.DietRecordService;
+import com.example.food.dto.FoodSuggestionDTO;
+import com.example.food.entity.Food;
+import com.example.food.mapper.FoodMapper;
+import org.apache.dubbo.config.annotation.DubboReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 食物名称联想索引
+ * 持有一个只读的 {@link FoodSuggestTrie}，目录变化或热度刷新时在后台构建新树后整体替换引用（写时复制），
+ * 查询线程始终读到完整的一棵树，不需要加锁。
+ * 热度取自diet-service最近一个季度的热门食物计数，按食物名称匹配。
+ */
+@Component
+public class FoodSuggestIndex implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodSuggestIndex.class);
+
+    /**
+     * 每个前缀保留的候选数，也是单次联想的最大返回数
+     */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    /**
+     * 读取热度时取热门食物的数量
+     */
+    private static final int POPULARITY_LIMIT = 5000;
+
+    @DubboReference(check = false)
+    private DietRecordService dietRecordService;
+
+    private final FoodSearchIndex foodSearchIndex;
+    private final FoodMapper foodMapper;
+
+    private volatile FoodSuggestTrie trie = FoodSuggestTrie.EMPTY;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "food-suggest-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * 是否已有排队但尚未开始的重建，连续的目录修改合并为一次重建
+     */
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    @Autowired
+    public FoodSuggestIndex(FoodSearchIndex foodSearchIndex, FoodMapper foodMapper) {
+        this.foodSearchIndex = foodSearchIndex;
+        this.foodMapper = foodMapper;
+    }
+
+    public List<FoodSuggestionDTO> suggest(String prefix, int limit) {
+        List<FoodSuggestionDTO> result = new ArrayList<>();
+        for (FoodSuggestTrie.Entry entry : trie.suggest(prefix, Math.min(Math.max(1, limit), MAX_SUGGESTIONS))) {
+            result.add(new FoodSuggestionDTO(entry.foodId, entry.name, entry.categoryId));
+        }
+        return result;
+    }
+
+    /**
+     * 目录变化后请求异步重建
+     */
+    public void requestRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildQueued.set(false);
+        }
+    }
+
+    /**
+     * 启动完成后构建（搜索索引尚未就绪时直接读数据库），之后定时重建以刷新热度并同步其他节点的修改
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.food.search.rebuild-interval:PT5M}",
+               fixedDelayString = "${app.food.search.rebuild-interval:PT5M}")
+    public synchronized void rebuild() {
+        try {
+            List<Food> foods = foodSearchIndex.isReady() ? foodSearchIndex.snapshot() : foodMapper.selectList(null);
+            Map<String, Long> popularity = loadPopularity();
+
+            FoodSuggestTrie.Builder builder = new FoodSuggestTrie.Builder(MAX_SUGGESTIONS);
+            for (Food food : foods) {
+                builder.add(food.getId(), food.getFoodName(), food.getCategoryId(),
+                        popularity.getOrDefault(food.getFoodName(), 0L));
+            }
+            FoodSuggestTrie newTrie = builder.build();
+            trie = newTrie;
+            logger.info("食物联想索引构建完成，食物数: {}, 节点数: {}", foods.size(), newTrie.nodeCount());
+        } catch (Exception e) {
+            logger.error("食物联想索引构建失败", e);
+        }
+    }
+
+    private Map<String, Long> loadPopularity() {
+        Map<String, Long> popularity = new HashMap<>();
+        try {
+            for (Map<String, Object> food : dietRecordService.getPopularFoodsByPeriod("quarter", POPULARITY_LIMIT)) {
+                Object count = food.get("count");
+                if (food.get("name") != null && count instanceof Number) {
+                    popularity.put(String.valueOf(food.get("name")), ((Number) count).longValue());
+                }
+            }
+        } catch (Exception e) {
+            // 热度不可用时仍可按名称长度排序联想
+            logger.warn("获取食物热度失败: {}", e.getMessage());
+        }
+        return popularity;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.food.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * 食物名称前缀联想的只读字典树
+ * 节点按层序存放在数组中，同一节点的子节点连续存放且按字符排序，查找子节点为二分查找；
+ * 每个节点预先保存该前缀下热度最高的若干条目，查询只需沿前缀走到对应节点，耗时与候选数量无关。
+ * 构建后不可修改，目录变化时整体重建并替换引用。
+ */
+final class FoodSuggestTrie {
+
+    /**
+     * 空字典树
+     */
+    static final FoodSuggestTrie EMPTY = new Builder(1).build();
+
+    private final char[] labels;
+    private final int[] childStart;
+    private final int[] childCount;
+    /**
+     * 每个节点热度最高的条目下标（指向 entries），按热度倒序
+     */
+    private final int[][] top;
+    private final Entry[] entries;
+
+    private FoodSuggestTrie(char[] labels, int[] childStart, int[] childCount, int[][] top, Entry[] entries) {
+        this.labels = labels;
+        this.childStart = childStart;
+        this.childCount = childCount;
+        this.top = top;
+        this.entries = entries;
+    }
+
+    /**
+     * 返回以 prefix 开头的热度最高的条目，最多 limit 条（不超过构建时的每节点保留数）
+     */
+    List<Entry> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<Entry> result = new ArrayList<>();
+        if (key.isEmpty()) {
+            return result;
+        }
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        if (node < 0) {
+            return result;
+        }
+        int[] ids = top[node];
+        for (int i = 0; i < ids.length && result.size() < limit; i++) {
+            result.add(entries[ids[i]]);
+        }
+        return result;
+    }
+
+    int nodeCount() {
+        return labels.length;
+    }
+
+    private int child(int node, char c) {
+        int low = childStart[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 统一小写并去掉空白
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 联想条目
+     */
+    static final class Entry {
+        final Integer foodId;
+        final String name;
+        final Integer categoryId;
+        final long popularity;
+
+        Entry(Integer foodId, String name, Integer categoryId, long popularity) {
+            this.foodId = foodId;
+            this.name = name;
+            this.categoryId = categoryId;
+            this.popularity = popularity;
+        }
+    }
+
+    /**
+     * 构建器：先在可变的树上插入全部条目，再按层序压平为数组
+     */
+    static final class Builder {
+
+        private static final Comparator<Entry> RANKING = Comparator.comparingLong((Entry e) -> e.popularity).reversed()
+                .thenComparingInt(e -> e.name.length())
+                .thenComparing(e -> e.foodId);
+
+        private final int topSize;
+        private final List<Entry> entries = new ArrayList<>();
+        private final Node root = new Node();
+
+        Builder(int topSize) {
+            this.topSize = Math.max(1, topSize);
+        }
+
+        /**
+         * 以名称开头以及名称中每个词的开头为键插入条目，如 "Chicken Breast" 也可由 "bre" 联想到
+         */
+        Builder add(Integer foodId, String name, Integer categoryId, long popularity) {
+            if (name == null || name.trim().isEmpty()) {
+                return this;
+            }
+            int index = entries.size();
+            Entry entry = new Entry(foodId, name.trim(), categoryId, popularity);
+            entries.add(entry);
+
+            List<String> keys = new ArrayList<>();
+            keys.add(normalize(name));
+            String[] words = name.trim().split("[\\s\\-_,，/()（）]+");
+            for (int i = 1; i < words.length; i++) {
+                keys.add(normalize(words[i]));
+            }
+            for (String key : keys) {
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                    node.offer(index, entry, entries, topSize);
+                }
+            }
+            return this;
+        }
+
+        FoodSuggestTrie build() {
+            Entry[] entryArray = entries.toArray(new Entry[0]);
+            List<Node> order = new ArrayList<>();
+            List<Character> labelList = new ArrayList<>();
+            order.add(root);
+            labelList.add('\0');
+
+            // 层序遍历：子节点按字符顺序追加，保证同一节点的子节点连续且有序
+            int[] starts = new int[16];
+            int[] counts = new int[16];
+            Deque<Integer> queue = new ArrayDeque<>();
+            queue.add(0);
+            while (!queue.isEmpty()) {
+                int index = queue.poll();
+                Node node = order.get(index);
+                if (index >= starts.length) {
+                    starts = Arrays.copyOf(starts, Math.max(index + 1, starts.length * 2));
+                    counts = Arrays.copyOf(counts, starts.length);
+                }
+                starts[index] = order.size();
+                counts[index] = node.children.size();
+                node.children.forEach((label, child) -> {
+                    queue.add(order.size());
+                    order.add(child);
+                    labelList.add(label);
+                });
+            }
+
+            int size = order.size();
+            char[] labels = new char[size];
+            int[][] top = new int[size][];
+            for (int i = 0; i < size; i++) {
+                labels[i] = labelList.get(i);
+                int[] ids = order.get(i).top.stream().mapToInt(Integer::intValue).toArray();
+                top[i] = ids;
+            }
+            return new FoodSuggestTrie(labels, Arrays.copyOf(starts, size), Arrays.copyOf(counts, size), top, entryArray);
+        }
+
+        private static final class Node {
+            final TreeMap<Character, Node> children = new TreeMap<>();
+            final List<Integer> top = new ArrayList<>(4);
+
+            /**
+             * 把条目放入本节点的热度排行，只保留前 topSize 条
+             */
+            void offer(int index, Entry entry, List<Entry> entries, int topSize) {
+                if (top.contains(index)) {
+                    return;
+                }
+                int position = top.size();
+                while (position > 0 && RANKING.compare(entry, entries.get(top.get(position - 1))) < 0) {
+                    position--;
+                }
+                if (position >= topSize) {
+                    return;
+                }
+                top.add(position, index);
+                if (top.size() > topSize) {
+                    top.remove(top.size() - 1);
+                }
+            }
+        }
+    }
+}
@@ -11,12 +11,12 @@ import com.example.food.entity.FoodCategory;
 import com.example.shared.response.PageResult;
 import com.example.food.service.FoodCategoryService;
 import com.example.food.mapper.FoodCategoryMapper;
+import com.example.shared.cache.namespace.CacheNamespaceEvict;
 
 import org.apache.dubbo.config.annotation.DubboService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
@@ -41,7 +41,7 @@ public class FoodCategoryServiceImpl extends ServiceImpl<FoodCategoryMapper, Foo
     }
 
     @Override
-    @Cacheable(value = "foodCategory", key = "'all'")
+    @Cacheable(value = "foodCategory", key = "@cacheNamespaces.key('foodCategory', 'all') + 'all'")
     public List<FoodCategoryDTO> getAllCategories() {
         LambdaQueryWrapper<FoodCategory> wrapper = new LambdaQueryWrapper<>();
         wrapper.orderByAsc(FoodCategory::getSortOrder);
@@ -54,7 +54,7 @@ public class FoodCategoryServiceImpl extends ServiceImpl<FoodCategoryMapper, Foo
     }
 
     @Override
-    @Cacheable(value = "foodCategory", key = "'page_' + #current + '_size_' + #size")
+    @Cacheable(value = "foodCategory", key = "@cacheNamespaces.key('foodCategory', 'all') + 'page_' + #current + '_size_' + #size")
     public PageResult<FoodCategoryDTO> getCategoriesByPage(Integer current, Integer size) {
         // 构建分页查询
         IPage<FoodCategory> page = new Page<>(current, size);
@@ -75,7 +75,7 @@ public class FoodCategoryServiceImpl extends ServiceImpl<FoodCategoryMapper, Foo
 
 
     @Override
-    @Cacheable(value = "foodCategory", key = "#id", unless = "#result == null")
+    @Cacheable(value = "foodCategory", key = "@cacheNamespaces.key('foodCategory', 'all') + #id")
     public FoodCategoryDTO getCategoryById(Integer id) {
         if (id == null) {
             return null;
@@ -92,7 +92,7 @@ public class FoodCategoryServiceImpl extends ServiceImpl<FoodCategoryMapper, Foo
     }
 
     @Override
-    @CacheEvict(value = "foodCategory", allEntries = true)
+    @CacheNamespaceEvict(cacheName = "foodCategory", namespaces = "'all'")
     public FoodCategoryDTO saveCategory(FoodCategorySaveCommand command) {
         // 转换为实体
         FoodCategory category = new FoodCategory();
@@ -114,7 +114,7 @@ public class FoodCategoryServiceImpl extends ServiceImpl<FoodCategoryMapper, Foo
     }
 
     @Override
-    @CacheEvict(value = "foodCategory", allEntries = true)
+    @CacheNamespaceEvict(cacheName = "foodCategory", namespaces = "'all'")
     public boolean updateCategory(FoodCategoryUpdateCommand command) {
         // 构建更新实体
         FoodCategory category = new FoodCategory();
@@ -132,7 +132,7 @@ public class FoodCategoryServiceImpl extends ServiceImpl<FoodCategoryMapper, Foo
     }
 
     @Override
-    @CacheEvict(value = "foodCategory", allEntries = true)
+    @CacheNamespaceEvict(cacheName = "foodCategory", namespaces = "'all'")
     public boolean deleteCategory(Integer id) {
         // 检查分类是否存在
         FoodCategory category = this.getById(id);
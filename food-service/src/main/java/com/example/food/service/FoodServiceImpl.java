@@ -8,16 +8,20 @@ import com.example.food.command.FoodImageUpdateCommand;
 import com.example.food.command.FoodQueryCommand;
 import com.example.food.command.FoodSaveCommand;
 import com.example.food.command.FoodUpdateCommand;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import com.example.shared.cache.namespace.CacheNamespaceEvict;
 import com.example.food.dto.FoodCategoryDTO;
 import com.example.food.dto.FoodItemDTO;
+import com.example.food.dto.FoodSuggestionDTO;
 import com.example.food.entity.Food;
 import com.example.shared.response.PageResult;
 import com.example.file.service.FileService;
+import com.example.file.support.PresignedUrls;
 import com.example.food.service.FoodCategoryService;
 import com.example.food.service.FoodService;
 import com.example.food.mapper.FoodMapper;
+import com.example.food.search.FoodSearchIndex;
+import com.example.food.search.FoodSuggestIndex;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.dubbo.config.annotation.DubboReference;
 import org.apache.dubbo.config.annotation.DubboService;
@@ -27,10 +31,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +47,8 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
     private static final Logger logger = LoggerFactory.getLogger(FoodServiceImpl.class);
 
     private final FoodMapper foodMapper;
+    private final FoodSearchIndex foodSearchIndex;
+    private final FoodSuggestIndex foodSuggestIndex;
 
     @DubboReference
     private FileService fileService;
@@ -51,14 +57,21 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
     private FoodCategoryService foodCategoryService;
 
     @Autowired
-    public FoodServiceImpl(FoodMapper foodMapper) {
+    public FoodServiceImpl(FoodMapper foodMapper, FoodSearchIndex foodSearchIndex, FoodSuggestIndex foodSuggestIndex) {
         this.foodMapper = foodMapper;
+        this.foodSearchIndex = foodSearchIndex;
+        this.foodSuggestIndex = foodSuggestIndex;
     }
 
     @Override
-    @Cacheable(value = "food", key = "'page_' + #command.current + '_size_' + #command.size + '_category_' + (#command.categoryId ?: 'null')",
+    @Cacheable(value = "food", key = "@cacheNamespaces.key('food', 'all') + 'page_' + #command.current + '_size_' + #command.size + '_category_' + (#command.categoryId ?: 'null')",
                condition = "#command.keyword == null or #command.keyword.trim().isEmpty()")
     public PageResult<FoodItemDTO> queryFoodsByPage(FoodQueryCommand command) {
+        // 关键词搜索走内存索引，索引尚未构建成功时回退到数据库
+        if (StringUtils.isNotBlank(command.getKeyword()) && foodSearchIndex.isReady()) {
+            return searchFoodsByPage(command);
+        }
+
         // 构建查询条件
         LambdaQueryWrapper<Food> wrapper = new LambdaQueryWrapper<>();
 
@@ -79,13 +92,25 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
         page = this.page(page, wrapper);
 
         // 转换结果
-        List<FoodItemDTO> records = page.getRecords().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<FoodItemDTO> records = convertToDTOs(page.getRecords());
 
         return PageResult.of(records, page.getTotal(), command.getCurrent(), command.getSize());
     }
 
+    /**
+     * 通过内存索引按相关度搜索并分页
+     */
+    private PageResult<FoodItemDTO> searchFoodsByPage(FoodQueryCommand command) {
+        List<Food> matches = foodSearchIndex.search(command.getKeyword(), command.getCategoryId());
+        int current = Math.max(1, command.getCurrent() != null ? command.getCurrent() : 1);
+        int size = Math.max(1, command.getSize() != null ? command.getSize() : 10);
+        int from = (int) Math.min((long) (current - 1) * size, matches.size());
+        int to = Math.min(from + size, matches.size());
+
+        List<FoodItemDTO> records = convertToDTOs(matches.subList(from, to));
+        return PageResult.of(records, matches.size(), current, size);
+    }
+
     @Override
     public FoodItemDTO getFoodById(Integer id) {
         if (id == null) {
@@ -103,6 +128,11 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
         return foodDTO;
     }
 
+    @Override
+    public List<FoodSuggestionDTO> suggestFoods(String prefix, int limit) {
+        return foodSuggestIndex.suggest(prefix, limit);
+    }
+
     @Override
     public List<String> getAllCategories() {
         // 通过FoodCategoryService获取所有分类，然后提取名称
@@ -116,6 +146,27 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
      * 将Food实体转换为DTO
      */
     private FoodItemDTO convertToDTO(Food food) {
+        return convertToDTOs(Collections.singletonList(food)).get(0);
+    }
+
+    /**
+     * 批量将Food实体转换为DTO，一页的图片下载URL通过一次RPC批量生成（有效期60分钟）
+     */
+    private List<FoodItemDTO> convertToDTOs(List<Food> foods) {
+        List<FoodItemDTO> dtos = foods.stream().map(this::convertToDTOWithoutImageUrl).collect(Collectors.toList());
+        try {
+            PresignedUrls.signAll(fileService, dtos, 60, FoodItemDTO::getImageUrl, FoodItemDTO::setImageUrl);
+        } catch (Exception e) {
+            // 如果生成失败，仍然保留原始URL
+            logger.error("批量生成食物图片下载URL失败: count={}, error={}", dtos.size(), e.getMessage());
+        }
+        return dtos;
+    }
+
+    /**
+     * 将Food实体转换为DTO，图片字段保留原始路径
+     */
+    private FoodItemDTO convertToDTOWithoutImageUrl(Food food) {
         FoodItemDTO dto = new FoodItemDTO();
 
         dto.setId(food.getId());
@@ -135,19 +186,8 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
             dto.setCategory(""); // 如果没有分类ID，设置为空字符串
         }
 
-        // 设置图片URL，如果有原始URL，则生成预签名下载URL（有效期60分钟）
-        if (StringUtils.isNotBlank(food.getImageUrl())) {
-            try {
-                String downloadUrl = fileService.generateDownloadPresignedUrl(food.getImageUrl(), 60);
-                dto.setImageUrl(downloadUrl);
-            } catch (Exception e) {
-                logger.error("生成食物图片下载URL失败: id={}, error={}", food.getId(), e.getMessage());
-                // 如果生成失败，仍然设置原始URL
-                dto.setImageUrl(food.getImageUrl());
-            }
-        } else {
-            dto.setImageUrl(food.getImageUrl()); // 可能为null或空字符串
-        }
+        // 原始图片路径，由 convertToDTOs 批量替换为预签名下载URL
+        dto.setImageUrl(food.getImageUrl());
 
         // 直接设置数值类型
         dto.setGrams(food.getGrams());
@@ -200,7 +240,7 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
      * 保存食物信息 - 使用Command对象
      */
     @Override
-    @CacheEvict(value = "food", allEntries = true)
+    @CacheNamespaceEvict(cacheName = "food", namespaces = "'all'")
     public FoodItemDTO saveFood(FoodSaveCommand command) {
         // 将Command对象转换为实体
         Food food = new Food();
@@ -218,6 +258,8 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
         food.setSatFat(command.getSatFat());
 
         this.save(food);
+        foodSearchIndex.put(food);
+        foodSuggestIndex.requestRebuild();
 
         return convertToDTO(food);
     }
@@ -228,7 +270,7 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
      * 更新食物信息 - 使用Command对象
      */
     @Override
-    @CacheEvict(value = "food", allEntries = true)
+    @CacheNamespaceEvict(cacheName = "food", namespaces = "'all'")
     public FoodItemDTO updateFood(FoodUpdateCommand command) {
         // 获取旧的食物信息，以便检查图片是否变化
         Food oldFood = this.getById(command.getId());
@@ -259,24 +301,16 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
         boolean result = this.updateById(food);
 
         if (result) {
+            // 未传的字段不会更新，按数据库中的最新值更新索引
+            foodSearchIndex.put(this.getById(command.getId()));
+            foodSuggestIndex.requestRebuild();
+
             // 检查图片是否变化
             String newImagePath = food.getImageUrl();
             if (oldImagePath != null && !oldImagePath.isEmpty() &&
                 !oldImagePath.equals(newImagePath)) {
-                try {
-                    // 异步删除旧图片
-                    CompletableFuture.runAsync(() -> {
-                        try {
-                            fileService.deleteFile(oldImagePath);
-                            logger.debug("成功删除旧食物图片: {}", oldImagePath);
-                        } catch (Exception e) {
-                            logger.error("删除旧食物图片文件失败：" + e.getMessage(), e);
-                        }
-                    });
-                } catch (Exception e) {
-                    // 删除旧图片失败不影响更新操作，只记录错误
-                    logger.error("删除旧食物图片文件失败：" + e.getMessage(), e);
-                }
+                // 异步删除旧图片
+                enqueueImageDelete(oldImagePath);
             }
         }
 
@@ -285,11 +319,22 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
 
 
 
+    /**
+     * 提交图片到文件服务的删除队列，由文件服务批量删除并负责重试；提交失败不影响食物数据的修改
+     */
+    private void enqueueImageDelete(String imagePath) {
+        try {
+            fileService.enqueueDelete(Collections.singletonList(imagePath));
+        } catch (Exception e) {
+            logger.error("提交食物图片删除失败: {}", imagePath, e);
+        }
+    }
+
     /**
      * 删除食物
      */
     @Override
-    @CacheEvict(value = "food", allEntries = true)
+    @CacheNamespaceEvict(cacheName = "food", namespaces = "'all'")
     public boolean deleteFood(Integer id) {
         // 先获取食物信息，以便删除图片
         Food food = this.getById(id);
@@ -304,16 +349,12 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
         boolean result = this.removeById(id);
 
         if (result) {
+            foodSearchIndex.remove(id);
+            foodSuggestIndex.requestRebuild();
+
             // 如果存在图片，则异步删除
             if (imagePath != null && !imagePath.isEmpty()) {
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        fileService.deleteFile(imagePath);
-                        logger.debug("成功删除食物图片: {}", imagePath);
-                    } catch (Exception e) {
-                        logger.error("删除食物图片文件失败：" + e.getMessage(), e);
-                    }
-                });
+                enqueueImageDelete(imagePath);
             }
         }
 
@@ -324,7 +365,7 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
      * 更新食物图片URL - 使用Command对象
      */
     @Override
-    @CacheEvict(value = "food", allEntries = true)
+    @CacheNamespaceEvict(cacheName = "food", namespaces = "'all'")
     public boolean updateFoodImageUrl(FoodImageUpdateCommand command) {
         Food food = this.getById(command.getFoodId());
         if (food == null) {
@@ -339,16 +380,11 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
         boolean result = this.updateById(food);
 
         if (result) {
+            foodSearchIndex.put(food);
+
             // 如果存在旧图片，则异步删除
             if (oldImagePath != null && !oldImagePath.isEmpty() && !oldImagePath.equals(command.getImageUrl())) {
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        fileService.deleteFile(oldImagePath);
-                        logger.debug("成功删除旧食物图片: {}", oldImagePath);
-                    } catch (Exception e) {
-                        logger.error("删除旧食物图片文件失败：" + e.getMessage(), e);
-                    }
-                });
+                enqueueImageDelete(oldImagePath);
             }
         }
 
@@ -360,7 +396,7 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
 
 
     @Override
-    @CacheEvict(value = "food", allEntries = true)
+    @CacheNamespaceEvict(cacheName = "food", namespaces = "'all'")
     public Map<String, Object> batchImportFoods(List<FoodItemDTO> foods) {
         if (foods == null || foods.isEmpty()) {
             throw new IllegalArgumentException("导入的食物数据不能为空");
@@ -389,6 +425,7 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
 
                 // 保存到数据库
                 this.save(food);
+                foodSearchIndex.put(food);
 
                 successCount++;
                 logger.debug("成功导入食物: {}", food.getFoodName());
@@ -406,6 +443,9 @@ public class FoodServiceImpl extends ServiceImpl<FoodMapper, Food> implements Fo
         result.put("errorMessages", errorMessages);
 
         logger.info("批量导入食物数据完成，成功: {}, 失败: {}", successCount, failCount);
+        if (successCount > 0) {
+            foodSuggestIndex.requestRebuild();
+        }
 
         return result;
     }
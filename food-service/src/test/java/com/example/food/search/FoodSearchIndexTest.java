@@ -0,0 +1,147 @@
+package com.example.food.search;
+
+import com.example.food.entity.Food;
+import com.example.food.mapper.FoodMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 食物搜索倒排索引测试
+ */
+public class FoodSearchIndexTest {
+
+    private static Food food(int id, String name, String measure) {
+        Food food = new Food();
+        food.setId(id);
+        food.setFoodName(name);
+        food.setMeasure(measure);
+        food.setCategoryId(id % 2);
+        return food;
+    }
+
+    /**
+     * 只实现 selectList 的 FoodMapper，每次调用都从 supplier 取数据
+     */
+    private static FoodMapper mapper(Supplier<List<Food>> supplier) {
+        return (FoodMapper) Proxy.newProxyInstance(FoodMapper.class.getClassLoader(), new Class<?>[]{FoodMapper.class},
+                (proxy, method, args) -> {
+                    if ("selectList".equals(method.getName())) {
+                        return supplier.get();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static FoodSearchIndex indexOf(Food... foods) {
+        List<Food> all = Arrays.asList(foods);
+        FoodSearchIndex index = new FoodSearchIndex(mapper(() -> all));
+        index.rebuild();
+        return index;
+    }
+
+    private static List<Integer> ids(List<Food> foods) {
+        return foods.stream().map(Food::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSearch_IntersectsPostingListsAndConfirmsSubstring() {
+        FoodSearchIndex index = indexOf(
+                food(1, "Chicken Breast", "1 breast"),
+                food(2, "Beef Steak", "100 g"),
+                // 包含 "ch"、"hi"、"ic"... 全部二元组，但不是连续的 "chick"
+                food(3, "Kitchen Chili Hick", "1 cup"),
+                food(4, "Chickpeas", "1 cup"));
+
+        assertTrue(index.isReady());
+        List<Integer> result = ids(index.search("chick", null));
+        assertEquals(2, result.size());
+        assertTrue(result.containsAll(Arrays.asList(1, 4)));
+
+        // 比较时忽略大小写和空白
+        assertEquals(Arrays.asList(1), ids(index.search("ENBRE", null)));
+        // 单字关键词使用一元组
+        assertTrue(ids(index.search("k", null)).containsAll(Arrays.asList(1, 2, 3, 4)));
+        // 存在没有倒排表的二元组时直接无结果
+        assertTrue(index.search("zz", null).isEmpty());
+        assertTrue(index.search("  ", null).isEmpty());
+    }
+
+    @Test
+    public void testSearch_RanksByRelevanceThenNameLength() {
+        FoodSearchIndex index = indexOf(
+                food(1, "Rice Pudding", "1 cup"),
+                food(2, "Rice", "1 cup"),
+                food(3, "Fried Rice", "1 cup"),
+                food(4, "Brown Rice Cake", "1 cake"),
+                food(5, "Milk", "1 cup rice bowl"),
+                food(6, "Rice Noodles", "1 cup"));
+
+        // 完全相同 > 开头匹配（同长度按ID）> 包含（位置相同时名称短的在前）> 仅份量描述包含
+        assertEquals(Arrays.asList(2, 1, 6, 3, 4, 5), ids(index.search("rice", null)));
+        // 按分类过滤
+        assertEquals(Arrays.asList(2, 6, 4), ids(index.search("rice", 0)));
+    }
+
+    @Test
+    public void testPutAndRemove_UpdatePostings() {
+        FoodSearchIndex index = indexOf(food(1, "Apple", "1 medium"));
+
+        index.put(food(1, "Green Apple", "1 medium"));
+        index.put(food(2, "Pineapple", "1 slice"));
+        // "pineapple" 中关键词的位置更靠前
+        assertEquals(Arrays.asList(2, 1), ids(index.search("apple", null)));
+        assertEquals(Arrays.asList(1), ids(index.search("medium", null)));
+
+        index.remove(1);
+        assertEquals(Arrays.asList(2), ids(index.search("apple", null)));
+        assertTrue(index.search("green", null).isEmpty());
+        assertTrue(index.search("medium", null).isEmpty());
+    }
+
+    @Test
+    public void testRebuild_KeepsChangesMadeWhileLoading() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Food> database = new ArrayList<>(Arrays.asList(food(1, "Apple", "1 medium"), food(2, "Banana", "1 medium")));
+        FoodSearchIndex index = new FoodSearchIndex(mapper(() -> {
+            // 快照在本节点修改之前读取
+            List<Food> snapshot = new ArrayList<>(database);
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return snapshot;
+        }));
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuild = pool.submit(index::rebuild);
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            index.put(food(3, "Apricot", "1 fruit"));
+            index.remove(2);
+            release.countDown();
+            rebuild.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(Arrays.asList(3), ids(index.search("apricot", null)));
+        assertTrue(index.search("banana", null).isEmpty());
+        assertEquals(Arrays.asList(1), ids(index.search("apple", null)));
+    }
+}
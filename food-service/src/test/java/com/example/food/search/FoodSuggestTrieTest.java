@@ -0,0 +1,84 @@
+package com.example.food.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 食物名称前缀联想字典树测试
+ */
+public class FoodSuggestTrieTest {
+
+    private static List<Integer> ids(List<FoodSuggestTrie.Entry> entries) {
+        return entries.stream().map(e -> e.foodId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSuggest_MatchesNamePrefixAndWordPrefix() {
+        FoodSuggestTrie trie = new FoodSuggestTrie.Builder(5)
+                .add(1, "Chicken Breast", 1, 10)
+                .add(2, "Cheese", 2, 20)
+                .add(3, "Bread", 3, 5)
+                .build();
+
+        assertEquals(Arrays.asList(2, 1), ids(trie.suggest("ch", 10)));
+        assertEquals(Collections.singletonList(1), ids(trie.suggest("CHICK", 10)));
+        // 名称中的词开头也能联想
+        assertEquals(Arrays.asList(1, 3), ids(trie.suggest("bre", 10)));
+        assertTrue(trie.suggest("x", 10).isEmpty());
+        assertTrue(trie.suggest("", 10).isEmpty());
+        assertEquals(0, FoodSuggestTrie.EMPTY.suggest("a", 10).size());
+    }
+
+    @Test
+    public void testOffer_KeepsTopKByPopularityThenNameLength() {
+        FoodSuggestTrie.Builder builder = new FoodSuggestTrie.Builder(3);
+        // 乱序插入，只保留热度最高的3条；热度相同时名称短的在前，再按ID
+        builder.add(1, "Apple Pie", null, 5)
+                .add(2, "Apple", null, 50)
+                .add(3, "Apricot", null, 1)
+                .add(4, "Avocado", null, 50)
+                .add(5, "Almond", null, 30)
+                .add(6, "Anchovy", null, 50);
+        FoodSuggestTrie trie = builder.build();
+
+        assertEquals(Arrays.asList(2, 4, 6), ids(trie.suggest("a", 10)));
+        assertEquals(Arrays.asList(2, 4), ids(trie.suggest("a", 2)));
+        // 子节点各自维护排行
+        assertEquals(Arrays.asList(2, 1), ids(trie.suggest("app", 10)));
+        assertEquals(Arrays.asList(5), ids(trie.suggest("al", 10)));
+    }
+
+    @Test
+    public void testBuild_FlattensManyNodesInLevelOrder() {
+        // 节点数远超起始数组长度16，验证 starts/counts 扩容后每个前缀仍能找到
+        FoodSuggestTrie.Builder builder = new FoodSuggestTrie.Builder(2);
+        int id = 0;
+        for (char first = 'a'; first <= 'z'; first++) {
+            for (char second = 'a'; second <= 'z'; second++) {
+                builder.add(++id, "" + first + second + "food", null, id);
+            }
+        }
+        FoodSuggestTrie trie = builder.build();
+
+        // 根节点 + 26个一级节点 + 每个二级前缀各自一条 "food" 链
+        assertEquals(1 + 26 + 26 * 26 * 5, trie.nodeCount());
+        int expected = 0;
+        for (char first = 'a'; first <= 'z'; first++) {
+            for (char second = 'a'; second <= 'z'; second++) {
+                expected++;
+                List<FoodSuggestTrie.Entry> entries = trie.suggest("" + first + second + "fo", 5);
+                assertEquals(1, entries.size(), "" + first + second);
+                assertEquals(expected, entries.get(0).foodId.intValue());
+            }
+            // 一级节点只保留热度最高的2条（同一首字母下ID最大的两条）
+            int last = (first - 'a' + 1) * 26;
+            assertEquals(Arrays.asList(last, last - 1), ids(trie.suggest("" + first, 5)));
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 营养服务启动类
@@ -15,6 +16,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @MapperScan("com.example.nutrition.mapper")
 @EnableCaching
 @EnableAsync
+@EnableScheduling
 public class NutritionServiceApplication {
     
     public static void main(String[] args) {
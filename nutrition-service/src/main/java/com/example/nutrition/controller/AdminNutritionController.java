@@ -3,6 +3,7 @@ package com.example.nutrition.controller;
 import com.example.nutrition.command.NutritionAdviceManageCommand;
 import com.example.nutrition.dto.NutritionAdviceManageRequestDTO;
 import com.example.nutrition.dto.NutritionAdviceResponseDTO;
+import com.example.nutrition.projection.DailyNutritionRebuildService;
 import com.example.shared.exception.BusinessException;
 import com.example.shared.response.ApiResponse;
 import com.example.nutrition.service.NutritionAdviceService;
@@ -34,6 +35,9 @@ public class AdminNutritionController {
     @Autowired
     private NutritionAdviceService nutritionAdviceService;
 
+    @Autowired
+    private DailyNutritionRebuildService dailyNutritionRebuildService;
+
     /**
      * 获取营养摄入趋势数据
      * @param period 时间周期：week(周)、month(月)、year(年)
@@ -177,4 +181,27 @@ public class AdminNutritionController {
         List<NutritionAdviceResponseDTO> adviceList = nutritionAdviceService.getAdvicesByConditionType(conditionType);
         return ResponseEntity.ok(ApiResponse.success(adviceList));
     }
+
+    /**
+     * 从饮食记录重建每日营养汇总
+     * @param startDate 开始日期
+     * @param endDate 结束日期，默认为当天
+     * @param userId 只重建该用户，不传时重建所有用户
+     * @return 重建的饮食记录数
+     */
+    @PostMapping("/projection/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildDailyNutrition(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @RequestParam(required = false) Long userId) {
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new BusinessException(400, "开始日期不能晚于结束日期");
+        }
+
+        int records = dailyNutritionRebuildService.rebuild(userId, startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(records));
+    }
 }
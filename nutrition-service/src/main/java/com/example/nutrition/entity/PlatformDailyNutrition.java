@@ -0,0 +1,60 @@
+package com.example.nutrition.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 全平台每日营养汇总
+ * 由用户每日营养汇总的变化增量累加，并由夜间压实任务按用户每日汇总重新求和校正
+ */
+@Data
+@TableName("platform_daily_nutrition")
+public class PlatformDailyNutrition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 日期
+     */
+    private LocalDate date;
+
+    /**
+     * 所有用户热量合计（千卡）
+     */
+    private BigDecimal calories;
+
+    /**
+     * 所有用户蛋白质合计（g）
+     */
+    private BigDecimal protein;
+
+    /**
+     * 所有用户碳水化合物合计（g）
+     */
+    private BigDecimal carbs;
+
+    /**
+     * 所有用户脂肪合计（g）
+     */
+    private BigDecimal fat;
+
+    /**
+     * 当日有饮食记录的用户数
+     */
+    private Integer activeUsers;
+
+    /**
+     * 当日营养达标的用户数
+     */
+    private Integer compliantUsers;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
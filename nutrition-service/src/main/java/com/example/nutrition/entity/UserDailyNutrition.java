@@ -0,0 +1,65 @@
+package com.example.nutrition.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 用户每日营养汇总（投影）
+ * 由饮食记录添加/删除事件增量维护，主键为 (user_id, date)
+ */
+@Data
+@TableName("user_daily_nutrition")
+public class UserDailyNutrition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 日期
+     */
+    private LocalDate date;
+
+    /**
+     * 热量合计（千卡）
+     */
+    private BigDecimal calories;
+
+    /**
+     * 蛋白质合计（g）
+     */
+    private BigDecimal protein;
+
+    /**
+     * 碳水化合物合计（g）
+     */
+    private BigDecimal carbs;
+
+    /**
+     * 脂肪合计（g）
+     */
+    private BigDecimal fat;
+
+    /**
+     * 当日饮食记录数
+     */
+    private Integer recordCount;
+
+    /**
+     * 是否达标（热量、蛋白质、碳水、脂肪均达到目标的80%）
+     */
+    private Boolean compliant;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,63 @@
+package com.example.nutrition.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日营养汇总的单条饮食记录明细
+ * 以饮食记录ID为主键，重复投递的事件不会重复累加；每日汇总由当天的明细重新求和得到
+ */
+@Data
+@TableName("user_daily_nutrition_record")
+public class UserDailyNutritionRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 饮食记录ID（来自diet-service）
+     */
+    @TableId(value = "record_id", type = IdType.INPUT)
+    private Long recordId;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 记录日期
+     */
+    private LocalDate date;
+
+    /**
+     * 热量合计（千卡）
+     */
+    private BigDecimal calories;
+
+    /**
+     * 蛋白质合计（g）
+     */
+    private BigDecimal protein;
+
+    /**
+     * 碳水化合物合计（g）
+     */
+    private BigDecimal carbs;
+
+    /**
+     * 脂肪合计（g）
+     */
+    private BigDecimal fat;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -1,33 +1,41 @@
 package com.example.nutrition.event;
 
+import com.example.diet.dto.DietRecordResponseDTO;
 import com.example.diet.event.DietRecordAddedEvent;
+import com.example.diet.service.DietRecordService;
+import com.example.nutrition.entity.UserDailyNutritionRecord;
+import com.example.nutrition.projection.DailyNutritionProjection;
+import com.example.nutrition.projection.DailyNutritionRebuildService;
 import com.example.shared.event.DomainEvent;
 import com.example.shared.event.DomainEventHandler;
+import com.example.user.dto.UserNutritionGoalResponseDTO;
+import com.example.user.service.UserNutritionGoalService;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.config.annotation.DubboReference;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.Cache;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
-
 /**
  * 饮食记录添加事件处理器
- * 当用户添加饮食记录时，清除相关的营养统计缓存
+ * 当用户添加饮食记录时，将该记录计入每日营养汇总，并清除相关的营养统计缓存
  */
 @Slf4j
 @Component
 public class DietRecordAddedEventHandler implements DomainEventHandler<DietRecordAddedEvent> {
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private final DailyNutritionProjection projection;
+    private final NutritionCacheEvictor cacheEvictor;
+
+    @DubboReference
+    private DietRecordService dietRecordService;
 
-    private final CacheManager cacheManager;
+    @DubboReference
+    private UserNutritionGoalService userNutritionGoalService;
 
     @Autowired
-    public DietRecordAddedEventHandler(CacheManager cacheManager) {
-        this.cacheManager = cacheManager;
+    public DietRecordAddedEventHandler(DailyNutritionProjection projection, NutritionCacheEvictor cacheEvictor) {
+        this.projection = projection;
+        this.cacheEvictor = cacheEvictor;
     }
 
     @Override
@@ -41,48 +49,58 @@ public class DietRecordAddedEventHandler implements DomainEventHandler<DietRecor
             event.getUserId(), event.getDietRecordId(), event.getRecordDate());
 
         try {
-            Long userId = event.getUserId();
-            String dateStr = event.getRecordDate().format(DATE_FORMATTER);
-            LocalDate today = LocalDate.now();
-
-            // 直接驱逐相关缓存项
-            evictCache("nutritionStat", "daily_" + userId + "_" + dateStr);
-            evictCache("nutritionStat", "details_" + userId + "_" + dateStr);
-            evictCache("nutritionStat", "advice_" + userId + "_" + dateStr);
-            evictCache("healthReport", "report_" + userId + "_" + dateStr);
-
-            // 驱逐趋势缓存（只驱逐包含当前记录日期的趋势）
-            LocalDate recordDate = event.getRecordDate();
-            if (!recordDate.isAfter(today)) {
-                // 最近7天
-                LocalDate weekStart = today.minus(6, ChronoUnit.DAYS);
-                if (!recordDate.isBefore(weekStart)) {
-                    evictCache("nutritionStat", "trend_" + userId + "_" + weekStart.format(DATE_FORMATTER) + "_" + today.format(DATE_FORMATTER));
-                }
-
-                // 最近30天
-                LocalDate monthStart = today.minus(29, ChronoUnit.DAYS);
-                if (!recordDate.isBefore(monthStart)) {
-                    evictCache("nutritionStat", "trend_" + userId + "_" + monthStart.format(DATE_FORMATTER) + "_" + today.format(DATE_FORMATTER));
-                }
+            UserDailyNutritionRecord record = toRecord(event);
+            if (record != null) {
+                projection.applyRecordAdded(record, findNutritionGoal(event.getUserId()));
             }
+        } catch (Exception e) {
+            // 汇总更新失败时仍然驱逐缓存，可通过重建命令修复汇总
+            log.error("更新每日营养汇总失败: userId={}, recordId={}, error={}",
+                event.getUserId(), event.getDietRecordId(), e.getMessage(), e);
+        }
 
-            log.info("成功驱逐用户营养统计缓存: userId={}", userId);
+        try {
+            cacheEvictor.evictUserDay(event.getUserId(), event.getRecordDate());
+            log.info("成功驱逐用户营养统计缓存: userId={}", event.getUserId());
         } catch (Exception e) {
             log.error("驱逐用户营养统计缓存失败: userId={}, error={}",
                 event.getUserId(), e.getMessage(), e);
         }
     }
 
-    private void evictCache(String cacheName, String key) {
+    /**
+     * 优先使用事件携带的营养合计；旧版本发布的事件没有合计，回查饮食记录详情
+     */
+    private UserDailyNutritionRecord toRecord(DietRecordAddedEvent event) {
+        if (event.hasNutritionTotals()) {
+            UserDailyNutritionRecord record = new UserDailyNutritionRecord();
+            record.setRecordId(event.getDietRecordId());
+            record.setUserId(event.getUserId());
+            record.setDate(event.getRecordDate());
+            record.setCalories(event.getCalories());
+            record.setProtein(event.getProtein());
+            record.setCarbs(event.getCarbs());
+            record.setFat(event.getFat());
+            return record;
+        }
+
+        DietRecordResponseDTO dietRecord = dietRecordService.getDietRecordDetail(event.getDietRecordId());
+        if (dietRecord == null) {
+            log.warn("饮食记录不存在，跳过每日汇总更新: recordId={}", event.getDietRecordId());
+            return null;
+        }
+        return DailyNutritionRebuildService.toRecord(dietRecord);
+    }
+
+    /**
+     * 查询用户营养目标用于判定当日是否达标，失败时按未达标处理，由夜间压实任务校正
+     */
+    private UserNutritionGoalResponseDTO findNutritionGoal(Long userId) {
         try {
-            Cache cache = cacheManager.getCache(cacheName);
-            if (cache != null) {
-                cache.evict(key);
-                log.debug("驱逐缓存项: {}::{}", cacheName, key);
-            }
+            return userNutritionGoalService.getNutritionGoal(userId);
         } catch (Exception e) {
-            log.warn("驱逐缓存项失败: {}::{}, error: {}", cacheName, key, e.getMessage());
+            log.warn("获取用户营养目标失败: userId={}, error={}", userId, e.getMessage());
+            return null;
         }
     }
 }
@@ -0,0 +1,71 @@
+package com.example.nutrition.event;
+
+import com.example.diet.event.DietRecordDeletedEvent;
+import com.example.nutrition.projection.DailyNutritionProjection;
+import com.example.shared.event.DomainEvent;
+import com.example.shared.event.DomainEventHandler;
+import com.example.user.dto.UserNutritionGoalResponseDTO;
+import com.example.user.service.UserNutritionGoalService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.config.annotation.DubboReference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 饮食记录删除事件处理器
+ * 当饮食记录被删除时，将该记录从每日营养汇总中扣除，并清除相关的营养统计缓存
+ */
+@Slf4j
+@Component
+public class DietRecordDeletedEventHandler implements DomainEventHandler<DietRecordDeletedEvent> {
+
+    private final DailyNutritionProjection projection;
+    private final NutritionCacheEvictor cacheEvictor;
+
+    @DubboReference
+    private UserNutritionGoalService userNutritionGoalService;
+
+    @Autowired
+    public DietRecordDeletedEventHandler(DailyNutritionProjection projection, NutritionCacheEvictor cacheEvictor) {
+        this.projection = projection;
+        this.cacheEvictor = cacheEvictor;
+    }
+
+    @Override
+    public boolean supports(Class<? extends DomainEvent> eventType) {
+        return DietRecordDeletedEvent.class.isAssignableFrom(eventType);
+    }
+
+    @Override
+    public void handle(DietRecordDeletedEvent event) {
+        log.info("处理饮食记录删除事件: userId={}, recordId={}, date={}",
+            event.getUserId(), event.getDietRecordId(), event.getRecordDate());
+
+        try {
+            projection.applyRecordDeleted(event.getUserId(), event.getDietRecordId(), event.getRecordDate(), findNutritionGoal(event.getUserId()));
+        } catch (Exception e) {
+            log.error("更新每日营养汇总失败: userId={}, recordId={}, error={}",
+                event.getUserId(), event.getDietRecordId(), e.getMessage(), e);
+        }
+
+        try {
+            cacheEvictor.evictUserDay(event.getUserId(), event.getRecordDate());
+            log.info("成功驱逐用户营养统计缓存: userId={}", event.getUserId());
+        } catch (Exception e) {
+            log.error("驱逐用户营养统计缓存失败: userId={}, error={}",
+                event.getUserId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 查询用户营养目标用于判定当日是否达标，失败时按未达标处理，由夜间压实任务校正
+     */
+    private UserNutritionGoalResponseDTO findNutritionGoal(Long userId) {
+        try {
+            return userNutritionGoalService.getNutritionGoal(userId);
+        } catch (Exception e) {
+            log.warn("获取用户营养目标失败: userId={}, error={}", userId, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.nutrition.event;
+
+import com.example.shared.util.CacheBatchUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 用户某日营养数据变化后的缓存驱逐
+ * 饮食记录添加、删除事件共用
+ */
+@Slf4j
+@Component
+public class NutritionCacheEvictor {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public NutritionCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 驱逐用户某日的每日统计、明细、建议、健康报告，以及包含该日期的最近7天/30天趋势缓存
+     */
+    public void evictUserDay(Long userId, LocalDate recordDate) {
+        String dateStr = recordDate.format(DATE_FORMATTER);
+        LocalDate today = LocalDate.now();
+
+        // 同一缓存的key合并为一次批量驱逐
+        List<String> statKeys = new ArrayList<>();
+        statKeys.add("daily_" + userId + "_" + dateStr);
+        statKeys.add("details_" + userId + "_" + dateStr);
+        statKeys.add("advice_" + userId + "_" + dateStr);
+
+        // 驱逐趋势缓存（只驱逐包含当前记录日期的趋势）
+        if (!recordDate.isAfter(today)) {
+            // 最近7天
+            LocalDate weekStart = today.minus(6, ChronoUnit.DAYS);
+            if (!recordDate.isBefore(weekStart)) {
+                statKeys.add("trend_" + userId + "_" + weekStart.format(DATE_FORMATTER) + "_" + today.format(DATE_FORMATTER));
+            }
+
+            // 最近30天
+            LocalDate monthStart = today.minus(29, ChronoUnit.DAYS);
+            if (!recordDate.isBefore(monthStart)) {
+                statKeys.add("trend_" + userId + "_" + monthStart.format(DATE_FORMATTER) + "_" + today.format(DATE_FORMATTER));
+            }
+        }
+
+        evictCache("nutritionStat", statKeys);
+        evictCache("healthReport", Collections.singletonList("report_" + userId + "_" + dateStr));
+    }
+
+    /**
+     * 清空营养统计与健康报告缓存（重建每日汇总后使用）
+     */
+    public void clearAll() {
+        clearCache("nutritionStat");
+        clearCache("healthReport");
+    }
+
+    private void evictCache(String cacheName, List<String> keys) {
+        try {
+            CacheBatchUtil.evictAll(cacheManager, cacheName, keys);
+            log.debug("驱逐缓存项: {}::{}", cacheName, keys);
+        } catch (Exception e) {
+            log.warn("驱逐缓存项失败: {}::{}, error: {}", cacheName, keys, e.getMessage());
+        }
+    }
+
+    private void clearCache(String cacheName) {
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        } catch (Exception e) {
+            log.warn("清空缓存失败: {}, error: {}", cacheName, e.getMessage());
+        }
+    }
+}
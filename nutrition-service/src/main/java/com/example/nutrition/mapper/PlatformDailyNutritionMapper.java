@@ -0,0 +1,62 @@
+package com.example.nutrition.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.nutrition.entity.PlatformDailyNutrition;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 全平台每日营养汇总数据访问接口
+ */
+@Mapper
+public interface PlatformDailyNutritionMapper extends BaseMapper<PlatformDailyNutrition> {
+
+    /**
+     * 将增量累加到某天的汇总上，当天没有汇总时以增量作为初始值
+     * @param delta 增量（各字段可为负数）
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO platform_daily_nutrition " +
+            "(date, calories, protein, carbs, fat, active_users, compliant_users, updated_at) " +
+            "VALUES (#{date}, #{calories}, #{protein}, #{carbs}, #{fat}, #{activeUsers}, #{compliantUsers}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE calories = calories + VALUES(calories), protein = protein + VALUES(protein), " +
+            "carbs = carbs + VALUES(carbs), fat = fat + VALUES(fat), " +
+            "active_users = active_users + VALUES(active_users), " +
+            "compliant_users = compliant_users + VALUES(compliant_users), updated_at = NOW()")
+    int applyDelta(PlatformDailyNutrition delta);
+
+    /**
+     * 按用户每日汇总重新计算某天的全平台汇总（压实）
+     * @param date 日期
+     * @return 影响的行数
+     */
+    @Insert("REPLACE INTO platform_daily_nutrition " +
+            "(date, calories, protein, carbs, fat, active_users, compliant_users, updated_at) " +
+            "SELECT #{date}, COALESCE(SUM(calories), 0), COALESCE(SUM(protein), 0), COALESCE(SUM(carbs), 0), " +
+            "COALESCE(SUM(fat), 0), COALESCE(SUM(record_count > 0), 0), COALESCE(SUM(compliant), 0), NOW() " +
+            "FROM user_daily_nutrition WHERE date = #{date}")
+    int refreshDay(@Param("date") LocalDate date);
+
+    /**
+     * 查询日期范围内的全平台汇总
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 汇总列表，按日期升序
+     */
+    @Select("SELECT * FROM platform_daily_nutrition WHERE date BETWEEN #{startDate} AND #{endDate} ORDER BY date")
+    List<PlatformDailyNutrition> findByDateRange(@Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询某天的全平台汇总
+     * @param date 日期
+     * @return 汇总，不存在时返回null
+     */
+    @Select("SELECT * FROM platform_daily_nutrition WHERE date = #{date}")
+    PlatformDailyNutrition findByDate(@Param("date") LocalDate date);
+}
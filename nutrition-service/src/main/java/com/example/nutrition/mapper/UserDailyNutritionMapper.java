@@ -0,0 +1,166 @@
+package com.example.nutrition.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.nutrition.entity.UserDailyNutrition;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户每日营养汇总数据访问接口
+ */
+@Mapper
+public interface UserDailyNutritionMapper extends BaseMapper<UserDailyNutrition> {
+
+    /**
+     * 按当天的明细重新计算某用户某天的汇总（幂等），达标标记需随后重新设置
+     * @param userId 用户ID
+     * @param date 日期
+     * @return 影响的行数
+     */
+    @Insert("REPLACE INTO user_daily_nutrition " +
+            "(user_id, date, calories, protein, carbs, fat, record_count, updated_at) " +
+            "SELECT #{userId}, #{date}, COALESCE(SUM(calories), 0), COALESCE(SUM(protein), 0), " +
+            "COALESCE(SUM(carbs), 0), COALESCE(SUM(fat), 0), COUNT(*), NOW() " +
+            "FROM user_daily_nutrition_record WHERE user_id = #{userId} AND date = #{date}")
+    int refreshDay(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    /**
+     * 查询某用户某天的汇总
+     * @param userId 用户ID
+     * @param date 日期
+     * @return 汇总，不存在时返回null
+     */
+    @Select("SELECT * FROM user_daily_nutrition WHERE user_id = #{userId} AND date = #{date}")
+    UserDailyNutrition findByUserAndDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    /**
+     * 确保某用户某天的汇总行存在（不存在时插入全零行，存在时不做修改），随后的 FOR UPDATE 只锁这一行，
+     * 避免对不存在的行加间隙锁，同一用户同一天的两个首次事件在随后的插入上互相死锁
+     * @param userId 用户ID
+     * @param date 日期
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO user_daily_nutrition (user_id, date, updated_at) VALUES (#{userId}, #{date}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE user_id = user_id")
+    int ensureDay(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    /**
+     * 查询并锁定某用户某天的汇总，用于计算汇总变化前后的增量
+     * @param userId 用户ID
+     * @param date 日期
+     * @return 汇总，不存在时返回null
+     */
+    @Select("SELECT * FROM user_daily_nutrition WHERE user_id = #{userId} AND date = #{date} FOR UPDATE")
+    UserDailyNutrition findByUserAndDateForUpdate(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    /**
+     * 查询某天所有用户的汇总
+     * @param date 日期
+     * @return 汇总列表
+     */
+    @Select("SELECT * FROM user_daily_nutrition WHERE date = #{date}")
+    List<UserDailyNutrition> findByDate(@Param("date") LocalDate date);
+
+    /**
+     * 设置某用户某天是否达标
+     * @param userId 用户ID
+     * @param date 日期
+     * @param compliant 是否达标
+     * @return 影响的行数
+     */
+    @Update("UPDATE user_daily_nutrition SET compliant = #{compliant} WHERE user_id = #{userId} AND date = #{date}")
+    int updateCompliant(@Param("userId") Long userId, @Param("date") LocalDate date,
+                        @Param("compliant") boolean compliant);
+
+    /**
+     * 批量设置某天指定用户是否达标
+     * @param userIds 用户ID列表
+     * @param date 日期
+     * @param compliant 是否达标
+     * @return 影响的行数
+     */
+    @Update("<script>UPDATE user_daily_nutrition SET compliant = #{compliant} WHERE date = #{date} " +
+            "AND user_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int updateCompliantByUsers(@Param("userIds") Collection<Long> userIds, @Param("date") LocalDate date,
+                               @Param("compliant") boolean compliant);
+
+    /**
+     * 查询某用户日期范围内的汇总
+     * @param userId 用户ID
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 汇总列表，按日期升序，没有记录的日期不返回
+     */
+    @Select("SELECT * FROM user_daily_nutrition WHERE user_id = #{userId} " +
+            "AND date BETWEEN #{startDate} AND #{endDate} ORDER BY date")
+    List<UserDailyNutrition> findByUserAndDateRange(@Param("userId") Long userId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询指定用户日期范围内的汇总
+     * @param userIds 用户ID集合
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 汇总列表
+     */
+    @Select("<script>SELECT * FROM user_daily_nutrition WHERE date BETWEEN #{startDate} AND #{endDate} " +
+            "AND user_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<UserDailyNutrition> findByUsersAndDateRange(@Param("userIds") Collection<Long> userIds,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询日期范围内有饮食记录的用户
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 用户ID列表
+     */
+    @Select("SELECT DISTINCT user_id FROM user_daily_nutrition " +
+            "WHERE date BETWEEN #{startDate} AND #{endDate} AND record_count > 0")
+    List<Long> findActiveUserIdsByDateRange(@Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询指定用户某天的汇总
+     * @param userIds 用户ID集合
+     * @param date 日期
+     * @return 汇总列表
+     */
+    @Select("<script>SELECT * FROM user_daily_nutrition WHERE date = #{date} " +
+            "AND user_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<UserDailyNutrition> findByUsersAndDate(@Param("userIds") Collection<Long> userIds,
+                                                @Param("date") LocalDate date);
+
+    /**
+     * 删除指定用户在日期范围内的汇总（重建时使用）
+     */
+    @Delete("<script>DELETE FROM user_daily_nutrition WHERE date BETWEEN #{startDate} AND #{endDate} " +
+            "AND user_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteByUsersAndDateRange(@Param("userIds") List<Long> userIds,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询日期范围内汇总或明细中出现过的用户（包括已没有饮食记录的用户）
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 用户ID列表
+     */
+    @Select("SELECT user_id FROM user_daily_nutrition WHERE date BETWEEN #{startDate} AND #{endDate} " +
+            "UNION SELECT user_id FROM user_daily_nutrition_record WHERE date BETWEEN #{startDate} AND #{endDate}")
+    List<Long> findUserIdsByDateRange(@Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+}
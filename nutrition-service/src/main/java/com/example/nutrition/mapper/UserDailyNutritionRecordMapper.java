@@ -0,0 +1,42 @@
+package com.example.nutrition.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.nutrition.entity.UserDailyNutritionRecord;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每日营养汇总明细数据访问接口
+ */
+@Mapper
+public interface UserDailyNutritionRecordMapper extends BaseMapper<UserDailyNutritionRecord> {
+
+    /**
+     * 插入明细，记录ID已存在时忽略（事件重复投递）
+     * @param record 明细
+     * @return 实际插入的行数
+     */
+    @Insert("INSERT IGNORE INTO user_daily_nutrition_record " +
+            "(record_id, user_id, date, calories, protein, carbs, fat, created_at) " +
+            "VALUES (#{recordId}, #{userId}, #{date}, #{calories}, #{protein}, #{carbs}, #{fat}, NOW())")
+    int insertIgnore(UserDailyNutritionRecord record);
+
+    /**
+     * 删除指定用户在日期范围内的明细（重建时使用）
+     * @param userIds 用户ID列表
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 删除的行数
+     */
+    @Delete("<script>DELETE FROM user_daily_nutrition_record WHERE date BETWEEN #{startDate} AND #{endDate} " +
+            "AND user_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteByUsersAndDateRange(@Param("userIds") List<Long> userIds,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,44 @@
+package com.example.nutrition.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日营养汇总删除墓碑数据访问接口
+ */
+@Mapper
+public interface UserDailyNutritionTombstoneMapper {
+
+    /**
+     * 记录饮食记录已删除，已存在时忽略
+     * @param recordId 饮食记录ID
+     * @param userId 用户ID
+     * @param date 记录日期
+     * @return 实际插入的行数
+     */
+    @Insert("INSERT IGNORE INTO user_daily_nutrition_tombstone (record_id, user_id, date, created_at) " +
+            "VALUES (#{recordId}, #{userId}, #{date}, NOW())")
+    int insertIgnore(@Param("recordId") Long recordId, @Param("userId") Long userId, @Param("date") LocalDate date);
+
+    /**
+     * 饮食记录是否已删除
+     * @param recordId 饮食记录ID
+     * @return 存在墓碑时返回1，否则返回0
+     */
+    @Select("SELECT COUNT(*) FROM user_daily_nutrition_tombstone WHERE record_id = #{recordId}")
+    int countByRecordId(@Param("recordId") Long recordId);
+
+    /**
+     * 清理早于指定时间的墓碑
+     * @param before 截止时间
+     * @return 删除的行数
+     */
+    @Delete("DELETE FROM user_daily_nutrition_tombstone WHERE created_at < #{before}")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,284 @@
+package com.example.nutrition.projection;
+
+import com.example.nutrition.entity.PlatformDailyNutrition;
+import com.example.nutrition.entity.UserDailyNutrition;
+import com.example.nutrition.entity.UserDailyNutritionRecord;
+import com.example.nutrition.mapper.PlatformDailyNutritionMapper;
+import com.example.nutrition.mapper.UserDailyNutritionMapper;
+import com.example.nutrition.mapper.UserDailyNutritionRecordMapper;
+import com.example.nutrition.mapper.UserDailyNutritionTombstoneMapper;
+import com.example.user.dto.UserNutritionGoalResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 用户每日营养汇总投影
+ * 每条饮食记录的营养合计写入明细表（记录ID为主键），每日汇总由当天明细重新求和，
+ * 因此事件重复投递不会造成重复累加。
+ * 删除事件同时写入墓碑（记录ID为主键），删除先于添加到达、或删除后添加被重复投递时，之后的添加不再计入；
+ * 同一用户同一天的事件在汇总行锁上串行，墓碑检查与明细写入之间不会交错。
+ * 用户每日汇总变化前后的差值同时累加到全平台每日汇总，累加误差由 {@link #compactDay} 校正。
+ */
+@Slf4j
+@Component
+public class DailyNutritionProjection {
+
+    @Autowired
+    private UserDailyNutritionMapper dailyNutritionMapper;
+
+    @Autowired
+    private UserDailyNutritionRecordMapper recordMapper;
+
+    @Autowired
+    private PlatformDailyNutritionMapper platformMapper;
+
+    @Autowired
+    private UserDailyNutritionTombstoneMapper tombstoneMapper;
+
+    /**
+     * 应用一条饮食记录的添加
+     *
+     * @param nutritionGoal 用户营养目标，用于判定当日是否达标，可为null
+     * @return 是否为新记录（重复投递或记录已删除时返回false）
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean applyRecordAdded(UserDailyNutritionRecord record, UserNutritionGoalResponseDTO nutritionGoal) {
+        UserDailyNutrition before = lockUserDay(record.getUserId(), record.getDate());
+        if (tombstoneMapper.countByRecordId(record.getRecordId()) > 0) {
+            log.debug("饮食记录已删除，忽略添加事件: recordId={}", record.getRecordId());
+            return false;
+        }
+        if (recordMapper.insertIgnore(record) == 0) {
+            log.debug("饮食记录已计入每日汇总，忽略: recordId={}", record.getRecordId());
+            return false;
+        }
+        refreshUserDay(record.getUserId(), record.getDate(), nutritionGoal, before);
+        return true;
+    }
+
+    /**
+     * 应用一条饮食记录的删除
+     *
+     * @param nutritionGoal 用户营养目标，用于判定当日是否达标，可为null
+     * @return 该记录此前是否已计入汇总
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean applyRecordDeleted(Long userId, Long recordId, LocalDate date,
+                                      UserNutritionGoalResponseDTO nutritionGoal) {
+        UserDailyNutrition before = lockUserDay(userId, date);
+        tombstoneMapper.insertIgnore(recordId, userId, date);
+        if (recordMapper.deleteById(recordId) == 0) {
+            log.debug("饮食记录不在每日汇总中，已记录墓碑: recordId={}", recordId);
+            return false;
+        }
+        refreshUserDay(userId, date, nutritionGoal, before);
+        return true;
+    }
+
+    /**
+     * 锁定用户某天的汇总行，同一用户同一天的事件在此串行
+     * 先确保行存在再加锁，只锁这一行而不加间隙锁；新插入的全零行与"没有汇总"等价
+     *
+     * @return 加锁时的汇总，即本次变化前的值
+     */
+    private UserDailyNutrition lockUserDay(Long userId, LocalDate date) {
+        dailyNutritionMapper.ensureDay(userId, date);
+        return dailyNutritionMapper.findByUserAndDateForUpdate(userId, date);
+    }
+
+    /**
+     * 重新计算用户某天的汇总及达标标记，并将变化量累加到全平台汇总
+     *
+     * @param before {@link #lockUserDay} 返回的变化前汇总
+     */
+    private void refreshUserDay(Long userId, LocalDate date, UserNutritionGoalResponseDTO nutritionGoal,
+                                UserDailyNutrition before) {
+        dailyNutritionMapper.refreshDay(userId, date);
+        UserDailyNutrition after = dailyNutritionMapper.findByUserAndDate(userId, date);
+        boolean compliant = NutritionCompliance.isCompliant(after, nutritionGoal);
+        dailyNutritionMapper.updateCompliant(userId, date, compliant);
+        after.setCompliant(compliant);
+
+        PlatformDailyNutrition delta = new PlatformDailyNutrition();
+        delta.setDate(date);
+        delta.setCalories(after.getCalories().subtract(before != null ? before.getCalories() : BigDecimal.ZERO));
+        delta.setProtein(after.getProtein().subtract(before != null ? before.getProtein() : BigDecimal.ZERO));
+        delta.setCarbs(after.getCarbs().subtract(before != null ? before.getCarbs() : BigDecimal.ZERO));
+        delta.setFat(after.getFat().subtract(before != null ? before.getFat() : BigDecimal.ZERO));
+        delta.setActiveUsers(activeFlag(after) - activeFlag(before));
+        delta.setCompliantUsers(compliantFlag(after) - compliantFlag(before));
+        platformMapper.applyDelta(delta);
+    }
+
+    private static int activeFlag(UserDailyNutrition daily) {
+        return daily != null && daily.getRecordCount() != null && daily.getRecordCount() > 0 ? 1 : 0;
+    }
+
+    private static int compliantFlag(UserDailyNutrition daily) {
+        return daily != null && Boolean.TRUE.equals(daily.getCompliant()) ? 1 : 0;
+    }
+
+    /**
+     * 压实某天的汇总：按当前营养目标重新判定每个用户是否达标，再按用户每日汇总重新计算全平台汇总
+     *
+     * @param nutritionGoals 当天有汇总的用户的营养目标（必须完整），没有营养目标的用户值为null，视为未达标
+     * @return 当天有汇总的用户数
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int compactDay(LocalDate date, Map<Long, UserNutritionGoalResponseDTO> nutritionGoals) {
+        List<UserDailyNutrition> dailyNutritions = dailyNutritionMapper.findByDate(date);
+        List<Long> compliantUserIds = new ArrayList<>();
+        List<Long> nonCompliantUserIds = new ArrayList<>();
+        for (UserDailyNutrition daily : dailyNutritions) {
+            if (NutritionCompliance.isCompliant(daily, nutritionGoals.get(daily.getUserId()))) {
+                compliantUserIds.add(daily.getUserId());
+            } else {
+                nonCompliantUserIds.add(daily.getUserId());
+            }
+        }
+        if (!compliantUserIds.isEmpty()) {
+            dailyNutritionMapper.updateCompliantByUsers(compliantUserIds, date, true);
+        }
+        if (!nonCompliantUserIds.isEmpty()) {
+            dailyNutritionMapper.updateCompliantByUsers(nonCompliantUserIds, date, false);
+        }
+        platformMapper.refreshDay(date);
+        return dailyNutritions.size();
+    }
+
+    /**
+     * 用给定明细在一个事务内替换指定用户日期范围内的汇总（重建时使用）
+     * 达标标记和全平台汇总不在这里维护，替换完成后需对范围内的日期执行 {@link #compactDay}
+     *
+     * @param userIds 需要替换的用户
+     * @param records 重新计算得到的明细，为空时只清除这些用户的汇总
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void replaceRange(List<Long> userIds, LocalDate startDate, LocalDate endDate,
+                             List<UserDailyNutritionRecord> records) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        recordMapper.deleteByUsersAndDateRange(userIds, startDate, endDate);
+        dailyNutritionMapper.deleteByUsersAndDateRange(userIds, startDate, endDate);
+
+        Set<String> days = new LinkedHashSet<>();
+        for (UserDailyNutritionRecord record : records) {
+            recordMapper.insertIgnore(record);
+            days.add(record.getUserId() + "_" + record.getDate());
+        }
+        for (UserDailyNutritionRecord record : records) {
+            if (days.remove(record.getUserId() + "_" + record.getDate())) {
+                dailyNutritionMapper.refreshDay(record.getUserId(), record.getDate());
+            }
+        }
+    }
+
+    /**
+     * 清理早于指定时间的删除墓碑，超过保留期后到达的添加事件由每晚核对修正
+     *
+     * @return 清理的墓碑数
+     */
+    public int purgeTombstones(LocalDateTime before) {
+        return tombstoneMapper.deleteCreatedBefore(before);
+    }
+
+    /**
+     * 查询日期范围内汇总中出现过的用户，包括已没有饮食记录的用户
+     */
+    public List<Long> findUserIdsInRange(LocalDate startDate, LocalDate endDate) {
+        return dailyNutritionMapper.findUserIdsByDateRange(startDate, endDate);
+    }
+
+    /**
+     * 查询某天有汇总的用户ID
+     */
+    public List<Long> findUserIdsByDate(LocalDate date) {
+        return dailyNutritionMapper.findByDate(date).stream()
+                .map(UserDailyNutrition::getUserId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 查询日期范围内的全平台汇总
+     *
+     * @return 日期到汇总的映射，没有汇总的日期不包含在内
+     */
+    public Map<LocalDate, PlatformDailyNutrition> findPlatformRange(LocalDate startDate, LocalDate endDate) {
+        return platformMapper.findByDateRange(startDate, endDate).stream()
+                .collect(Collectors.toMap(PlatformDailyNutrition::getDate, Function.identity()));
+    }
+
+    /**
+     * 查询某天的全平台汇总
+     *
+     * @return 汇总，当天没有汇总时返回null
+     */
+    public PlatformDailyNutrition findPlatformDay(LocalDate date) {
+        return platformMapper.findByDate(date);
+    }
+
+    /**
+     * 查询用户某日汇总
+     *
+     * @return 汇总，当天没有记录时返回null
+     */
+    public UserDailyNutrition findDay(Long userId, LocalDate date) {
+        return dailyNutritionMapper.findByUserAndDate(userId, date);
+    }
+
+    /**
+     * 查询用户日期范围内的汇总
+     *
+     * @return 日期到汇总的映射，没有记录的日期不包含在内
+     */
+    public Map<LocalDate, UserDailyNutrition> findRange(Long userId, LocalDate startDate, LocalDate endDate) {
+        return dailyNutritionMapper.findByUserAndDateRange(userId, startDate, endDate).stream()
+                .collect(Collectors.toMap(UserDailyNutrition::getDate, Function.identity()));
+    }
+
+    /**
+     * 查询多个用户日期范围内的汇总
+     */
+    public List<UserDailyNutrition> findRangeForUsers(Collection<Long> userIds, LocalDate startDate, LocalDate endDate) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return dailyNutritionMapper.findByUsersAndDateRange(userIds, startDate, endDate);
+    }
+
+    /**
+     * 查询日期范围内汇总中有饮食记录的用户
+     */
+    public List<Long> findActiveUserIds(LocalDate startDate, LocalDate endDate) {
+        return dailyNutritionMapper.findActiveUserIdsByDateRange(startDate, endDate);
+    }
+
+    /**
+     * 查询多个用户某日的汇总
+     *
+     * @return 用户ID到汇总的映射，当天没有记录的用户不包含在内
+     */
+    public Map<Long, UserDailyNutrition> findDayForUsers(Collection<Long> userIds, LocalDate date) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return dailyNutritionMapper.findByUsersAndDate(userIds, date).stream()
+                .collect(Collectors.toMap(UserDailyNutrition::getUserId, Function.identity()));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.nutrition.projection;
+
+import com.example.diet.dto.DietRecordFoodDTO;
+import com.example.diet.dto.DietRecordResponseDTO;
+import com.example.nutrition.entity.UserDailyNutritionRecord;
+import com.example.nutrition.event.NutritionCacheEvictor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 每日营养汇总重建
+ * 从diet-service重新拉取饮食记录并覆盖指定日期范围内的用户及全平台汇总，用于首次上线初始化或事件丢失后的修复
+ */
+@Slf4j
+@Service
+public class DailyNutritionRebuildService {
+
+    /**
+     * 每次RPC拉取的用户数
+     */
+    private static final int USER_CHUNK_SIZE = 200;
+
+    @Autowired
+    private DietRecordMacroSource macroSource;
+
+    @Autowired
+    private DailyNutritionProjection projection;
+
+    @Autowired
+    private PlatformRollupCompactor rollupCompactor;
+
+    @Autowired
+    private NutritionCacheEvictor cacheEvictor;
+
+    /**
+     * 重建日期范围内的每日汇总
+     *
+     * @param userId 只重建该用户，为null时重建所有用户
+     * @return 重建的饮食记录数
+     */
+    public int rebuild(Long userId, LocalDate startDate, LocalDate endDate) {
+        long start = System.currentTimeMillis();
+        List<Long> userIds = userId != null
+            ? Collections.singletonList(userId)
+            : macroSource.findActiveUserIds(startDate, endDate);
+
+        // 每批用户在一个事务内替换，重建过程中读到的要么是旧汇总要么是新汇总，中途失败也不会留下空洞
+        int recordCount = 0;
+        for (int i = 0; i < userIds.size(); i += USER_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(i, Math.min(i + USER_CHUNK_SIZE, userIds.size()));
+            List<UserDailyNutritionRecord> records = macroSource.loadRecords(chunk, startDate, endDate);
+            projection.replaceRange(new ArrayList<>(chunk), startDate, endDate, records);
+            recordCount += records.size();
+        }
+
+        if (userId == null) {
+            // 最后清除范围内已没有饮食记录的用户残留的汇总
+            Set<Long> staleUserIds = new LinkedHashSet<>(projection.findUserIdsInRange(startDate, endDate));
+            staleUserIds.removeAll(new HashSet<>(userIds));
+            List<Long> stale = new ArrayList<>(staleUserIds);
+            for (int i = 0; i < stale.size(); i += USER_CHUNK_SIZE) {
+                List<Long> chunk = stale.subList(i, Math.min(i + USER_CHUNK_SIZE, stale.size()));
+                projection.replaceRange(new ArrayList<>(chunk), startDate, endDate, Collections.emptyList());
+            }
+        }
+
+        // 重新判定达标情况并重新计算全平台汇总
+        rollupCompactor.compactRange(startDate, endDate);
+
+        cacheEvictor.clearAll();
+        log.info("每日营养汇总重建完成: userId={}, startDate={}, endDate={}, users={}, records={}, costMs={}",
+            userId, startDate, endDate, userIds.size(), recordCount, System.currentTimeMillis() - start);
+        return recordCount;
+    }
+
+    /**
+     * 将一条饮食记录的食物营养合计转换为汇总明细（处理不带营养合计的旧版本事件时使用）
+     */
+    public static UserDailyNutritionRecord toRecord(DietRecordResponseDTO dietRecord) {
+        BigDecimal calories = BigDecimal.ZERO;
+        BigDecimal protein = BigDecimal.ZERO;
+        BigDecimal carbs = BigDecimal.ZERO;
+        BigDecimal fat = BigDecimal.ZERO;
+        if (dietRecord.getFoods() != null) {
+            for (DietRecordFoodDTO food : dietRecord.getFoods()) {
+                calories = calories.add(nullToZero(food.getCalories()));
+                protein = protein.add(nullToZero(food.getProtein()));
+                carbs = carbs.add(nullToZero(food.getCarbs()));
+                fat = fat.add(nullToZero(food.getFat()));
+            }
+        }
+
+        UserDailyNutritionRecord record = new UserDailyNutritionRecord();
+        record.setRecordId(dietRecord.getId());
+        record.setUserId(dietRecord.getUserId());
+        record.setDate(dietRecord.getDate());
+        record.setCalories(calories);
+        record.setProtein(protein);
+        record.setCarbs(carbs);
+        record.setFat(fat);
+        return record;
+    }
+
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.nutrition.projection;
+
+import com.example.diet.dto.DailyMacroSumsDTO;
+import com.example.diet.dto.RecordMacroSumsDTO;
+import com.example.diet.service.DietRecordService;
+import com.example.nutrition.entity.UserDailyNutritionRecord;
+import org.apache.dubbo.config.annotation.DubboReference;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 从diet-service读取饮食记录营养素合计
+ * 只使用返回紧凑数组的轻量接口，不拉取完整的饮食记录DTO
+ */
+@Component
+public class DietRecordMacroSource {
+
+    @DubboReference
+    private DietRecordService dietRecordService;
+
+    /**
+     * 日期范围内有饮食记录的用户（通过压缩位图传输）
+     */
+    public List<Long> findActiveUserIds(LocalDate startDate, LocalDate endDate) {
+        return dietRecordService.getActiveUserBitmap(startDate, endDate).toUserIds();
+    }
+
+    /**
+     * 日期范围内每条饮食记录的营养合计，转换为每日汇总明细
+     */
+    public List<UserDailyNutritionRecord> loadRecords(Collection<Long> userIds, LocalDate startDate, LocalDate endDate) {
+        RecordMacroSumsDTO sums = dietRecordService.getRecordMacroSums(userIds, startDate, endDate);
+        List<UserDailyNutritionRecord> records = new ArrayList<>(sums.size());
+        for (int i = 0; i < sums.size(); i++) {
+            UserDailyNutritionRecord record = new UserDailyNutritionRecord();
+            record.setRecordId(sums.getRecordIds()[i]);
+            record.setUserId(sums.getUserIds()[i]);
+            record.setDate(sums.getDates()[i]);
+            record.setCalories(BigDecimal.valueOf(sums.getCalories()[i]));
+            record.setProtein(BigDecimal.valueOf(sums.getProtein()[i]));
+            record.setCarbs(BigDecimal.valueOf(sums.getCarbs()[i]));
+            record.setFat(BigDecimal.valueOf(sums.getFat()[i]));
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * 日期范围内每个用户每天的营养合计
+     */
+    public DailyMacroSumsDTO loadDailySums(Collection<Long> userIds, LocalDate startDate, LocalDate endDate) {
+        return dietRecordService.getDailyMacroSums(userIds, startDate, endDate);
+    }
+}
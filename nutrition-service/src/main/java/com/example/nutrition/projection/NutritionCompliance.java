@@ -0,0 +1,45 @@
+package com.example.nutrition.projection;
+
+import com.example.nutrition.entity.UserDailyNutrition;
+import com.example.user.dto.UserNutritionGoalResponseDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * 每日营养达标判定：热量、蛋白质、碳水和脂肪都达到目标的80%以上
+ */
+public final class NutritionCompliance {
+
+    /**
+     * 达标百分比阈值
+     */
+    public static final double THRESHOLD_PERCENTAGE = 80;
+
+    private NutritionCompliance() {
+    }
+
+    /**
+     * @param daily 用户每日汇总，为null或当天没有记录时不达标
+     * @param nutritionGoal 用户营养目标，为null时不达标
+     */
+    public static boolean isCompliant(UserDailyNutrition daily, UserNutritionGoalResponseDTO nutritionGoal) {
+        if (daily == null || nutritionGoal == null || daily.getRecordCount() == null || daily.getRecordCount() == 0) {
+            return false;
+        }
+        return reached(daily.getCalories(), nutritionGoal.getCalorieTarget())
+            && reached(daily.getProtein(), nutritionGoal.getProteinTarget())
+            && reached(daily.getCarbs(), nutritionGoal.getCarbsTarget())
+            && reached(daily.getFat(), nutritionGoal.getFatTarget());
+    }
+
+    /**
+     * 目标未设置时百分比按0计算，视为未达标
+     */
+    private static boolean reached(BigDecimal value, Integer target) {
+        if (target == null || target <= 0) {
+            return false;
+        }
+        double actual = value != null ? value.doubleValue() : 0;
+        return actual * 100.0 / target >= THRESHOLD_PERCENTAGE;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.nutrition.projection;
+
+import com.example.diet.dto.DailyMacroSumsDTO;
+import com.example.nutrition.entity.UserDailyNutrition;
+import com.example.user.dto.UserNutritionGoalResponseDTO;
+import com.example.user.service.UserNutritionGoalService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.config.annotation.DubboReference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 全平台每日汇总压实任务
+ * 事件增量维护的汇总可能因事件丢失、处理失败或用户修改营养目标而偏离，每晚对最近几天：
+ * 先用diet-service的每日营养合计核对用户每日汇总，不一致的用户从饮食记录重建；
+ * 再按当前营养目标重新判定用户达标情况，并按用户每日汇总重新求和全平台汇总。
+ * 多个副本同时执行结果相同（幂等），不需要额外的互斥。
+ */
+@Slf4j
+@Component
+public class PlatformRollupCompactor {
+
+    @DubboReference
+    private UserNutritionGoalService userNutritionGoalService;
+
+    /**
+     * 核对时每次RPC包含的用户数
+     */
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+
+    /**
+     * 营养素合计比较的允许误差（数据库保留两位小数）
+     */
+    private static final double TOLERANCE = 0.01;
+
+    @Autowired
+    private DailyNutritionProjection projection;
+
+    @Autowired
+    private DietRecordMacroSource macroSource;
+
+    /**
+     * 每晚压实的天数（从昨天往前数）
+     */
+    @Value("${app.nutrition.rollup.compact-days:2}")
+    private int compactDays;
+
+    /**
+     * 删除墓碑保留的天数
+     */
+    @Value("${app.nutrition.rollup.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    @Scheduled(cron = "${app.nutrition.rollup.compact-cron:0 30 2 * * ?}")
+    public void compactRecentDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate startDate = yesterday.minusDays(Math.max(1, compactDays) - 1L);
+        try {
+            reconcileRange(startDate, yesterday);
+            compactRange(startDate, yesterday);
+        } catch (Exception e) {
+            log.error("全平台每日汇总压实失败", e);
+        }
+        try {
+            int purged = projection.purgeTombstones(LocalDateTime.now().minusDays(Math.max(1, tombstoneRetentionDays)));
+            log.info("清理每日营养汇总删除墓碑: count={}", purged);
+        } catch (Exception e) {
+            log.error("清理每日营养汇总删除墓碑失败", e);
+        }
+    }
+
+    /**
+     * 核对日期范围内的用户每日汇总，与diet-service的每日营养合计不一致的用户重建该范围
+     * 达标标记和全平台汇总需随后通过 {@link #compactRange} 重新计算
+     *
+     * @return 重建的用户数
+     */
+    public int reconcileRange(LocalDate startDate, LocalDate endDate) {
+        long start = System.currentTimeMillis();
+        // 两侧任一方有记录的用户都需要核对（汇总有而饮食记录没有，说明删除事件丢失）
+        Set<Long> userIds = new LinkedHashSet<>(macroSource.findActiveUserIds(startDate, endDate));
+        userIds.addAll(projection.findActiveUserIds(startDate, endDate));
+
+        List<Long> allUserIds = new ArrayList<>(userIds);
+        int rebuiltUsers = 0;
+        for (int i = 0; i < allUserIds.size(); i += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = allUserIds.subList(i, Math.min(i + RECONCILE_CHUNK_SIZE, allUserIds.size()));
+            List<Long> driftedUserIds = findDriftedUsers(chunk, startDate, endDate);
+            if (!driftedUserIds.isEmpty()) {
+                log.warn("每日营养汇总与饮食记录不一致，重建: users={}, startDate={}, endDate={}",
+                    driftedUserIds, startDate, endDate);
+                projection.replaceRange(driftedUserIds, startDate, endDate,
+                    macroSource.loadRecords(driftedUserIds, startDate, endDate));
+                rebuiltUsers += driftedUserIds.size();
+            }
+        }
+        log.info("每日营养汇总核对完成: startDate={}, endDate={}, users={}, rebuilt={}, costMs={}",
+            startDate, endDate, allUserIds.size(), rebuiltUsers, System.currentTimeMillis() - start);
+        return rebuiltUsers;
+    }
+
+    private List<Long> findDriftedUsers(List<Long> userIds, LocalDate startDate, LocalDate endDate) {
+        DailyMacroSumsDTO sums = macroSource.loadDailySums(userIds, startDate, endDate);
+        Map<Long, Integer> userIndexes = new HashMap<>();
+        for (int i = 0; i < sums.getUserIds().length; i++) {
+            userIndexes.put(sums.getUserIds()[i], i);
+        }
+
+        // 逐行比对汇总与diet-service的合计，并记录哪些用户日期在汇总中存在
+        Set<Long> drifted = new LinkedHashSet<>();
+        boolean[][] matched = new boolean[sums.getUserIds().length][sums.getDays()];
+        for (UserDailyNutrition daily : projection.findRangeForUsers(userIds, startDate, endDate)) {
+            Integer u = userIndexes.get(daily.getUserId());
+            int d = (int) ChronoUnit.DAYS.between(startDate, daily.getDate());
+            if (u == null) {
+                drifted.add(daily.getUserId());
+                continue;
+            }
+            matched[u][d] = true;
+            if (daily.getRecordCount() != sums.getRecordCounts()[u][d]
+                || differs(daily.getCalories(), sums.getCalories()[u][d])
+                || differs(daily.getProtein(), sums.getProtein()[u][d])
+                || differs(daily.getCarbs(), sums.getCarbs()[u][d])
+                || differs(daily.getFat(), sums.getFat()[u][d])) {
+                drifted.add(daily.getUserId());
+            }
+        }
+        // 有饮食记录但汇总中没有对应行（添加事件丢失）
+        for (int u = 0; u < sums.getUserIds().length; u++) {
+            for (int d = 0; d < sums.getDays(); d++) {
+                if (!matched[u][d] && sums.getRecordCounts()[u][d] > 0) {
+                    drifted.add(sums.getUserIds()[u]);
+                }
+            }
+        }
+        return new ArrayList<>(drifted);
+    }
+
+    private static boolean differs(BigDecimal projected, double expected) {
+        double actual = projected != null ? projected.doubleValue() : 0;
+        return Math.abs(actual - expected) > TOLERANCE;
+    }
+
+    /**
+     * 压实日期范围内每一天的汇总
+     * 营养目标查询失败时中止，已压实的日期保留结果，未压实的日期保持原值
+     *
+     * @return 压实涉及的用户每日汇总条数
+     * @throws IllegalStateException 营养目标查询失败
+     */
+    public int compactRange(LocalDate startDate, LocalDate endDate) {
+        long start = System.currentTimeMillis();
+        // 同一用户在范围内多天出现时只查询一次营养目标
+        Map<Long, UserNutritionGoalResponseDTO> nutritionGoals = new HashMap<>();
+        int rows = 0;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            List<Long> missedUserIds = new ArrayList<>();
+            for (Long userId : projection.findUserIdsByDate(date)) {
+                if (!nutritionGoals.containsKey(userId)) {
+                    missedUserIds.add(userId);
+                }
+            }
+            nutritionGoals.putAll(findNutritionGoals(missedUserIds));
+            rows += projection.compactDay(date, nutritionGoals);
+        }
+        log.info("全平台每日汇总压实完成: startDate={}, endDate={}, rows={}, costMs={}",
+            startDate, endDate, rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * 一次RPC批量查询营养目标，没有营养目标的用户记为null，避免后续日期重复查询
+     *
+     * @throws IllegalStateException 查询失败时抛出，营养目标不完整时不能压实，否则会把达标用户改写为未达标
+     */
+    private Map<Long, UserNutritionGoalResponseDTO> findNutritionGoals(List<Long> userIds) {
+        Map<Long, UserNutritionGoalResponseDTO> nutritionGoals = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return nutritionGoals;
+        }
+        Map<Long, UserNutritionGoalResponseDTO> found;
+        try {
+            found = userNutritionGoalService.getNutritionGoals(userIds);
+        } catch (Exception e) {
+            throw new IllegalStateException("批量获取用户营养目标失败，放弃本次压实: users=" + userIds.size(), e);
+        }
+        if (found == null) {
+            throw new IllegalStateException("批量获取用户营养目标返回空结果，放弃本次压实: users=" + userIds.size());
+        }
+        for (Long userId : userIds) {
+            nutritionGoals.put(userId, found.get(userId));
+        }
+        return nutritionGoals;
+    }
+}
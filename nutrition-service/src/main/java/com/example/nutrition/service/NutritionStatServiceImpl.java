@@ -1,15 +1,13 @@
 package com.example.nutrition.service;
 
-import com.example.diet.command.DietRecordQueryCommand;
 import com.example.nutrition.command.NutritionAdviceCommand;
 import com.example.nutrition.command.NutritionStatCommand;
 import com.example.nutrition.command.NutritionTrendCommand;
-import com.example.diet.dto.DietRecordFoodDTO;
-import com.example.diet.dto.DietRecordResponseDTO;
 import com.example.nutrition.dto.*;
+import com.example.nutrition.entity.PlatformDailyNutrition;
+import com.example.nutrition.entity.UserDailyNutrition;
+import com.example.nutrition.projection.DailyNutritionProjection;
 import com.example.user.dto.UserNutritionGoalResponseDTO;
-import com.example.shared.response.PageResult;
-import com.example.diet.service.DietRecordService;
 import com.example.nutrition.service.NutritionAdviceService;
 import com.example.nutrition.service.NutritionStatService;
 import com.example.user.service.UserNutritionGoalService;
@@ -24,7 +22,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,15 +34,15 @@ import java.util.Map;
 @DubboService
 public class NutritionStatServiceImpl implements NutritionStatService {
 
-    @DubboReference
-    private DietRecordService dietRecordService;
-
     @DubboReference
     private UserNutritionGoalService userNutritionGoalService;
 
     @Autowired
     private NutritionAdviceService nutritionAdviceService;
 
+    @Autowired
+    private DailyNutritionProjection dailyNutritionProjection;
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     @Override
@@ -57,62 +54,10 @@ public class NutritionStatServiceImpl implements NutritionStatService {
         // 查询用户营养目标
         UserNutritionGoalResponseDTO nutritionGoal = userNutritionGoalService.getNutritionGoal(userId);
 
-        // 构建查询命令获取当日饮食记录
-        DietRecordQueryCommand queryCommand = new DietRecordQueryCommand();
-        queryCommand.setUserId(userId);
-        queryCommand.setStartDate(date.format(DATE_FORMATTER));
-        queryCommand.setEndDate(date.format(DATE_FORMATTER));
-        queryCommand.setPage(1);
-        queryCommand.setSize(1000); // 设置足够大的页面大小获取当日所有记录
-
-        PageResult<DietRecordResponseDTO> dietRecordsResult = dietRecordService.getDietRecords(queryCommand);
-
-        // 初始化营养统计数据
-        NutritionStatDTO nutritionStat = new NutritionStatDTO();
-        nutritionStat.setDate(date.format(DATE_FORMATTER));
-        nutritionStat.setCalorie(0);
-        nutritionStat.setProtein(0.0);
-        nutritionStat.setCarbs(0.0);
-        nutritionStat.setFat(0.0);
-
-        // 汇总当日营养数据
-        for (DietRecordResponseDTO dietRecord : dietRecordsResult.getRecords()) {
-            if (dietRecord.getFoods() != null) {
-                for (DietRecordFoodDTO food : dietRecord.getFoods()) {
-                    nutritionStat.setCalorie(nutritionStat.getCalorie() + (food.getCalories() != null ? food.getCalories().intValue() : 0));
-                    nutritionStat.setProtein(nutritionStat.getProtein() + (food.getProtein() != null ? food.getProtein().doubleValue() : 0));
-                    nutritionStat.setCarbs(nutritionStat.getCarbs() + (food.getCarbs() != null ? food.getCarbs().doubleValue() : 0));
-                    nutritionStat.setFat(nutritionStat.getFat() + (food.getFat() != null ? food.getFat().doubleValue() : 0));
-                }
-            }
-        }
-
-        // 计算目标达成百分比
-        if (nutritionGoal.getCalorieTarget() != null && nutritionGoal.getCalorieTarget() > 0) {
-            nutritionStat.setCaloriePercentage(nutritionStat.getCalorie() * 100.0 / nutritionGoal.getCalorieTarget());
-        } else {
-            nutritionStat.setCaloriePercentage(0.0);
-        }
-
-        if (nutritionGoal.getProteinTarget() != null && nutritionGoal.getProteinTarget() > 0) {
-            nutritionStat.setProteinPercentage(nutritionStat.getProtein() * 100.0 / nutritionGoal.getProteinTarget());
-        } else {
-            nutritionStat.setProteinPercentage(0.0);
-        }
-
-        if (nutritionGoal.getCarbsTarget() != null && nutritionGoal.getCarbsTarget() > 0) {
-            nutritionStat.setCarbsPercentage(nutritionStat.getCarbs() * 100.0 / nutritionGoal.getCarbsTarget());
-        } else {
-            nutritionStat.setCarbsPercentage(0.0);
-        }
+        // 从每日营养汇总读取当日摄入（一次主键查询）
+        UserDailyNutrition daily = dailyNutritionProjection.findDay(userId, date);
 
-        if (nutritionGoal.getFatTarget() != null && nutritionGoal.getFatTarget() > 0) {
-            nutritionStat.setFatPercentage(nutritionStat.getFat() * 100.0 / nutritionGoal.getFatTarget());
-        } else {
-            nutritionStat.setFatPercentage(0.0);
-        }
-
-        return nutritionStat;
+        return toNutritionStat(daily, nutritionGoal, date);
     }
 
 
@@ -126,15 +71,8 @@ public class NutritionStatServiceImpl implements NutritionStatService {
 
         log.debug("计算用户营养趋势: userId={}, startDate={}, endDate={}", userId, startDate, endDate);
 
-        // 一次性批量获取整个日期范围的饮食记录
-        Map<Long, Map<String, List<DietRecordResponseDTO>>> batchDietRecords =
-            dietRecordService.getBatchDietRecordsForNutritionStat(Arrays.asList(userId), startDate, endDate);
-
-        // 获取用户的饮食记录
-        Map<String, List<DietRecordResponseDTO>> userRecords = batchDietRecords.get(userId);
-        if (userRecords == null) {
-            userRecords = new HashMap<>();
-        }
+        // 一次范围查询读取整个日期范围的每日汇总
+        Map<LocalDate, UserDailyNutrition> dailyNutritions = dailyNutritionProjection.findRange(userId, startDate, endDate);
 
         // 只查询一次用户营养目标
         UserNutritionGoalResponseDTO nutritionGoal = userNutritionGoalService.getNutritionGoal(userId);
@@ -152,12 +90,10 @@ public class NutritionStatServiceImpl implements NutritionStatService {
             String dateStr = currentDate.format(DATE_FORMATTER);
             dateList.add(dateStr);
 
-            // 获取当日饮食记录
-            List<DietRecordResponseDTO> dayRecords = userRecords.get(dateStr);
+            UserDailyNutrition daily = dailyNutritions.get(currentDate);
 
-            if (dayRecords != null && !dayRecords.isEmpty()) {
-                // 计算当日营养摄入
-                NutritionStatDTO dailyStat = calculateNutritionFromRecordsWithGoal(dayRecords, nutritionGoal, currentDate);
+            if (daily != null) {
+                NutritionStatDTO dailyStat = toNutritionStat(daily, nutritionGoal, currentDate);
                 calorieList.add(dailyStat.getCalorie());
                 proteinList.add(dailyStat.getProtein());
                 carbsList.add(dailyStat.getCarbs());
@@ -265,77 +201,24 @@ public class NutritionStatServiceImpl implements NutritionStatService {
     }
 
     @Override
-    @Cacheable(value = "nutritionStat", key = "'compliance_' + #date")
+    @Cacheable(value = "nutritionStat", key = "'compliance_' + #date", sync = true)
     public double calculateNutritionComplianceRate(LocalDate date) {
-        // 获取所有活跃用户ID列表
-        List<Long> activeUserIds = dietRecordService.findActiveUserIdsByDate(date);
+        // 读取当天的全平台汇总（一次主键查询）
+        PlatformDailyNutrition platformDaily = dailyNutritionProjection.findPlatformDay(date);
 
-        if (activeUserIds.isEmpty()) {
+        if (platformDaily == null || platformDaily.getActiveUsers() == null || platformDaily.getActiveUsers() <= 0) {
             return 0.0; // 如果没有活跃用户，返回0
         }
 
-        // 批量获取所有用户当日的饮食记录（一次RPC调用）
-        Map<Long, Map<String, List<DietRecordResponseDTO>>> batchDietRecords =
-            dietRecordService.getBatchDietRecordsForNutritionStat(activeUserIds, date, date);
-
-        // 预先查询所有用户的营养目标并缓存（避免重复查询）
-        Map<Long, UserNutritionGoalResponseDTO> userNutritionGoals = new HashMap<>();
-        for (Long userId : activeUserIds) {
-            try {
-                UserNutritionGoalResponseDTO nutritionGoal = userNutritionGoalService.getNutritionGoal(userId);
-                if (nutritionGoal != null) {
-                    userNutritionGoals.put(userId, nutritionGoal);
-                }
-            } catch (Exception e) {
-                log.warn("获取用户营养目标失败: userId={}", userId, e);
-            }
-        }
-
-        int compliantUsers = 0;
-        String dateStr = date.format(DATE_FORMATTER);
-
-        // 遍历所有活跃用户，检查他们的营养达标情况
-        for (Long userId : activeUserIds) {
-            try {
-                // 从批量查询结果中获取用户当日的饮食记录
-                Map<String, List<DietRecordResponseDTO>> userRecords = batchDietRecords.get(userId);
-                if (userRecords != null) {
-                    List<DietRecordResponseDTO> dayRecords = userRecords.get(dateStr);
-                    if (dayRecords != null && !dayRecords.isEmpty()) {
-                        // 使用缓存的营养目标计算当日营养摄入
-                        UserNutritionGoalResponseDTO nutritionGoal = userNutritionGoals.get(userId);
-                        if (nutritionGoal != null) {
-                            NutritionStatDTO nutritionStat = calculateNutritionFromRecordsWithGoal(dayRecords, nutritionGoal, date);
-
-                            // 检查是否达标（这里简化为热量、蛋白质、碳水和脂肪都达到目标的80%以上）
-                            boolean isCompliant =
-                                nutritionStat.getCaloriePercentage() >= 80 &&
-                                nutritionStat.getProteinPercentage() >= 80 &&
-                                nutritionStat.getCarbsPercentage() >= 80 &&
-                                nutritionStat.getFatPercentage() >= 80;
-
-                            if (isCompliant) {
-                                compliantUsers++;
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // 忽略单个用户的错误，继续处理其他用户
-                log.error("计算用户营养达标率失败: userId={}, date={}", userId, date, e);
-            }
-        }
-
         // 计算达标率
-        double complianceRate = (double) compliantUsers / activeUserIds.size() * 100;
-
-        return complianceRate;
+        int compliantUsers = platformDaily.getCompliantUsers() != null ? platformDaily.getCompliantUsers() : 0;
+        return (double) compliantUsers / platformDaily.getActiveUsers() * 100;
     }
 
 
 
     @Override
-    @Cacheable(value = "nutritionStat", key = "'allTrend_' + #period")
+    @Cacheable(value = "nutritionStat", key = "'allTrend_' + #period", sync = true)
     public Map<String, Object> getAllNutritionTrend(String period) {
         // 处理日期参数
         LocalDate today = LocalDate.now();
@@ -357,10 +240,12 @@ public class NutritionStatServiceImpl implements NutritionStatService {
                 startDate = today.minus(29, ChronoUnit.DAYS); // 默认一个月
         }
 
-        // 获取所有活跃用户ID列表
-        List<Long> activeUserIds = dietRecordService.findActiveUserIdsByDateRange(startDate, endDate);
+        // 一次范围查询读取每日的全平台汇总，行数与天数相同
+        Map<LocalDate, PlatformDailyNutrition> platformDailies = dailyNutritionProjection.findPlatformRange(startDate, endDate);
 
-        if (activeUserIds.isEmpty()) {
+        boolean hasActiveUsers = platformDailies.values().stream()
+            .anyMatch(daily -> daily.getActiveUsers() != null && daily.getActiveUsers() > 0);
+        if (!hasActiveUsers) {
             // 如果没有活跃用户，返回空数据
             Map<String, Object> emptyResult = new HashMap<>();
             emptyResult.put("dateList", new ArrayList<String>());
@@ -371,23 +256,6 @@ public class NutritionStatServiceImpl implements NutritionStatService {
             return emptyResult;
         }
 
-        // 批量获取所有用户在指定日期范围内的饮食记录（一次RPC调用）
-        Map<Long, Map<String, List<DietRecordResponseDTO>>> batchDietRecords =
-            dietRecordService.getBatchDietRecordsForNutritionStat(activeUserIds, startDate, endDate);
-
-        // 预先查询所有用户的营养目标并缓存（避免重复查询）
-        Map<Long, UserNutritionGoalResponseDTO> userNutritionGoals = new HashMap<>();
-        for (Long userId : activeUserIds) {
-            try {
-                UserNutritionGoalResponseDTO nutritionGoal = userNutritionGoalService.getNutritionGoal(userId);
-                if (nutritionGoal != null) {
-                    userNutritionGoals.put(userId, nutritionGoal);
-                }
-            } catch (Exception e) {
-                log.warn("获取用户营养目标失败: userId={}", userId, e);
-            }
-        }
-
         // 准备结果数据结构
         List<String> dateList = new ArrayList<>();
         List<Double> calorieList = new ArrayList<>();
@@ -400,48 +268,15 @@ public class NutritionStatServiceImpl implements NutritionStatService {
         while (!currentDate.isAfter(endDate)) {
             // 添加日期
             dateList.add(currentDate.format(DATE_FORMATTER));
-            String dateStr = currentDate.format(DATE_FORMATTER);
 
-            // 计算当日所有用户的平均营养摄入
-            double totalCalorie = 0;
-            double totalProtein = 0;
-            double totalCarbs = 0;
-            double totalFat = 0;
-            int userCount = 0;
-
-            for (Long userId : activeUserIds) {
-                try {
-                    // 从批量查询结果中获取用户当日的饮食记录
-                    Map<String, List<DietRecordResponseDTO>> userRecords = batchDietRecords.get(userId);
-                    if (userRecords != null) {
-                        List<DietRecordResponseDTO> dayRecords = userRecords.get(dateStr);
-                        if (dayRecords != null && !dayRecords.isEmpty()) {
-                            // 使用缓存的营养目标计算当日营养摄入
-                            UserNutritionGoalResponseDTO nutritionGoal = userNutritionGoals.get(userId);
-                            if (nutritionGoal != null) {
-                                NutritionStatDTO nutritionStat = calculateNutritionFromRecordsWithGoal(dayRecords, nutritionGoal, currentDate);
-
-                                // 累加营养数据
-                                totalCalorie += nutritionStat.getCalorie();
-                                totalProtein += nutritionStat.getProtein();
-                                totalCarbs += nutritionStat.getCarbs();
-                                totalFat += nutritionStat.getFat();
-                                userCount++;
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    // 忽略单个用户的错误，继续处理其他用户
-                    log.error("计算用户营养数据失败: userId={}, date={}", userId, currentDate, e);
-                }
-            }
-
-            // 计算平均值
+            // 计算当日所有活跃用户的平均营养摄入
+            PlatformDailyNutrition daily = platformDailies.get(currentDate);
+            int userCount = daily != null && daily.getActiveUsers() != null ? daily.getActiveUsers() : 0;
             if (userCount > 0) {
-                calorieList.add(totalCalorie / userCount);
-                proteinList.add(totalProtein / userCount);
-                carbsList.add(totalCarbs / userCount);
-                fatList.add(totalFat / userCount);
+                calorieList.add(daily.getCalories().doubleValue() / userCount);
+                proteinList.add(daily.getProtein().doubleValue() / userCount);
+                carbsList.add(daily.getCarbs().doubleValue() / userCount);
+                fatList.add(daily.getFat().doubleValue() / userCount);
             } else {
                 // 如果当天没有数据，添加0
                 calorieList.add(0.0);
@@ -465,43 +300,31 @@ public class NutritionStatServiceImpl implements NutritionStatService {
         return result;
     }
 
-
-
-
-
     /**
-     * 根据饮食记录列表和营养目标计算营养统计数据
-     * 用于已经获取营养目标的场景，避免重复查询
+     * 根据每日营养汇总和营养目标构建营养统计数据
      *
-     * @param dayRecords 当日饮食记录列表
+     * @param daily 每日营养汇总，当天没有饮食记录时为null
      * @param nutritionGoal 用户营养目标
      * @param date 日期
      * @return 营养统计数据
      */
-    private NutritionStatDTO calculateNutritionFromRecordsWithGoal(List<DietRecordResponseDTO> dayRecords,
-                                                                  UserNutritionGoalResponseDTO nutritionGoal,
-                                                                  LocalDate date) {
-        // 初始化营养统计数据
+    private NutritionStatDTO toNutritionStat(UserDailyNutrition daily, UserNutritionGoalResponseDTO nutritionGoal,
+                                             LocalDate date) {
         NutritionStatDTO nutritionStat = new NutritionStatDTO();
         nutritionStat.setDate(date.format(DATE_FORMATTER));
-        nutritionStat.setCalorie(0);
-        nutritionStat.setProtein(0.0);
-        nutritionStat.setCarbs(0.0);
-        nutritionStat.setFat(0.0);
-
-        // 汇总当日营养数据
-        for (DietRecordResponseDTO dietRecord : dayRecords) {
-            if (dietRecord.getFoods() != null) {
-                for (DietRecordFoodDTO food : dietRecord.getFoods()) {
-                    nutritionStat.setCalorie(nutritionStat.getCalorie() + (food.getCalories() != null ? food.getCalories().intValue() : 0));
-                    nutritionStat.setProtein(nutritionStat.getProtein() + (food.getProtein() != null ? food.getProtein().doubleValue() : 0));
-                    nutritionStat.setCarbs(nutritionStat.getCarbs() + (food.getCarbs() != null ? food.getCarbs().doubleValue() : 0));
-                    nutritionStat.setFat(nutritionStat.getFat() + (food.getFat() != null ? food.getFat().doubleValue() : 0));
-                }
-            }
-        }
+        nutritionStat.setCalorie(daily != null && daily.getCalories() != null ? daily.getCalories().intValue() : 0);
+        nutritionStat.setProtein(daily != null && daily.getProtein() != null ? daily.getProtein().doubleValue() : 0.0);
+        nutritionStat.setCarbs(daily != null && daily.getCarbs() != null ? daily.getCarbs().doubleValue() : 0.0);
+        nutritionStat.setFat(daily != null && daily.getFat() != null ? daily.getFat().doubleValue() : 0.0);
 
-        // 计算目标达成百分比
+        applyGoalPercentages(nutritionStat, nutritionGoal);
+        return nutritionStat;
+    }
+
+    /**
+     * 计算目标达成百分比
+     */
+    private void applyGoalPercentages(NutritionStatDTO nutritionStat, UserNutritionGoalResponseDTO nutritionGoal) {
         if (nutritionGoal.getCalorieTarget() != null && nutritionGoal.getCalorieTarget() > 0) {
             nutritionStat.setCaloriePercentage(nutritionStat.getCalorie() * 100.0 / nutritionGoal.getCalorieTarget());
         } else {
@@ -525,8 +348,6 @@ public class NutritionStatServiceImpl implements NutritionStatService {
         } else {
             nutritionStat.setFatPercentage(0.0);
         }
-
-        return nutritionStat;
     }
 
     /**
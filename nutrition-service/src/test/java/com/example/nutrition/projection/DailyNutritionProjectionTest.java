@@ -0,0 +1,236 @@
+package com.example.nutrition.projection;
+
+import com.example.nutrition.entity.PlatformDailyNutrition;
+import com.example.nutrition.entity.UserDailyNutrition;
+import com.example.nutrition.entity.UserDailyNutritionRecord;
+import com.example.nutrition.mapper.PlatformDailyNutritionMapper;
+import com.example.nutrition.mapper.UserDailyNutritionMapper;
+import com.example.nutrition.mapper.UserDailyNutritionRecordMapper;
+import com.example.nutrition.mapper.UserDailyNutritionTombstoneMapper;
+import com.example.user.dto.UserNutritionGoalResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 每日营养汇总投影测试
+ * 各Mapper用内存中的表模拟：明细表、墓碑表、用户每日汇总表，全平台汇总只累加收到的差值
+ */
+public class DailyNutritionProjectionTest {
+
+    private static final Long USER_ID = 7L;
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    private final Map<Long, UserDailyNutritionRecord> records = new HashMap<>();
+    private final Set<Long> tombstones = new HashSet<>();
+    private final Map<String, UserDailyNutrition> days = new HashMap<>();
+    private final PlatformDailyNutrition platform = zeroPlatform();
+
+    private PlatformDailyNutritionMapper platformMapper;
+    private DailyNutritionProjection projection;
+
+    @BeforeEach
+    public void setUp() {
+        UserDailyNutritionMapper dailyNutritionMapper = mock(UserDailyNutritionMapper.class);
+        doAnswer(invocation -> days.putIfAbsent(dayKey(invocation.getArgument(0), invocation.getArgument(1)),
+                zeroDay(invocation.getArgument(0), invocation.getArgument(1))) == null ? 1 : 0)
+                .when(dailyNutritionMapper).ensureDay(anyLong(), any());
+        doAnswer(invocation -> copyOf(days.get(dayKey(invocation.getArgument(0), invocation.getArgument(1)))))
+                .when(dailyNutritionMapper).findByUserAndDateForUpdate(anyLong(), any());
+        doAnswer(invocation -> copyOf(days.get(dayKey(invocation.getArgument(0), invocation.getArgument(1)))))
+                .when(dailyNutritionMapper).findByUserAndDate(anyLong(), any());
+        doAnswer(invocation -> refreshDay(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(dailyNutritionMapper).refreshDay(anyLong(), any());
+        doAnswer(invocation -> {
+            days.get(dayKey(invocation.getArgument(0), invocation.getArgument(1)))
+                    .setCompliant(invocation.getArgument(2));
+            return 1;
+        }).when(dailyNutritionMapper).updateCompliant(anyLong(), any(), anyBoolean());
+
+        UserDailyNutritionRecordMapper recordMapper = mock(UserDailyNutritionRecordMapper.class);
+        doAnswer(invocation -> {
+            UserDailyNutritionRecord record = invocation.getArgument(0);
+            return records.putIfAbsent(record.getRecordId(), record) == null ? 1 : 0;
+        }).when(recordMapper).insertIgnore(any());
+        doAnswer(invocation -> records.remove(invocation.<Long>getArgument(0)) != null ? 1 : 0)
+                .when(recordMapper).deleteById((Serializable) any());
+
+        UserDailyNutritionTombstoneMapper tombstoneMapper = mock(UserDailyNutritionTombstoneMapper.class);
+        doAnswer(invocation -> tombstones.add(invocation.getArgument(0)) ? 1 : 0)
+                .when(tombstoneMapper).insertIgnore(anyLong(), anyLong(), any());
+        doAnswer(invocation -> tombstones.contains(invocation.<Long>getArgument(0)) ? 1 : 0)
+                .when(tombstoneMapper).countByRecordId(anyLong());
+
+        platformMapper = mock(PlatformDailyNutritionMapper.class);
+        doAnswer(invocation -> {
+            PlatformDailyNutrition delta = invocation.getArgument(0);
+            platform.setCalories(platform.getCalories().add(delta.getCalories()));
+            platform.setProtein(platform.getProtein().add(delta.getProtein()));
+            platform.setCarbs(platform.getCarbs().add(delta.getCarbs()));
+            platform.setFat(platform.getFat().add(delta.getFat()));
+            platform.setActiveUsers(platform.getActiveUsers() + delta.getActiveUsers());
+            platform.setCompliantUsers(platform.getCompliantUsers() + delta.getCompliantUsers());
+            return 1;
+        }).when(platformMapper).applyDelta(any());
+
+        projection = new DailyNutritionProjection();
+        ReflectionTestUtils.setField(projection, "dailyNutritionMapper", dailyNutritionMapper);
+        ReflectionTestUtils.setField(projection, "recordMapper", recordMapper);
+        ReflectionTestUtils.setField(projection, "platformMapper", platformMapper);
+        ReflectionTestUtils.setField(projection, "tombstoneMapper", tombstoneMapper);
+    }
+
+    @Test
+    public void testDuplicateAdd_CountedOnce() {
+        assertTrue(projection.applyRecordAdded(record(1L, "500"), null));
+        assertFalse(projection.applyRecordAdded(record(1L, "500"), null));
+
+        UserDailyNutrition day = days.get(dayKey(USER_ID, DATE));
+        assertEquals(0, new BigDecimal("500").compareTo(day.getCalories()));
+        assertEquals(1, day.getRecordCount());
+        assertEquals(0, new BigDecimal("500").compareTo(platform.getCalories()));
+        assertEquals(1, platform.getActiveUsers());
+        verify(platformMapper, times(1)).applyDelta(any());
+    }
+
+    @Test
+    public void testDeleteBeforeAdd_LateAddIgnored() {
+        // 删除事件先到达：记录尚未计入，只留下墓碑
+        assertFalse(projection.applyRecordDeleted(USER_ID, 1L, DATE, null));
+        assertFalse(projection.applyRecordAdded(record(1L, "500"), null));
+
+        assertFalse(records.containsKey(1L));
+        assertEquals(0, days.get(dayKey(USER_ID, DATE)).getRecordCount());
+        verify(platformMapper, never()).applyDelta(any());
+
+        // 正常顺序删除后，重复投递的添加同样被忽略
+        assertTrue(projection.applyRecordAdded(record(2L, "300"), null));
+        assertTrue(projection.applyRecordDeleted(USER_ID, 2L, DATE, null));
+        assertFalse(projection.applyRecordAdded(record(2L, "300"), null));
+        assertEquals(0, BigDecimal.ZERO.compareTo(platform.getCalories()));
+        assertEquals(0, platform.getActiveUsers());
+    }
+
+    @Test
+    public void testDeleteUnknownRecord_WritesTombstoneWithoutDelta() {
+        assertFalse(projection.applyRecordDeleted(USER_ID, 99L, DATE, null));
+
+        assertTrue(tombstones.contains(99L));
+        verify(platformMapper, never()).applyDelta(any());
+        assertEquals(0, platform.getActiveUsers());
+    }
+
+    @Test
+    public void testRecordCountCrossingZero_MovesActiveAndCompliantUsers() {
+        UserNutritionGoalResponseDTO goal = new UserNutritionGoalResponseDTO();
+        goal.setCalorieTarget(100);
+        goal.setProteinTarget(1);
+        goal.setCarbsTarget(1);
+        goal.setFatTarget(1);
+
+        // 0 -> 1 条记录：活跃 +1，达标 +1
+        projection.applyRecordAdded(record(1L, "500"), goal);
+        assertEquals(1, platform.getActiveUsers());
+        assertEquals(1, platform.getCompliantUsers());
+
+        // 1 -> 2 条记录：标记不变
+        projection.applyRecordAdded(record(2L, "200"), goal);
+        assertEquals(1, platform.getActiveUsers());
+        assertEquals(1, platform.getCompliantUsers());
+        assertEquals(0, new BigDecimal("700").compareTo(platform.getCalories()));
+
+        // 2 -> 1 -> 0 条记录：最后一条删除时活跃 -1，达标 -1
+        projection.applyRecordDeleted(USER_ID, 1L, DATE, goal);
+        assertEquals(1, platform.getActiveUsers());
+        projection.applyRecordDeleted(USER_ID, 2L, DATE, goal);
+        assertEquals(0, platform.getActiveUsers());
+        assertEquals(0, platform.getCompliantUsers());
+        assertEquals(0, BigDecimal.ZERO.compareTo(platform.getCalories()));
+    }
+
+    private int refreshDay(Long userId, LocalDate date) {
+        UserDailyNutrition day = days.get(dayKey(userId, date));
+        UserDailyNutrition sums = zeroDay(userId, date);
+        for (UserDailyNutritionRecord record : records.values()) {
+            if (record.getUserId().equals(userId) && record.getDate().equals(date)) {
+                sums.setCalories(sums.getCalories().add(record.getCalories()));
+                sums.setProtein(sums.getProtein().add(record.getProtein()));
+                sums.setCarbs(sums.getCarbs().add(record.getCarbs()));
+                sums.setFat(sums.getFat().add(record.getFat()));
+                sums.setRecordCount(sums.getRecordCount() + 1);
+            }
+        }
+        sums.setCompliant(day.getCompliant());
+        days.put(dayKey(userId, date), sums);
+        return 1;
+    }
+
+    private static UserDailyNutritionRecord record(Long recordId, String calories) {
+        UserDailyNutritionRecord record = new UserDailyNutritionRecord();
+        record.setRecordId(recordId);
+        record.setUserId(USER_ID);
+        record.setDate(DATE);
+        record.setCalories(new BigDecimal(calories));
+        record.setProtein(new BigDecimal("20"));
+        record.setCarbs(new BigDecimal("50"));
+        record.setFat(new BigDecimal("10"));
+        return record;
+    }
+
+    private static UserDailyNutrition zeroDay(Long userId, LocalDate date) {
+        UserDailyNutrition day = new UserDailyNutrition();
+        day.setUserId(userId);
+        day.setDate(date);
+        day.setCalories(BigDecimal.ZERO);
+        day.setProtein(BigDecimal.ZERO);
+        day.setCarbs(BigDecimal.ZERO);
+        day.setFat(BigDecimal.ZERO);
+        day.setRecordCount(0);
+        day.setCompliant(false);
+        return day;
+    }
+
+    private static PlatformDailyNutrition zeroPlatform() {
+        PlatformDailyNutrition platform = new PlatformDailyNutrition();
+        platform.setDate(DATE);
+        platform.setCalories(BigDecimal.ZERO);
+        platform.setProtein(BigDecimal.ZERO);
+        platform.setCarbs(BigDecimal.ZERO);
+        platform.setFat(BigDecimal.ZERO);
+        platform.setActiveUsers(0);
+        platform.setCompliantUsers(0);
+        return platform;
+    }
+
+    private static UserDailyNutrition copyOf(UserDailyNutrition day) {
+        if (day == null) {
+            return null;
+        }
+        UserDailyNutrition copy = new UserDailyNutrition();
+        BeanUtils.copyProperties(day, copy);
+        return copy;
+    }
+
+    private static String dayKey(Long userId, LocalDate date) {
+        return userId + "_" + date;
+    }
+}
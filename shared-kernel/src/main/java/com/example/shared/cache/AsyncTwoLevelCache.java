@@ -1,18 +1,47 @@
 package com.example.shared.cache;
 
+import com.example.shared.cache.invalidation.CacheInvalidationBus;
+import com.example.shared.cache.lease.CacheLoadLease;
+import com.example.shared.cache.metrics.CacheMetrics;
+import com.example.shared.cache.namespace.CacheNamespaces;
+import com.example.shared.cache.redis.MultiKeyRedisCache;
+import com.example.shared.cache.writebehind.RemoteWriteBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 支持二级缓存 + 异步回写的 Spring Cache 实现
  * 读操作：先本地缓存，再远程缓存，回填本地
- * 写操作：立刻更新本地缓存，异步更新远程缓存
+ * 写操作：立刻更新本地缓存，异步（或按配置同步）更新远程缓存
+ * 跨节点：远程写入完成后通过失效总线广播，其他节点丢弃各自的本地缓存条目
+ * 加载：同一JVM内同一key的并发未命中只执行一次加载，可选通过租约实现跨节点只加载一次
+ * 软过期：配置 refreshAfter 后，超过软过期时间的条目仍立即返回，同时在后台线程池中重新加载一次
+ * 容错：远程缓存读取失败时按未命中处理，本地已有的（即使已过软过期）条目照常返回
+ * 批量：getAll / putAll / evictAll 对远程缓存只做一次往返（远程缓存支持 MultiKeyCache 时）
+ * 写缓冲：配置 RemoteWriteBuffer 后，异步模式下的写入/清除先进入按key合并的缓冲区，再批量刷出到远程缓存
+ * 指标：各层命中/未命中、远程读取耗时、回填次数、加载耗时通过 CacheMetrics 记录
+ * 负缓存：配置 negativeTtl 后，null结果以 NegativeCacheEntry 占位缓存较短时间；未配置时null结果不缓存
+ * 不缓存的key：命名空间版本号未知时生成的key（{@link CacheNamespaces#isUncacheable}）读取按未命中处理、写入直接忽略
  */
-public class AsyncTwoLevelCache implements Cache {
+public class AsyncTwoLevelCache implements Cache, MultiKeyCache {
     
     private static final Logger logger = LoggerFactory.getLogger(AsyncTwoLevelCache.class);
     
@@ -20,12 +49,50 @@ public class AsyncTwoLevelCache implements Cache {
     private final Cache localCache;
     private final Cache remoteCache;
     private final Executor executor;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheLoadLease loadLease;
+    private final Duration leaseWaitTime;
+    private final Duration refreshAfter;
+    private final boolean syncWrite;
+    private final RemoteWriteBuffer writeBuffer;
+    private final CacheMetrics metrics;
+    private final Duration negativeTtl;
     
-    public AsyncTwoLevelCache(String name, Cache localCache, Cache remoteCache, Executor executor) {
-        this.name = name;
-        this.localCache = localCache;
-        this.remoteCache = remoteCache;
-        this.executor = executor;
+    /**
+     * 正在进行中的加载，同一key的并发调用方共享同一个future
+     */
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    
+    /**
+     * 正在后台刷新的key，保证同一key同一时刻只有一个刷新任务
+     */
+    private final Set<Object> refreshingKeys = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * 等待其他节点回填远程缓存时的轮询间隔
+     */
+    private static final long LEASE_POLL_INTERVAL_MILLIS = 50;
+    
+    private AsyncTwoLevelCache(Builder builder) {
+        this.name = builder.name;
+        this.localCache = builder.localCache;
+        this.remoteCache = builder.remoteCache;
+        this.executor = builder.executor;
+        this.invalidationBus = builder.invalidationBus;
+        this.loadLease = builder.loadLease;
+        this.leaseWaitTime = builder.leaseWaitTime;
+        this.refreshAfter = builder.refreshAfter;
+        this.syncWrite = builder.syncWrite;
+        this.writeBuffer = builder.syncWrite ? null : builder.writeBuffer;
+        this.metrics = builder.metrics;
+        this.negativeTtl = builder.negativeTtl;
+    }
+    
+    /**
+     * @param executor 异步写远程和后台刷新使用的线程池
+     */
+    public static Builder builder(String name, Cache localCache, Cache remoteCache, Executor executor) {
+        return new Builder(name, localCache, remoteCache, executor);
     }
     
     @Override
@@ -43,19 +110,66 @@ public class AsyncTwoLevelCache implements Cache {
      */
     @Override
     public ValueWrapper get(Object key) {
+        if (CacheNamespaces.isUncacheable(key)) {
+            return null;
+        }
+        ValueWrapper stored = lookup(key);
+        if (stored == null) {
+            return null;
+        }
+        Object value = stored.get();
+        return value instanceof TimestampedValue || value instanceof NegativeCacheEntry
+                ? new SimpleValueWrapper(unwrap(value)) : stored;
+    }
+    
+    /**
+     * 按层级查找，返回实际存储的值（可能是 TimestampedValue）
+     * 远程缓存不可用时记录告警并按未命中处理，不把异常抛给业务请求
+     */
+    private ValueWrapper lookup(Object key) {
         // 先尝试本地缓存
         ValueWrapper localValue = localCache.get(key);
+        if (localValue != null && isExpiredNegative(localValue.get())) {
+            localCache.evict(key);
+            localValue = null;
+        }
+        metrics.localLookup(localValue != null);
         if (localValue != null) {
             logger.debug("本地缓存命中: cache={}, key={}", name, key);
             return localValue;
         }
         
+        // 尚未刷出的写操作比远程缓存中的值更新
+        if (writeBuffer != null) {
+            RemoteWriteBuffer.PendingWrite pendingWrite = writeBuffer.pendingWrite(key);
+            if (pendingWrite != null) {
+                if (pendingWrite.isEvict()) {
+                    return null;
+                }
+                localCache.put(key, pendingWrite.getValue());
+                return new SimpleValueWrapper(pendingWrite.getValue());
+            }
+        }
+        
         // 本地缓存未命中，尝试远程缓存
-        ValueWrapper remoteValue = remoteCache.get(key);
+        ValueWrapper remoteValue;
+        long start = System.nanoTime();
+        try {
+            remoteValue = remoteCache.get(key);
+        } catch (RuntimeException e) {
+            metrics.remoteError();
+            logger.warn("远程缓存读取失败，按未命中处理: cache={}, key={}, error={}", name, key, e.getMessage());
+            return null;
+        }
+        if (remoteValue != null && isExpiredNegative(remoteValue.get())) {
+            remoteValue = null;
+        }
+        metrics.remoteLookup(remoteValue != null ? 1 : 0, remoteValue != null ? 0 : 1, System.nanoTime() - start);
         if (remoteValue != null) {
             logger.debug("远程缓存命中，回填本地缓存: cache={}, key={}", name, key);
             // 回填本地缓存
             localCache.put(key, remoteValue.get());
+            metrics.backfill(1);
             return remoteValue;
         }
         
@@ -75,21 +189,188 @@ public class AsyncTwoLevelCache implements Cache {
         return null;
     }
     
+    /**
+     * 读取缓存，未命中时加载
+     * 同一key的并发未命中只有一个线程执行valueLoader，其他线程等待同一结果（需配合 @Cacheable(sync = true)）
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T get(Object key, Callable<T> valueLoader) {
-        ValueWrapper wrapper = get(key);
-        if (wrapper != null) {
-            return (T) wrapper.get();
+        if (CacheNamespaces.isUncacheable(key)) {
+            try {
+                return valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+        ValueWrapper stored = lookup(key);
+        if (stored != null) {
+            Object value = stored.get();
+            if (isStale(value)) {
+                scheduleRefresh(key, valueLoader);
+            }
+            return (T) unwrap(value);
+        }
+        
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlightLoads.putIfAbsent(key, loading);
+        if (existing != null) {
+            logger.debug("等待进行中的缓存加载: cache={}, key={}", name, key);
+            return (T) awaitLoad(key, existing, valueLoader);
         }
         
         try {
-            T value = valueLoader.call();
-            if (value != null) {
-                put(key, value);
-            }
-            return value;
+            // 再次检查本地缓存，前一个加载者可能刚刚完成并移除了future
+            ValueWrapper loaded = localCache.get(key);
+            Object value = loaded != null && !isExpiredNegative(loaded.get())
+                    ? unwrap(loaded.get()) : loadValue(key, valueLoader);
+            loading.complete(value);
+            return (T) value;
         } catch (Exception e) {
+            loading.completeExceptionally(e);
             throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlightLoads.remove(key, loading);
+        }
+    }
+    
+    private Object awaitLoad(Object key, CompletableFuture<Object> loading, Callable<?> valueLoader) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause() != null ? e.getCause() : e);
+        }
+    }
+    
+    /**
+     * 执行加载；启用跨节点租约时，未拿到租约的节点先等待持有者回填远程缓存
+     */
+    private Object loadValue(Object key, Callable<?> valueLoader) throws Exception {
+        if (loadLease == null) {
+            return loadAndPut(key, valueLoader);
+        }
+        
+        String token = loadLease.tryAcquire(name, key);
+        if (token != null) {
+            try {
+                // 持有租约时同步写远程，释放租约前等待者必须能从远程读到结果
+                return loadAndPut(key, valueLoader, true);
+            } finally {
+                loadLease.release(name, key, token);
+            }
+        }
+        
+        logger.debug("其他节点正在加载，等待远程缓存回填: cache={}, key={}", name, key);
+        long deadline = System.nanoTime() + leaseWaitTime.toNanos();
+        while (System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(LEASE_POLL_INTERVAL_MILLIS);
+            ValueWrapper remoteValue;
+            try {
+                remoteValue = remoteCache.get(key);
+            } catch (RuntimeException e) {
+                // 远程缓存不可用时不再等待回填，直接本地加载
+                logger.warn("等待回填时读取远程缓存失败，本地加载: cache={}, key={}, error={}", name, key, e.getMessage());
+                break;
+            }
+            if (remoteValue != null && !isExpiredNegative(remoteValue.get())) {
+                localCache.put(key, remoteValue.get());
+                return unwrap(remoteValue.get());
+            }
+        }
+        
+        logger.debug("等待远程缓存回填超时，本地加载: cache={}, key={}", name, key);
+        return loadAndPut(key, valueLoader);
+    }
+    
+    private Object loadAndPut(Object key, Callable<?> valueLoader) throws Exception {
+        return loadAndPut(key, valueLoader, false);
+    }
+    
+    /**
+     * @param writeThrough 为true时在当前线程写入远程缓存后再返回，不经过写缓冲和异步线程池
+     */
+    private Object loadAndPut(Object key, Callable<?> valueLoader, boolean writeThrough) throws Exception {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            metrics.load(System.nanoTime() - start, false);
+            throw e;
+        }
+        metrics.load(System.nanoTime() - start, true);
+        if (value != null || negativeTtl != null) {
+            if (writeThrough) {
+                putThrough(key, value);
+            } else {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * 条目是否已超过软过期时间
+     */
+    private boolean isStale(Object stored) {
+        return refreshAfter != null && stored instanceof TimestampedValue
+                && System.currentTimeMillis() - ((TimestampedValue) stored).getWrittenAt() > refreshAfter.toMillis();
+    }
+    
+    private Object unwrap(Object stored) {
+        if (stored instanceof NegativeCacheEntry) {
+            return null;
+        }
+        return stored instanceof TimestampedValue ? ((TimestampedValue) stored).getValue() : stored;
+    }
+    
+    private boolean isExpiredNegative(Object stored) {
+        return stored instanceof NegativeCacheEntry && ((NegativeCacheEntry) stored).isExpired();
+    }
+    
+    /**
+     * 转换为实际存储的值：null结果转为负缓存占位（未启用负缓存时返回null），启用软过期时记录写入时间
+     */
+    private Object toStored(Object value, long now) {
+        if (value == null) {
+            return negativeTtl != null ? new NegativeCacheEntry(now + negativeTtl.toMillis()) : null;
+        }
+        return refreshAfter != null ? new TimestampedValue(value, now) : value;
+    }
+    
+    /**
+     * 在异步线程池中重新加载一次过期条目，刷新失败时保留旧值继续提供服务
+     * 启用跨节点租约时，拿不到租约说明其他节点正在刷新，直接跳过
+     */
+    private void scheduleRefresh(Object key, Callable<?> valueLoader) {
+        if (!refreshingKeys.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                String token = null;
+                try {
+                    if (loadLease != null) {
+                        token = loadLease.tryAcquire(name, key);
+                        if (token == null) {
+                            logger.debug("其他节点正在刷新，跳过: cache={}, key={}", name, key);
+                            return;
+                        }
+                    }
+                    loadAndPut(key, valueLoader, token != null);
+                    logger.debug("缓存后台刷新完成: cache={}, key={}", name, key);
+                } catch (Exception e) {
+                    logger.warn("缓存后台刷新失败，继续使用旧值: cache={}, key={}, error={}", name, key, e.getMessage());
+                } finally {
+                    if (token != null) {
+                        loadLease.release(name, key, token);
+                    }
+                    refreshingKeys.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshingKeys.remove(key);
+            logger.warn("缓存刷新任务被拒绝，继续使用旧值: cache={}, key={}", name, key);
         }
     }
     
@@ -98,37 +379,73 @@ public class AsyncTwoLevelCache implements Cache {
      */
     @Override
     public void put(Object key, Object value) {
+        if (CacheNamespaces.isUncacheable(key)) {
+            return;
+        }
+        Object stored = toStored(value, System.currentTimeMillis());
+        if (stored == null) {
+            // 未启用负缓存：null结果不缓存，同时清除可能存在的旧值
+            evict(key);
+            return;
+        }
+        
         // 立即更新本地缓存
-        localCache.put(key, value);
+        localCache.put(key, stored);
         logger.debug("本地缓存已更新: cache={}, key={}", name, key);
         
+        if (writeBuffer != null) {
+            writeBuffer.put(key, stored);
+            return;
+        }
+        
         // 异步更新远程缓存
-        executor.execute(() -> {
-            try {
-                remoteCache.put(key, value);
-                logger.debug("远程缓存异步更新完成: cache={}, key={}", name, key);
-            } catch (Exception e) {
-                logger.error("远程缓存异步更新失败: cache={}, key={}", name, key, e);
+        writeRemote(() -> putRemote(key, stored));
+    }
+    
+    /**
+     * 写入本地后在当前线程写入远程缓存，用于持有加载租约的场景
+     * 启用写缓冲时在刷出锁内写入，缓冲中该key更早的写操作仍按原顺序在之后刷出
+     */
+    private void putThrough(Object key, Object value) {
+        if (CacheNamespaces.isUncacheable(key)) {
+            return;
+        }
+        Object stored = toStored(value, System.currentTimeMillis());
+        if (stored == null) {
+            evict(key);
+            return;
+        }
+        
+        localCache.put(key, stored);
+        if (writeBuffer != null) {
+            writeBuffer.runExclusive(() -> putRemote(key, stored));
+        } else {
+            putRemote(key, stored);
+        }
+    }
+    
+    private void putRemote(Object key, Object stored) {
+        try {
+            remoteCache.put(key, stored);
+            logger.debug("远程缓存更新完成: cache={}, key={}", name, key);
+        } catch (Exception e) {
+            logger.error("远程缓存更新失败: cache={}, key={}", name, key, e);
+        } finally {
+            // 远程写入完成后再广播，避免其他节点从Redis读回旧值并回填本地
+            if (invalidationBus != null) {
+                invalidationBus.publishPut(name, key);
             }
-        });
+        }
     }
     
     @Override
     public ValueWrapper putIfAbsent(Object key, Object value) {
-        // 先检查本地缓存
-        ValueWrapper existing = localCache.get(key);
+        // 依次检查本地和远程缓存（远程命中会回填本地）
+        ValueWrapper existing = get(key);
         if (existing != null) {
             return existing;
         }
         
-        // 检查远程缓存
-        existing = remoteCache.get(key);
-        if (existing != null) {
-            // 回填本地缓存
-            localCache.put(key, existing.get());
-            return existing;
-        }
-        
         // 都不存在，执行put操作
         put(key, value);
         return null;
@@ -143,13 +460,22 @@ public class AsyncTwoLevelCache implements Cache {
         localCache.evict(key);
         logger.debug("本地缓存已清除: cache={}, key={}", name, key);
         
+        if (writeBuffer != null) {
+            writeBuffer.evict(key);
+            return;
+        }
+        
         // 异步清除远程缓存
-        executor.execute(() -> {
+        writeRemote(() -> {
             try {
                 remoteCache.evict(key);
                 logger.debug("远程缓存异步清除完成: cache={}, key={}", name, key);
             } catch (Exception e) {
                 logger.error("远程缓存异步清除失败: cache={}, key={}", name, key, e);
+            } finally {
+                if (invalidationBus != null) {
+                    invalidationBus.publishEvict(name, key);
+                }
             }
         });
     }
@@ -158,13 +484,22 @@ public class AsyncTwoLevelCache implements Cache {
     public boolean evictIfPresent(Object key) {
         boolean localEvicted = localCache.evictIfPresent(key);
         
+        if (writeBuffer != null) {
+            writeBuffer.evict(key);
+            return localEvicted;
+        }
+        
         // 异步清除远程缓存
-        executor.execute(() -> {
+        writeRemote(() -> {
             try {
                 remoteCache.evictIfPresent(key);
                 logger.debug("远程缓存异步清除完成: cache={}, key={}", name, key);
             } catch (Exception e) {
                 logger.error("远程缓存异步清除失败: cache={}, key={}", name, key, e);
+            } finally {
+                if (invalidationBus != null) {
+                    invalidationBus.publishEvict(name, key);
+                }
             }
         });
         
@@ -180,13 +515,22 @@ public class AsyncTwoLevelCache implements Cache {
         localCache.clear();
         logger.debug("本地缓存已清空: cache={}", name);
         
+        // 未刷出的写操作直接丢弃，远程清空与刷出互斥执行
+        if (writeBuffer != null) {
+            writeBuffer.discardPending();
+        }
+        
         // 异步清空远程缓存
-        executor.execute(() -> {
+        writeRemote(() -> {
             try {
-                remoteCache.clear();
+                clearRemote(remoteCache::clear);
                 logger.debug("远程缓存异步清空完成: cache={}", name);
             } catch (Exception e) {
                 logger.error("远程缓存异步清空失败: cache={}", name, e);
+            } finally {
+                if (invalidationBus != null) {
+                    invalidationBus.publishClear(name);
+                }
             }
         });
     }
@@ -195,19 +539,248 @@ public class AsyncTwoLevelCache implements Cache {
     public boolean invalidate() {
         boolean localInvalidated = localCache.invalidate();
         
+        if (writeBuffer != null) {
+            writeBuffer.discardPending();
+        }
+        
         // 异步清空远程缓存
-        executor.execute(() -> {
+        writeRemote(() -> {
             try {
-                remoteCache.invalidate();
+                clearRemote(remoteCache::invalidate);
                 logger.debug("远程缓存异步失效完成: cache={}", name);
             } catch (Exception e) {
                 logger.error("远程缓存异步失效失败: cache={}", name, e);
+            } finally {
+                if (invalidationBus != null) {
+                    invalidationBus.publishClear(name);
+                }
             }
         });
         
         return localInvalidated;
     }
     
+    /**
+     * 批量读取：先本地，本地未命中的key一次性从远程读取并回填本地
+     */
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> result = new LinkedHashMap<>();
+        List<Object> localMisses = new ArrayList<>();
+        for (Object key : keys) {
+            if (CacheNamespaces.isUncacheable(key)) {
+                continue;
+            }
+            ValueWrapper localValue = localCache.get(key);
+            if (localValue != null && isExpiredNegative(localValue.get())) {
+                localValue = null;
+            }
+            RemoteWriteBuffer.PendingWrite pendingWrite = writeBuffer != null ? writeBuffer.pendingWrite(key) : null;
+            metrics.localLookup(localValue != null);
+            if (localValue != null) {
+                result.put(key, unwrap(localValue.get()));
+            } else if (pendingWrite != null) {
+                // 尚未刷出的写操作比远程缓存中的值更新
+                if (!pendingWrite.isEvict()) {
+                    localCache.put(key, pendingWrite.getValue());
+                    result.put(key, unwrap(pendingWrite.getValue()));
+                }
+            } else {
+                localMisses.add(key);
+            }
+        }
+        if (localMisses.isEmpty()) {
+            return result;
+        }
+        
+        Map<Object, Object> remoteValues;
+        long start = System.nanoTime();
+        try {
+            remoteValues = remoteGetAll(localMisses);
+        } catch (RuntimeException e) {
+            metrics.remoteError();
+            logger.warn("远程缓存批量读取失败，按未命中处理: cache={}, count={}, error={}", name, localMisses.size(), e.getMessage());
+            return result;
+        }
+        remoteValues.values().removeIf(this::isExpiredNegative);
+        metrics.remoteLookup(remoteValues.size(), localMisses.size() - remoteValues.size(), System.nanoTime() - start);
+        remoteValues.forEach((key, value) -> {
+            localCache.put(key, value);
+            result.put(key, unwrap(value));
+        });
+        metrics.backfill(remoteValues.size());
+        logger.debug("批量读取缓存: cache={}, keys={}, localHits={}, remoteHits={}",
+                name, keys.size(), keys.size() - localMisses.size(), remoteValues.size());
+        return result;
+    }
+    
+    private Map<Object, Object> remoteGetAll(Collection<?> keys) {
+        if (remoteCache instanceof MultiKeyCache) {
+            return ((MultiKeyCache) remoteCache).getAll(keys);
+        }
+        Map<Object, Object> values = new LinkedHashMap<>();
+        for (Object key : keys) {
+            ValueWrapper wrapper = remoteCache.get(key);
+            if (wrapper != null) {
+                values.put(key, wrapper.get());
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * 批量写入：立即写本地，远程一次管道写入，完成后批量广播
+     */
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<Object, Object> stored = new LinkedHashMap<>();
+        List<Object> nullKeys = new ArrayList<>();
+        entries.forEach((key, value) -> {
+            if (CacheNamespaces.isUncacheable(key)) {
+                return;
+            }
+            Object storedValue = toStored(value, now);
+            if (storedValue != null) {
+                stored.put(key, storedValue);
+            } else {
+                nullKeys.add(key);
+            }
+        });
+        if (!nullKeys.isEmpty()) {
+            evictAll(nullKeys);
+        }
+        if (stored.isEmpty()) {
+            return;
+        }
+        stored.forEach(localCache::put);
+        logger.debug("本地缓存已批量更新: cache={}, count={}", name, stored.size());
+        
+        if (writeBuffer != null) {
+            writeBuffer.putAll(stored);
+            return;
+        }
+        
+        writeRemote(() -> {
+            try {
+                if (remoteCache instanceof MultiKeyCache) {
+                    ((MultiKeyCache) remoteCache).putAll(stored);
+                } else {
+                    stored.forEach(remoteCache::put);
+                }
+                logger.debug("远程缓存批量更新完成: cache={}, count={}", name, stored.size());
+            } catch (Exception e) {
+                logger.error("远程缓存批量更新失败: cache={}, count={}", name, stored.size(), e);
+            } finally {
+                if (invalidationBus != null) {
+                    invalidationBus.publishPutAll(name, stored.keySet());
+                }
+            }
+        });
+    }
+    
+    /**
+     * 批量清除：立即清本地，远程一次多key删除，完成后批量广播
+     */
+    @Override
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Object> keyList = new ArrayList<>(keys);
+        keyList.forEach(localCache::evict);
+        logger.debug("本地缓存已批量清除: cache={}, count={}", name, keyList.size());
+        
+        if (writeBuffer != null) {
+            writeBuffer.evictAll(keyList);
+            return;
+        }
+        
+        writeRemote(() -> {
+            try {
+                if (remoteCache instanceof MultiKeyCache) {
+                    ((MultiKeyCache) remoteCache).evictAll(keyList);
+                } else {
+                    keyList.forEach(remoteCache::evict);
+                }
+                logger.debug("远程缓存批量清除完成: cache={}, count={}", name, keyList.size());
+            } catch (Exception e) {
+                logger.error("远程缓存批量清除失败: cache={}, count={}", name, keyList.size(), e);
+            } finally {
+                if (invalidationBus != null) {
+                    invalidationBus.publishEvictAll(name, keyList);
+                }
+            }
+        });
+    }
+    
+    /**
+     * 按key前缀清除（运维操作）
+     * 本地按前缀逐个清除；远程先刷出写缓冲再按前缀扫描删除；最后广播清空，其他节点丢弃该缓存的全部本地条目
+     *
+     * @param prefix key前缀
+     * @return 本地和远程共清除的条目数
+     */
+    public long evictByPrefix(String prefix) {
+        List<Object> localKeys = new ArrayList<>();
+        Object nativeLocal = localCache.getNativeCache();
+        if (nativeLocal instanceof com.github.benmanes.caffeine.cache.Cache) {
+            for (Object key : ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeLocal).asMap().keySet()) {
+                if (String.valueOf(key).startsWith(prefix)) {
+                    localKeys.add(key);
+                }
+            }
+        }
+        localKeys.forEach(localCache::evict);
+        
+        if (writeBuffer != null) {
+            writeBuffer.flush();
+        }
+        long remoteEvicted;
+        if (remoteCache instanceof MultiKeyRedisCache) {
+            remoteEvicted = ((MultiKeyRedisCache) remoteCache).evictByPrefix(prefix);
+        } else {
+            localKeys.forEach(remoteCache::evict);
+            remoteEvicted = localKeys.size();
+        }
+        if (invalidationBus != null) {
+            invalidationBus.publishClear(name);
+        }
+        logger.info("按前缀清除缓存: cache={}, prefix={}, local={}, remote={}", name, prefix, localKeys.size(), remoteEvicted);
+        return localKeys.size() + remoteEvicted;
+    }
+    
+    /**
+     * 执行远程缓存写操作：同步模式在调用线程中执行，否则提交到异步线程池
+     * 线程池已满时退化为在调用线程中执行，不向业务方法抛出 RejectedExecutionException
+     */
+    private void writeRemote(Runnable task) {
+        if (syncWrite) {
+            task.run();
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("缓存异步线程池已满，远程写操作改为同步执行: cache={}", name);
+            task.run();
+        }
+    }
+    
+    /**
+     * 清空远程缓存，启用写缓冲时与刷出互斥，避免清空前取出的旧写入在清空后落到远程
+     */
+    private void clearRemote(Runnable clearTask) {
+        if (writeBuffer != null) {
+            writeBuffer.runExclusive(clearTask);
+        } else {
+            clearTask.run();
+        }
+    }
+    
     /**
      * 获取本地缓存实例（用于调试和监控）
      */
@@ -221,4 +794,96 @@ public class AsyncTwoLevelCache implements Cache {
     public Cache getRemoteCache() {
         return remoteCache;
     }
+    
+    /**
+     * 写缓冲中尚未刷出的条目数（用于监控）
+     */
+    public int getPendingWriteCount() {
+        return writeBuffer != null ? writeBuffer.pendingCount() : 0;
+    }
+    
+    /**
+     * 二级缓存的可选配置，与 CacheProperties.Spec 中的各项对应；未设置的项保持关闭
+     */
+    public static final class Builder {
+        
+        private final String name;
+        private final Cache localCache;
+        private final Cache remoteCache;
+        private final Executor executor;
+        private CacheInvalidationBus invalidationBus;
+        private CacheLoadLease loadLease;
+        private Duration leaseWaitTime = Duration.ZERO;
+        private Duration refreshAfter;
+        private boolean syncWrite;
+        private RemoteWriteBuffer writeBuffer;
+        private CacheMetrics metrics = CacheMetrics.NOOP;
+        private Duration negativeTtl;
+        
+        private Builder(String name, Cache localCache, Cache remoteCache, Executor executor) {
+            this.name = name;
+            this.localCache = localCache;
+            this.remoteCache = remoteCache;
+            this.executor = executor;
+        }
+        
+        /**
+         * @param invalidationBus 跨节点失效总线，为null时不广播
+         */
+        public Builder invalidationBus(CacheInvalidationBus invalidationBus) {
+            this.invalidationBus = invalidationBus;
+            return this;
+        }
+        
+        /**
+         * @param loadLease 跨节点加载租约，为null时只在本JVM内合并加载
+         * @param leaseWaitTime 未拿到租约时等待远程缓存回填的最长时间
+         */
+        public Builder loadLease(CacheLoadLease loadLease, Duration leaseWaitTime) {
+            this.loadLease = loadLease;
+            this.leaseWaitTime = leaseWaitTime != null ? leaseWaitTime : Duration.ZERO;
+            return this;
+        }
+        
+        /**
+         * @param refreshAfter 软过期时间，为null时不启用后台刷新；应小于本地缓存和Redis的过期时间
+         */
+        public Builder refreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+            return this;
+        }
+        
+        /**
+         * @param syncWrite 为true时在调用线程中同步写入/清除远程缓存并广播，后台刷新仍使用executor
+         */
+        public Builder syncWrite(boolean syncWrite) {
+            this.syncWrite = syncWrite;
+            return this;
+        }
+        
+        /**
+         * @param writeBuffer 远程写缓冲，为null或syncWrite为true时不使用
+         */
+        public Builder writeBuffer(RemoteWriteBuffer writeBuffer) {
+            this.writeBuffer = writeBuffer;
+            return this;
+        }
+        
+        public Builder metrics(CacheMetrics metrics) {
+            this.metrics = metrics != null ? metrics : CacheMetrics.NOOP;
+            return this;
+        }
+        
+        /**
+         * @param negativeTtl null结果的缓存时间，为null时不缓存null结果
+         */
+        public Builder negativeTtl(Duration negativeTtl) {
+            this.negativeTtl = negativeTtl;
+            return this;
+        }
+        
+        public AsyncTwoLevelCache build() {
+            return new AsyncTwoLevelCache(this);
+        }
+    }
 }
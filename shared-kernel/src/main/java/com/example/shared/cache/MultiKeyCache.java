@@ -0,0 +1,33 @@
+package com.example.shared.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 支持多key批量操作的缓存
+ * 批量读写一次往返完成，避免逐个key访问远程缓存
+ */
+public interface MultiKeyCache {
+
+    /**
+     * 批量读取
+     *
+     * @param keys 缓存key集合
+     * @return 命中的条目（key -> 缓存值），未命中的key不包含在结果中
+     */
+    Map<Object, Object> getAll(Collection<?> keys);
+
+    /**
+     * 批量写入
+     *
+     * @param entries 缓存条目
+     */
+    void putAll(Map<?, ?> entries);
+
+    /**
+     * 批量清除
+     *
+     * @param keys 缓存key集合
+     */
+    void evictAll(Collection<?> keys);
+}
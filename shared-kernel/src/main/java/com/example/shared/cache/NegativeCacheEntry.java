@@ -0,0 +1,31 @@
+package com.example.shared.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 空值占位（负缓存）
+ * 加载结果为null时写入该占位，在较短的有效期内直接返回null，避免不存在的实体反复穿透到数据库；
+ * 与正常值使用同一个key，因此清除正常值的写路径同样会清除占位。对调用方透明，AsyncTwoLevelCache 返回null
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NegativeCacheEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    private long expiresAt;
+
+    @JsonIgnore
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.shared.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 带写入时间的缓存值
+ * 仅配置了软过期时间（refresh-ahead）的缓存使用，读取时据此判断是否需要后台刷新；
+ * 对调用方透明，AsyncTwoLevelCache 返回前会拆出原始值
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimestampedValue implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 原始缓存值
+     */
+    private Object value;
+
+    /**
+     * 写入时间（毫秒时间戳）
+     */
+    private long writtenAt;
+}
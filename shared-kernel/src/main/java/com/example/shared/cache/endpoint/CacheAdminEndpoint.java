@@ -0,0 +1,152 @@
+package com.example.shared.cache.endpoint;
+
+import com.example.shared.cache.AsyncTwoLevelCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 缓存运维端点（/actuator/cacheadmin）
+ * GET  /actuator/cacheadmin                 列出所有缓存及其本地条目数、命中率、待刷出写入数
+ * GET  /actuator/cacheadmin/{name}?top=20   查看单个缓存，包含访问最频繁的key
+ * DELETE /actuator/cacheadmin/{name}?key=xx 或 ?prefix=xx  按key或前缀清除（本地、远程并广播其他节点）
+ * 不存在的缓存名称返回404：缓存管理器按名称懒创建缓存，不能让请求中的任意名称触发创建
+ */
+@Endpoint(id = "cacheadmin")
+public class CacheAdminEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final CacheManager cacheManager;
+
+    public CacheAdminEndpoint(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                caches.put(name, describe(cache, 0));
+            }
+        }
+        return caches;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String name, @Nullable Integer top) {
+        Cache cache = findCache(name);
+        if (cache == null) {
+            return null;
+        }
+        return describe(cache, top != null ? top : DEFAULT_TOP);
+    }
+
+    @DeleteOperation
+    public Map<String, Object> evict(@Selector String name, @Nullable String key, @Nullable String prefix) {
+        Cache cache = findCache(name);
+        if (cache == null) {
+            return null;
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("cache", name);
+        if (key != null) {
+            cache.evict(key);
+            // 以ID为key的缓存（如 key = "#id"）存储的是数值类型
+            Long numericKey = parseLong(key);
+            if (numericKey != null) {
+                cache.evict(numericKey);
+            }
+            result.put("key", key);
+        } else if (prefix != null) {
+            if (!(cache instanceof AsyncTwoLevelCache)) {
+                throw new IllegalArgumentException("按前缀清除仅支持二级缓存: " + name);
+            }
+            result.put("prefix", prefix);
+            result.put("evicted", ((AsyncTwoLevelCache) cache).evictByPrefix(prefix));
+        } else {
+            throw new IllegalArgumentException("必须指定 key 或 prefix");
+        }
+        return result;
+    }
+
+    /**
+     * 只返回已创建的缓存，未知名称返回null
+     */
+    @Nullable
+    private Cache findCache(String name) {
+        return cacheManager.getCacheNames().contains(name) ? cacheManager.getCache(name) : null;
+    }
+
+    private Map<String, Object> describe(Cache cache, int top) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        Cache localCache = cache;
+        if (cache instanceof AsyncTwoLevelCache) {
+            AsyncTwoLevelCache twoLevelCache = (AsyncTwoLevelCache) cache;
+            localCache = twoLevelCache.getLocalCache();
+            description.put("type", "two-level");
+            description.put("pendingWrites", twoLevelCache.getPendingWriteCount());
+        } else {
+            description.put("type", cache.getClass().getSimpleName());
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine = caffeineOf(localCache);
+        if (caffeine != null) {
+            CacheStats stats = caffeine.stats();
+            description.put("localSize", caffeine.estimatedSize());
+            description.put("localHitRate", stats.hitRate());
+            description.put("localEvictions", stats.evictionCount());
+            if (top > 0) {
+                description.put("topKeys", topKeys(caffeine, top));
+            }
+        }
+        return description;
+    }
+
+    /**
+     * 有容量上限的缓存按访问频率返回最热的key，否则按遍历顺序返回前若干个key
+     */
+    private List<String> topKeys(com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine, int top) {
+        Set<Object> keys = caffeine.policy().eviction()
+                .map((Policy.Eviction<Object, Object> eviction) -> eviction.hottest(top).keySet())
+                .orElseGet(() -> caffeine.asMap().keySet());
+        List<String> result = new ArrayList<>();
+        for (Object key : keys) {
+            if (result.size() >= top) {
+                break;
+            }
+            result.add(String.valueOf(key));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineOf(Cache cache) {
+        Object nativeCache = cache.getNativeCache();
+        return nativeCache instanceof com.github.benmanes.caffeine.cache.Cache
+                ? (com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache : null;
+    }
+
+    private Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
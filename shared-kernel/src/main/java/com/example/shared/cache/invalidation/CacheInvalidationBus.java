@@ -0,0 +1,69 @@
+package com.example.shared.cache.invalidation;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * 跨节点本地缓存失效总线
+ * 二级缓存在某个节点上发生写入/清除时，通过总线通知其他节点丢弃各自的本地(L1)缓存条目
+ * 传输方式可插拔，默认提供基于 Redis Pub/Sub 的实现
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * 当前节点ID，用于识别并忽略自己发出的消息
+     *
+     * @return 节点ID
+     */
+    String getNodeId();
+
+    /**
+     * 广播缓存条目被写入
+     *
+     * @param cacheName 缓存名称
+     * @param key 缓存key
+     */
+    void publishPut(String cacheName, Object key);
+
+    /**
+     * 广播缓存条目被清除
+     *
+     * @param cacheName 缓存名称
+     * @param key 缓存key
+     */
+    void publishEvict(String cacheName, Object key);
+
+    /**
+     * 批量广播缓存条目被写入，默认逐个发送，实现类可合并为一次往返
+     *
+     * @param cacheName 缓存名称
+     * @param keys 缓存key集合
+     */
+    default void publishPutAll(String cacheName, Collection<?> keys) {
+        keys.forEach(key -> publishPut(cacheName, key));
+    }
+
+    /**
+     * 批量广播缓存条目被清除，默认逐个发送，实现类可合并为一次往返
+     *
+     * @param cacheName 缓存名称
+     * @param keys 缓存key集合
+     */
+    default void publishEvictAll(String cacheName, Collection<?> keys) {
+        keys.forEach(key -> publishEvict(cacheName, key));
+    }
+
+    /**
+     * 广播整个缓存被清空
+     *
+     * @param cacheName 缓存名称
+     */
+    void publishClear(String cacheName);
+
+    /**
+     * 注册来自其他节点的失效消息处理器
+     *
+     * @param listener 消息处理器
+     */
+    void subscribe(Consumer<CacheInvalidationMessage> listener);
+}
@@ -0,0 +1,248 @@
+package com.example.shared.cache.invalidation;
+
+import lombok.Getter;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 缓存失效广播消息
+ * 只携带 (cacheName, key, version) 等最少信息，接收方据此丢弃本地缓存条目，不传输缓存值
+ *
+ * 编码格式（紧凑二进制）：
+ * [格式版本:1][操作类型:1][节点ID][缓存名][序号:8][key类型:1][key内容]
+ * 只支持 String / Integer / Long 以及由它们组成的 {@link SimpleKey}，保证接收方还原出相同类型的 key。
+ * 消息来自任何能向频道发布的客户端，解码时不做反序列化，其他类型的 key 在编码和解码时都会被拒绝，
+ * 发送方对这类 key 改为广播整个缓存清空（见 {@link #isSupportedKey}）
+ */
+@Getter
+public class CacheInvalidationMessage {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte KEY_NULL = 0;
+    private static final byte KEY_STRING = 1;
+    private static final byte KEY_INT = 2;
+    private static final byte KEY_LONG = 3;
+    // 4 曾用于JDK序列化的key，已废弃，解码时按未知类型拒绝
+    private static final byte KEY_SIMPLE = 5;
+
+    /**
+     * SimpleKey 单个key的最大参数个数，防止恶意消息声明超大数组
+     */
+    private static final int MAX_SIMPLE_KEY_PARAMS = 64;
+
+    private static final Field SIMPLE_KEY_PARAMS = simpleKeyParamsField();
+
+    /**
+     * 操作类型
+     */
+    public enum Type {
+        /** 单个key被写入，其他节点需丢弃旧值 */
+        PUT,
+        /** 单个key被清除 */
+        EVICT,
+        /** 整个缓存被清空 */
+        CLEAR
+    }
+
+    /**
+     * 操作类型
+     */
+    private final Type type;
+
+    /**
+     * 发出消息的节点ID，接收方据此忽略自己发出的消息
+     */
+    private final String nodeId;
+
+    /**
+     * 缓存名称
+     */
+    private final String cacheName;
+
+    /**
+     * 缓存key，CLEAR 操作时为 null
+     */
+    private final Object key;
+
+    /**
+     * 发送节点内单调递增的序号，用于日志追踪和去重
+     */
+    private final long version;
+
+    public CacheInvalidationMessage(Type type, String nodeId, String cacheName, Object key, long version) {
+        this.type = type;
+        this.nodeId = nodeId;
+        this.cacheName = cacheName;
+        this.key = key;
+        this.version = version;
+    }
+
+    /**
+     * 编码为字节数组
+     */
+    public byte[] encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(type.ordinal());
+            out.writeUTF(nodeId);
+            out.writeUTF(cacheName);
+            out.writeLong(version);
+            writeKey(out, key);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("缓存失效消息编码失败: cache=" + cacheName + ", key=" + key, e);
+        }
+    }
+
+    /**
+     * 从字节数组解码
+     */
+    public static CacheInvalidationMessage decode(byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            byte format = in.readByte();
+            if (format != FORMAT_VERSION) {
+                throw new IllegalArgumentException("不支持的缓存失效消息格式版本: " + format);
+            }
+            Type type = Type.values()[in.readByte()];
+            String nodeId = in.readUTF();
+            String cacheName = in.readUTF();
+            long version = in.readLong();
+            Object key = readKey(in);
+            return new CacheInvalidationMessage(type, nodeId, cacheName, key, version);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("缓存失效消息解码失败", e);
+        }
+    }
+
+    /**
+     * 是否可以编码到消息中：null、String、Integer、Long，以及参数全部为这些类型的 SimpleKey
+     */
+    public static boolean isSupportedKey(Object key) {
+        if (key instanceof SimpleKey) {
+            Object[] params = simpleKeyParams((SimpleKey) key);
+            if (params == null || params.length > MAX_SIMPLE_KEY_PARAMS) {
+                return false;
+            }
+            for (Object param : params) {
+                if (!isScalarKey(param)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return isScalarKey(key);
+    }
+
+    private static boolean isScalarKey(Object key) {
+        return key == null || key instanceof String || key instanceof Integer || key instanceof Long;
+    }
+
+    private static void writeKey(DataOutputStream out, Object key) throws IOException {
+        if (key instanceof SimpleKey && isSupportedKey(key)) {
+            Object[] params = simpleKeyParams((SimpleKey) key);
+            out.writeByte(KEY_SIMPLE);
+            out.writeInt(params.length);
+            for (Object param : params) {
+                writeScalarKey(out, param);
+            }
+        } else {
+            writeScalarKey(out, key);
+        }
+    }
+
+    private static void writeScalarKey(DataOutputStream out, Object key) throws IOException {
+        if (key == null) {
+            out.writeByte(KEY_NULL);
+        } else if (key instanceof String) {
+            byte[] utf8 = ((String) key).getBytes(StandardCharsets.UTF_8);
+            out.writeByte(KEY_STRING);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        } else if (key instanceof Integer) {
+            out.writeByte(KEY_INT);
+            out.writeInt((Integer) key);
+        } else if (key instanceof Long) {
+            out.writeByte(KEY_LONG);
+            out.writeLong((Long) key);
+        } else {
+            throw new IllegalArgumentException("不支持广播的缓存key类型: " + key.getClass().getName());
+        }
+    }
+
+    private static Object readKey(DataInputStream in) throws IOException {
+        byte keyType = in.readByte();
+        if (keyType != KEY_SIMPLE) {
+            return readScalarKey(in, keyType);
+        }
+        int count = in.readInt();
+        if (count < 0 || count > MAX_SIMPLE_KEY_PARAMS) {
+            throw new IllegalArgumentException("SimpleKey参数个数非法: " + count);
+        }
+        Object[] params = new Object[count];
+        for (int i = 0; i < count; i++) {
+            params[i] = readScalarKey(in, in.readByte());
+        }
+        return new SimpleKey(params);
+    }
+
+    private static Object readScalarKey(DataInputStream in, byte keyType) throws IOException {
+        switch (keyType) {
+            case KEY_NULL:
+                return null;
+            case KEY_STRING: {
+                int length = in.readInt();
+                if (length < 0 || length > in.available()) {
+                    throw new IllegalArgumentException("缓存key长度非法: " + length);
+                }
+                byte[] utf8 = new byte[length];
+                in.readFully(utf8);
+                return new String(utf8, StandardCharsets.UTF_8);
+            }
+            case KEY_INT:
+                return in.readInt();
+            case KEY_LONG:
+                return in.readLong();
+            default:
+                throw new IllegalArgumentException("未知的缓存key类型: " + keyType);
+        }
+    }
+
+    private static Object[] simpleKeyParams(SimpleKey key) {
+        return SIMPLE_KEY_PARAMS != null ? (Object[]) ReflectionUtils.getField(SIMPLE_KEY_PARAMS, key) : null;
+    }
+
+    /**
+     * SimpleKey 没有公开参数的访问方法；找不到字段时 SimpleKey 一律视为不支持
+     */
+    private static Field simpleKeyParamsField() {
+        Field field = ReflectionUtils.findField(SimpleKey.class, "params", Object[].class);
+        if (field != null) {
+            ReflectionUtils.makeAccessible(field);
+        }
+        return field;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidationMessage{" +
+                "type=" + type +
+                ", nodeId='" + nodeId + '\'' +
+                ", cacheName='" + cacheName + '\'' +
+                ", key=" + key +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.shared.cache.invalidation.redis;
+
+import com.example.shared.cache.invalidation.CacheInvalidationBus;
+import com.example.shared.cache.invalidation.CacheInvalidationMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 基于 Redis Pub/Sub 的缓存失效总线
+ * 使用独立的监听容器，不依赖事件系统的 consumer.enabled 开关，所有使用二级缓存的服务都会订阅
+ */
+public class RedisCacheInvalidationBus implements CacheInvalidationBus, MessageListener, InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheInvalidationBus.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String channel;
+    private final byte[] channelBytes;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    public RedisCacheInvalidationBus(RedisConnectionFactory connectionFactory,
+                                     RedisTemplate<String, Object> redisTemplate,
+                                     String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publishPut(String cacheName, Object key) {
+        publish(CacheInvalidationMessage.Type.PUT, cacheName, key);
+    }
+
+    @Override
+    public void publishEvict(String cacheName, Object key) {
+        publish(CacheInvalidationMessage.Type.EVICT, cacheName, key);
+    }
+
+    @Override
+    public void publishPutAll(String cacheName, Collection<?> keys) {
+        publishAll(CacheInvalidationMessage.Type.PUT, cacheName, keys);
+    }
+
+    @Override
+    public void publishEvictAll(String cacheName, Collection<?> keys) {
+        publishAll(CacheInvalidationMessage.Type.EVICT, cacheName, keys);
+    }
+
+    @Override
+    public void publishClear(String cacheName) {
+        publish(CacheInvalidationMessage.Type.CLEAR, cacheName, null);
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationMessage> listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    private void publish(CacheInvalidationMessage.Type type, String cacheName, Object key) {
+        if (!CacheInvalidationMessage.isSupportedKey(key)) {
+            // 无法安全编码的key只能让其他节点清空整个本地缓存
+            log.warn("缓存key类型不支持广播，改为广播清空: cache={}, keyType={}", cacheName, key.getClass().getName());
+            type = CacheInvalidationMessage.Type.CLEAR;
+            key = null;
+        }
+        CacheInvalidationMessage message =
+                new CacheInvalidationMessage(type, nodeId, cacheName, key, sequence.incrementAndGet());
+        try {
+            byte[] body = message.encode();
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, body));
+            log.debug("已广播缓存失效消息: {}", message);
+        } catch (Exception e) {
+            // 广播失败时其他节点只能依赖本地TTL过期，不影响当前写操作
+            log.warn("广播缓存失效消息失败: cache={}, key={}, error={}", cacheName, key, e.getMessage());
+        }
+    }
+
+    /**
+     * 通过管道一次往返发送多条失效消息
+     */
+    private void publishAll(CacheInvalidationMessage.Type type, String cacheName, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        for (Object key : keys) {
+            if (!CacheInvalidationMessage.isSupportedKey(key)) {
+                log.warn("缓存key类型不支持广播，改为广播清空: cache={}, keyType={}", cacheName, key.getClass().getName());
+                publish(CacheInvalidationMessage.Type.CLEAR, cacheName, null);
+                return;
+            }
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Object key : keys) {
+                    CacheInvalidationMessage message =
+                            new CacheInvalidationMessage(type, nodeId, cacheName, key, sequence.incrementAndGet());
+                    connection.publish(channelBytes, message.encode());
+                }
+                return null;
+            });
+            log.debug("已批量广播缓存失效消息: type={}, cache={}, count={}", type, cacheName, keys.size());
+        } catch (Exception e) {
+            log.warn("批量广播缓存失效消息失败: cache={}, count={}, error={}", cacheName, keys.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = CacheInvalidationMessage.decode(message.getBody());
+        } catch (Exception e) {
+            log.error("解析缓存失效消息失败: channel={}, error={}", channel, e.getMessage(), e);
+            return;
+        }
+
+        if (nodeId.equals(invalidation.getNodeId())) {
+            return;
+        }
+
+        log.debug("收到缓存失效消息: {}", invalidation);
+        for (Consumer<CacheInvalidationMessage> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (Exception e) {
+                log.warn("处理缓存失效消息失败: {}, error={}", invalidation, e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("缓存失效总线已订阅Redis频道: channel={}, nodeId={}", channel, nodeId);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.shared.cache.lease;
+
+/**
+ * 跨节点缓存加载租约
+ * 缓存未命中时，只有拿到租约的节点执行加载，其他节点短暂等待远程缓存被回填
+ */
+public interface CacheLoadLease {
+
+    /**
+     * 尝试获取指定缓存key的加载租约
+     *
+     * @param cacheName 缓存名称
+     * @param key 缓存key
+     * @return 获取成功返回租约令牌，租约已被其他节点持有时返回null
+     */
+    String tryAcquire(String cacheName, Object key);
+
+    /**
+     * 释放加载租约，只有令牌匹配时才会释放
+     *
+     * @param cacheName 缓存名称
+     * @param key 缓存key
+     * @param token tryAcquire返回的令牌
+     */
+    void release(String cacheName, Object key, String token);
+}
@@ -0,0 +1,72 @@
+package com.example.shared.cache.lease.redis;
+
+import com.example.shared.cache.lease.CacheLoadLease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 基于 Redis SET NX PX 的缓存加载租约
+ * Redis不可用时视为获取成功，退化为各节点自行加载，不阻塞业务请求
+ */
+public class RedisCacheLoadLease implements CacheLoadLease {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheLoadLease.class);
+
+    /**
+     * 只删除自己持有的租约，避免租约过期后误删其他节点的租约
+     */
+    private static final byte[] RELEASE_SCRIPT = (
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('del', KEYS[1]) else return 0 end"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration leaseTime;
+
+    public RedisCacheLoadLease(RedisTemplate<String, Object> redisTemplate, Duration leaseTime) {
+        this.redisTemplate = redisTemplate;
+        this.leaseTime = leaseTime;
+    }
+
+    @Override
+    public String tryAcquire(String cacheName, Object key) {
+        String token = UUID.randomUUID().toString();
+        byte[] leaseKey = leaseKey(cacheName, key);
+        byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+        try {
+            Boolean acquired = redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                    connection.stringCommands().set(leaseKey, tokenBytes,
+                            Expiration.from(leaseTime), RedisStringCommands.SetOption.SET_IF_ABSENT));
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.warn("获取缓存加载租约失败，退化为本地加载: cache={}, key={}, error={}", cacheName, key, e.getMessage());
+            return token;
+        }
+    }
+
+    @Override
+    public void release(String cacheName, Object key, String token) {
+        byte[] leaseKey = leaseKey(cacheName, key);
+        byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.scriptingCommands().eval(RELEASE_SCRIPT, ReturnType.INTEGER, 1, leaseKey, tokenBytes));
+        } catch (Exception e) {
+            // 释放失败时租约会在过期后自动失效
+            log.warn("释放缓存加载租约失败: cache={}, key={}, error={}", cacheName, key, e.getMessage());
+        }
+    }
+
+    private byte[] leaseKey(String cacheName, Object key) {
+        return ("lease::" + cacheName + "::" + key).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.shared.cache.metrics;
+
+/**
+ * 二级缓存运行指标记录
+ * 本地缓存（Caffeine）自身的命中/淘汰统计由 recordStats 提供，这里只记录二级缓存层面的指标
+ */
+public interface CacheMetrics {
+
+    /**
+     * 不记录任何指标
+     */
+    CacheMetrics NOOP = new CacheMetrics() {
+    };
+
+    /**
+     * 记录一次本地缓存查询结果
+     */
+    default void localLookup(boolean hit) {
+    }
+
+    /**
+     * 记录一次远程缓存查询结果及耗时
+     *
+     * @param hits 命中数
+     * @param misses 未命中数
+     * @param elapsedNanos 远程调用耗时
+     */
+    default void remoteLookup(int hits, int misses, long elapsedNanos) {
+    }
+
+    /**
+     * 记录远程缓存读取失败
+     */
+    default void remoteError() {
+    }
+
+    /**
+     * 记录远程命中后回填本地缓存的条目数
+     */
+    default void backfill(int count) {
+    }
+
+    /**
+     * 记录一次加载耗时
+     *
+     * @param success 加载是否成功
+     */
+    default void load(long elapsedNanos, boolean success) {
+    }
+}
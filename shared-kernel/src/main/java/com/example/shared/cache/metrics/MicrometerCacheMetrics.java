@@ -0,0 +1,96 @@
+package com.example.shared.cache.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Micrometer 的二级缓存指标，所有指标带 cache 标签
+ * <ul>
+ *     <li>cache.tier.gets{tier=local|remote, result=hit|miss}：各层查询命中/未命中次数</li>
+ *     <li>cache.tier.errors{tier=remote}：远程缓存读取失败次数</li>
+ *     <li>cache.remote.latency：远程缓存读取耗时</li>
+ *     <li>cache.backfills：远程命中回填本地的条目数</li>
+ *     <li>cache.loads{result=success|failure}：未命中时执行加载的耗时</li>
+ * </ul>
+ */
+public class MicrometerCacheMetrics implements CacheMetrics {
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteErrors;
+    private final Timer remoteLatency;
+    private final Counter backfills;
+    private final Timer loadSuccess;
+    private final Timer loadFailure;
+
+    public MicrometerCacheMetrics(MeterRegistry registry, String cacheName) {
+        this.localHits = tierGets(registry, cacheName, "local", "hit");
+        this.localMisses = tierGets(registry, cacheName, "local", "miss");
+        this.remoteHits = tierGets(registry, cacheName, "remote", "hit");
+        this.remoteMisses = tierGets(registry, cacheName, "remote", "miss");
+        this.remoteErrors = Counter.builder("cache.tier.errors")
+                .description("远程缓存读取失败次数")
+                .tags("cache", cacheName, "tier", "remote")
+                .register(registry);
+        this.remoteLatency = Timer.builder("cache.remote.latency")
+                .description("远程缓存读取耗时")
+                .tag("cache", cacheName)
+                .register(registry);
+        this.backfills = Counter.builder("cache.backfills")
+                .description("远程命中回填本地缓存的条目数")
+                .tag("cache", cacheName)
+                .register(registry);
+        this.loadSuccess = loads(registry, cacheName, "success");
+        this.loadFailure = loads(registry, cacheName, "failure");
+    }
+
+    private static Counter tierGets(MeterRegistry registry, String cacheName, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("二级缓存各层查询次数")
+                .tags("cache", cacheName, "tier", tier, "result", result)
+                .register(registry);
+    }
+
+    private static Timer loads(MeterRegistry registry, String cacheName, String result) {
+        return Timer.builder("cache.loads")
+                .description("缓存未命中时的加载耗时")
+                .tags("cache", cacheName, "result", result)
+                .register(registry);
+    }
+
+    @Override
+    public void localLookup(boolean hit) {
+        (hit ? localHits : localMisses).increment();
+    }
+
+    @Override
+    public void remoteLookup(int hits, int misses, long elapsedNanos) {
+        if (hits > 0) {
+            remoteHits.increment(hits);
+        }
+        if (misses > 0) {
+            remoteMisses.increment(misses);
+        }
+        remoteLatency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void remoteError() {
+        remoteErrors.increment();
+    }
+
+    @Override
+    public void backfill(int count) {
+        backfills.increment(count);
+    }
+
+    @Override
+    public void load(long elapsedNanos, boolean success) {
+        (success ? loadSuccess : loadFailure).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
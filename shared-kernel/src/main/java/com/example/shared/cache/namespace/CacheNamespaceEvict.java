@@ -0,0 +1,29 @@
+package com.example.shared.cache.namespace;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 方法成功返回后使指定命名空间下的缓存条目失效（版本号加一）
+ * 代替 {@code @CacheEvict(allEntries = true)}，只影响相关用户/标签的条目
+ *
+ * 示例：{@code @CacheNamespaceEvict(cacheName = "dietRecord", namespaces = {"'u' + #command.userId", "'global'"})}
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheNamespaceEvict {
+
+    /**
+     * 缓存名称
+     */
+    String cacheName();
+
+    /**
+     * 要失效的命名空间，SpEL表达式，可引用方法参数（#参数名）和返回值（#result），字面量需加单引号
+     */
+    String[] namespaces();
+}
@@ -0,0 +1,57 @@
+package com.example.shared.cache.namespace;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CacheNamespaceEvict} 的方法拦截器
+ * CacheNamespaces 延迟获取，避免拦截器创建时提前初始化Redis等依赖
+ */
+public class CacheNamespaceEvictInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<CacheNamespaces> cacheNamespacesProvider;
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    public CacheNamespaceEvictInterceptor(ObjectProvider<CacheNamespaces> cacheNamespacesProvider) {
+        this.cacheNamespacesProvider = cacheNamespacesProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis()) : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        CacheNamespaceEvict evict = AnnotatedElementUtils.findMergedAnnotation(method, CacheNamespaceEvict.class);
+        if (evict == null) {
+            return result;
+        }
+
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                null, method, invocation.getArguments(), parameterNameDiscoverer);
+        context.setVariable("result", result);
+
+        String[] namespaces = new String[evict.namespaces().length];
+        for (int i = 0; i < namespaces.length; i++) {
+            Expression expression = expressions.computeIfAbsent(evict.namespaces()[i], parser::parseExpression);
+            namespaces[i] = String.valueOf(expression.getValue(context));
+        }
+        cacheNamespacesProvider.getObject().evict(evict.cacheName(), namespaces);
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.shared.cache.namespace;
+
+/**
+ * 缓存命名空间版本号存储
+ * 每个 (缓存名称, 命名空间) 对应一个单调递增的版本号，缓存key中带上版本号，
+ * 版本号加一即可让该命名空间下的所有旧条目失效，无需扫描删除
+ */
+public interface CacheNamespaceVersions {
+
+    /**
+     * 获取当前版本号，从未失效过的命名空间返回0
+     *
+     * @param cacheName 缓存名称
+     * @param namespace 命名空间（如 u42、global）
+     * @return 当前版本号
+     */
+    long current(String cacheName, String namespace);
+
+    /**
+     * 版本号加一
+     *
+     * @param cacheName 缓存名称
+     * @param namespace 命名空间
+     * @return 新的版本号
+     */
+    long increment(String cacheName, String namespace);
+}
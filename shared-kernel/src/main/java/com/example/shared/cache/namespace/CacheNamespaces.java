@@ -0,0 +1,171 @@
+package com.example.shared.cache.namespace;
+
+import com.example.shared.cache.invalidation.CacheInvalidationBus;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * 按命名空间分代的缓存失效
+ * 缓存key带上命名空间版本号前缀（如 dietRecord::u42:v17:records_...），
+ * 失效时只需把版本号加一，代替 allEntries = true 的全量清除
+ *
+ * 用法：
+ * <pre>
+ * &#64;Cacheable(value = "dietRecord", key = "@cacheNamespaces.key('dietRecord', 'u' + #userId) + 'records_' + #page")
+ * &#64;CacheNamespaceEvict(cacheName = "dietRecord", namespaces = "'u' + #command.userId")
+ * </pre>
+ * 旧版本的条目不再被读到，随TTL自然过期。
+ * 读取版本号失败时key中带 {@link #UNCACHEABLE_MARKER}，二级缓存对这类key不读不写，
+ * 避免在固定的"未知版本"下缓存数据，之后版本号再次读取失败时读到早已失效的旧值
+ */
+public class CacheNamespaces {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheNamespaces.class);
+
+    /**
+     * 版本号在失效总线上使用的缓存名称，其他节点收到后丢弃本地记住的版本号
+     */
+    private static final String VERSION_CACHE_NAME = "cacheNamespace";
+
+    /**
+     * 读取版本号失败时使用的版本，不会与任何真实版本号的key冲突
+     */
+    private static final long UNKNOWN_VERSION = -1L;
+
+    /**
+     * 版本号未知时代替 v{version} 写入key的标记，带此标记的key不缓存
+     */
+    public static final String UNCACHEABLE_MARKER = ":v!nocache:";
+
+    private final CacheNamespaceVersions versions;
+    private final CacheManager cacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Long> localVersions;
+
+    /**
+     * @param versions 版本号存储
+     * @param cacheManager 版本号递增失败时用于整体清空缓存
+     * @param invalidationBus 失效总线，为null时其他节点只能等本地版本号过期
+     * @param localVersionTtl 本地记住版本号的时间
+     */
+    public CacheNamespaces(CacheNamespaceVersions versions, CacheManager cacheManager,
+                           CacheInvalidationBus invalidationBus, Duration localVersionTtl) {
+        this.versions = versions;
+        this.cacheManager = cacheManager;
+        this.invalidationBus = invalidationBus;
+        this.localVersions = Caffeine.newBuilder()
+                .expireAfterWrite(localVersionTtl)
+                .maximumSize(100_000)
+                .build();
+        if (invalidationBus != null) {
+            invalidationBus.subscribe(message -> {
+                if (!VERSION_CACHE_NAME.equals(message.getCacheName())) {
+                    return;
+                }
+                if (message.getKey() != null) {
+                    localVersions.invalidate(message.getKey());
+                } else {
+                    localVersions.invalidateAll();
+                }
+            });
+        }
+    }
+
+    /**
+     * 生成带版本号的key前缀，格式：{namespace}:v{version}:
+     * 版本号读取失败时返回 {namespace}{@link #UNCACHEABLE_MARKER}，本次调用不使用缓存
+     *
+     * @param cacheName 缓存名称
+     * @param namespace 命名空间
+     * @return key前缀
+     */
+    public String key(String cacheName, String namespace) {
+        long version = currentVersion(cacheName, namespace);
+        if (version == UNKNOWN_VERSION) {
+            return namespace + UNCACHEABLE_MARKER;
+        }
+        return namespace + ":v" + version + ":";
+    }
+
+    /**
+     * key是否由版本号未知时的 {@link #key} 生成，这类key不应读写缓存
+     */
+    public static boolean isUncacheable(Object key) {
+        return key instanceof String && ((String) key).contains(UNCACHEABLE_MARKER);
+    }
+
+    /**
+     * 获取命名空间当前版本号，优先使用本地记住的值
+     *
+     * @return 版本号，读取失败时返回-1
+     */
+    public long currentVersion(String cacheName, String namespace) {
+        String versionId = versionId(cacheName, namespace);
+        Long version = localVersions.getIfPresent(versionId);
+        if (version != null) {
+            return version;
+        }
+        try {
+            version = versions.current(cacheName, namespace);
+            localVersions.put(versionId, version);
+            return version;
+        } catch (RuntimeException e) {
+            log.warn("读取缓存命名空间版本号失败: cache={}, namespace={}, error={}", cacheName, namespace, e.getMessage());
+            return UNKNOWN_VERSION;
+        }
+    }
+
+    /**
+     * 使命名空间下的所有缓存条目失效
+     * 当前线程存在事务时在提交后执行，避免并发读取在提交前把旧数据写入新版本
+     *
+     * @param cacheName 缓存名称
+     * @param namespaces 命名空间
+     */
+    public void evict(String cacheName, String... namespaces) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(cacheName, namespaces);
+                }
+            });
+        } else {
+            doEvict(cacheName, namespaces);
+        }
+    }
+
+    private void doEvict(String cacheName, String... namespaces) {
+        for (String namespace : namespaces) {
+            String versionId = versionId(cacheName, namespace);
+            try {
+                long version = versions.increment(cacheName, namespace);
+                localVersions.put(versionId, version);
+                log.debug("缓存命名空间版本号已递增: cache={}, namespace={}, version={}", cacheName, namespace, version);
+            } catch (RuntimeException e) {
+                log.warn("递增缓存命名空间版本号失败，退化为清空整个缓存: cache={}, namespace={}, error={}",
+                        cacheName, namespace, e.getMessage());
+                localVersions.invalidate(versionId);
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache != null) {
+                    cache.clear();
+                }
+                return;
+            }
+            if (invalidationBus != null) {
+                invalidationBus.publishEvict(VERSION_CACHE_NAME, versionId);
+            }
+        }
+    }
+
+    private String versionId(String cacheName, String namespace) {
+        return cacheName + "::" + namespace;
+    }
+}
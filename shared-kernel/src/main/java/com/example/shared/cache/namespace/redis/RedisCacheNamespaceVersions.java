@@ -0,0 +1,49 @@
+package com.example.shared.cache.namespace.redis;
+
+import com.example.shared.cache.namespace.CacheNamespaceVersions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 基于 Redis INCR 的命名空间版本号存储
+ * 版本号key每次递增后续期，过期时间应大于所有缓存条目的TTL，
+ * 这样版本号过期归零时，旧版本号下的条目早已过期，不会被重新读到
+ */
+public class RedisCacheNamespaceVersions implements CacheNamespaceVersions {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration versionTtl;
+
+    public RedisCacheNamespaceVersions(RedisTemplate<String, Object> redisTemplate, Duration versionTtl) {
+        this.redisTemplate = redisTemplate;
+        this.versionTtl = versionTtl;
+    }
+
+    @Override
+    public long current(String cacheName, String namespace) {
+        byte[] key = versionKey(cacheName, namespace);
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(key));
+        return value != null ? Long.parseLong(new String(value, StandardCharsets.UTF_8)) : 0L;
+    }
+
+    @Override
+    public long increment(String cacheName, String namespace) {
+        byte[] key = versionKey(cacheName, namespace);
+        Long version = redisTemplate.execute((RedisCallback<Long>) connection -> {
+            Long incremented = connection.stringCommands().incr(key);
+            connection.keyCommands().pExpire(key, versionTtl.toMillis());
+            return incremented;
+        });
+        if (version == null) {
+            throw new IllegalStateException("递增缓存命名空间版本号失败: cache=" + cacheName + ", namespace=" + namespace);
+        }
+        return version;
+    }
+
+    private byte[] versionKey(String cacheName, String namespace) {
+        return ("cacheNamespace::" + cacheName + "::" + namespace).getBytes(StandardCharsets.UTF_8);
+    }
+}
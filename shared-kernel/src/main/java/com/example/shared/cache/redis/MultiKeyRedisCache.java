@@ -0,0 +1,169 @@
+package com.example.shared.cache.redis;
+
+import com.example.shared.cache.MultiKeyCache;
+import com.example.shared.cache.NegativeCacheEntry;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 支持批量操作的 Redis 缓存
+ * getAll 使用一次 MGET，putAll 使用一次管道写入，evictAll 使用一次多key DEL；
+ * key前缀、序列化方式、TTL与单key操作完全一致（仅适用于单机/哨兵模式，集群模式下多key命令要求同一slot）
+ * 负缓存占位（NegativeCacheEntry）按其自身的过期时间设置TTL，而不是缓存的统一TTL
+ */
+public class MultiKeyRedisCache extends RedisCache implements MultiKeyCache {
+
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    private final RedisConnectionFactory connectionFactory;
+
+    protected MultiKeyRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfig,
+                                 RedisConnectionFactory connectionFactory) {
+        super(name, cacheWriter, cacheConfig);
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value instanceof NegativeCacheEntry) {
+            getNativeCache().put(getName(), serializeCacheKey(createCacheKey(key)), serializeCacheValue(value),
+                    remainingTtl((NegativeCacheEntry) value));
+            return;
+        }
+        super.put(key, value);
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> result = new LinkedHashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+
+        List<Object> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = serializeKeys(keyList);
+        List<byte[]> rawValues = execute(connection -> connection.stringCommands().mGet(rawKeys));
+        if (rawValues == null) {
+            return result;
+        }
+
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] rawValue = rawValues.get(i);
+            if (rawValue != null) {
+                result.put(keyList.get(i), fromStoreValue(deserializeCacheValue(rawValue)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Duration ttl = getCacheConfiguration().getTtl();
+        Expiration defaultExpiration = ttl != null && !ttl.isZero() && !ttl.isNegative()
+                ? Expiration.from(ttl) : Expiration.persistent();
+
+        execute(connection -> {
+            connection.openPipeline();
+            try {
+                entries.forEach((key, value) -> {
+                    Object storeValue = preProcessCacheValue(value);
+                    // 不允许缓存null时跳过，与单key put的行为保持一致（put会直接报错）
+                    if (storeValue != null) {
+                        Expiration expiration = value instanceof NegativeCacheEntry
+                                ? Expiration.from(remainingTtl((NegativeCacheEntry) value)) : defaultExpiration;
+                        connection.stringCommands().set(serializeCacheKey(createCacheKey(key)),
+                                serializeCacheValue(storeValue), expiration, RedisStringCommands.SetOption.UPSERT);
+                    }
+                });
+            } finally {
+                connection.closePipeline();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        byte[][] rawKeys = serializeKeys(keys);
+        execute(connection -> connection.keyCommands().del(rawKeys));
+    }
+
+    /**
+     * 按key前缀清除（运维操作），使用SCAN分批查找后删除，不阻塞Redis
+     *
+     * @param prefix 缓存key前缀（不含缓存名称前缀）
+     * @return 删除的key数量
+     */
+    public long evictByPrefix(String prefix) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(createCacheKey(prefix) + "*")
+                .count(SCAN_BATCH_SIZE)
+                .build();
+        return execute(connection -> {
+            long deleted = 0;
+            List<byte[]> batch = new ArrayList<>();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() >= SCAN_BATCH_SIZE) {
+                        deleted += delete(connection, batch);
+                    }
+                }
+            }
+            return deleted + delete(connection, batch);
+        });
+    }
+
+    private long delete(RedisConnection connection, List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long deleted = connection.keyCommands().del(keys.toArray(new byte[0][]));
+        keys.clear();
+        return deleted != null ? deleted : 0;
+    }
+
+    private Duration remainingTtl(NegativeCacheEntry entry) {
+        return Duration.ofMillis(Math.max(1, entry.getExpiresAt() - System.currentTimeMillis()));
+    }
+
+    private byte[][] serializeKeys(Collection<?> keys) {
+        byte[][] rawKeys = new byte[keys.size()][];
+        int i = 0;
+        for (Object key : keys) {
+            rawKeys[i++] = serializeCacheKey(createCacheKey(key));
+        }
+        return rawKeys;
+    }
+
+    private <T> T execute(Function<RedisConnection, T> callback) {
+        RedisConnection connection = connectionFactory.getConnection();
+        try {
+            return callback.apply(connection);
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.shared.cache.redis;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.Map;
+
+/**
+ * 创建 {@link MultiKeyRedisCache} 的 Redis 缓存管理器，其余行为与 RedisCacheManager 相同
+ */
+public class MultiKeyRedisCacheManager extends RedisCacheManager {
+
+    private final RedisCacheWriter cacheWriter;
+    private final RedisCacheConfiguration defaultCacheConfig;
+    private final RedisConnectionFactory connectionFactory;
+
+    public MultiKeyRedisCacheManager(RedisConnectionFactory connectionFactory,
+                                     RedisCacheConfiguration defaultCacheConfig,
+                                     Map<String, RedisCacheConfiguration> initialCacheConfigurations) {
+        this(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), connectionFactory,
+                defaultCacheConfig, initialCacheConfigurations);
+    }
+
+    private MultiKeyRedisCacheManager(RedisCacheWriter cacheWriter, RedisConnectionFactory connectionFactory,
+                                      RedisCacheConfiguration defaultCacheConfig,
+                                      Map<String, RedisCacheConfiguration> initialCacheConfigurations) {
+        super(cacheWriter, defaultCacheConfig, initialCacheConfigurations);
+        this.cacheWriter = cacheWriter;
+        this.defaultCacheConfig = defaultCacheConfig;
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfig) {
+        return new MultiKeyRedisCache(name, cacheWriter,
+                cacheConfig != null ? cacheConfig : defaultCacheConfig, connectionFactory);
+    }
+}
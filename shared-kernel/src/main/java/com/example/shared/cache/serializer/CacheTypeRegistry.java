@@ -0,0 +1,105 @@
+package com.example.shared.cache.serializer;
+
+import com.example.shared.cache.NegativeCacheEntry;
+import com.example.shared.cache.TimestampedValue;
+import com.example.shared.response.PageResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 缓存值类型ID注册表
+ * 紧凑编码中用短数字ID代替全限定类名，未注册的类型仍写类名，因此新增类型不会导致旧数据无法读取
+ *
+ * ID一经使用不可修改或复用，只能追加：
+ * 1-99 为内置类型，100 及以上由各服务通过 app.cache.redis.compact.type-ids 配置
+ */
+public class CacheTypeRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheTypeRegistry.class);
+
+    /**
+     * 自定义类型ID的起始值，小于该值的ID保留给内置类型
+     */
+    public static final int CUSTOM_ID_START = 100;
+
+    private final Map<Class<?>, String> idsByType = new HashMap<>();
+    private final Map<String, Class<?>> typesById = new HashMap<>();
+
+    public CacheTypeRegistry() {
+        register(1, ArrayList.class);
+        register(2, LinkedList.class);
+        register(3, HashMap.class);
+        register(4, LinkedHashMap.class);
+        register(5, TreeMap.class);
+        register(6, HashSet.class);
+        register(7, LinkedHashSet.class);
+        register(8, TreeSet.class);
+        register(9, BigDecimal.class);
+        register(10, BigInteger.class);
+        register(11, Date.class);
+        register(12, PageResult.class);
+        register(13, TimestampedValue.class);
+        register(14, NegativeCacheEntry.class);
+    }
+
+    /**
+     * 按配置注册自定义类型，当前服务的classpath中不存在该类时忽略（其他服务的DTO）
+     *
+     * @param id 类型ID，必须不小于 {@link #CUSTOM_ID_START}
+     * @param className 全限定类名
+     */
+    public void register(int id, String className) {
+        if (id < CUSTOM_ID_START) {
+            throw new IllegalArgumentException("自定义缓存类型ID必须不小于" + CUSTOM_ID_START + ": " + id + "=" + className);
+        }
+        Class<?> type;
+        try {
+            type = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            log.debug("缓存类型不在当前服务中，跳过注册: id={}, class={}", id, className);
+            return;
+        }
+        register(id, type);
+    }
+
+    private void register(int id, Class<?> type) {
+        String key = String.valueOf(id);
+        Class<?> existingType = typesById.get(key);
+        if (existingType != null && existingType != type) {
+            throw new IllegalArgumentException("缓存类型ID重复: " + id + " 已分配给 " + existingType.getName());
+        }
+        String existingId = idsByType.get(type);
+        if (existingId != null && !existingId.equals(key)) {
+            throw new IllegalArgumentException("缓存类型重复注册: " + type.getName() + " 已使用ID " + existingId);
+        }
+        typesById.put(key, type);
+        idsByType.put(type, key);
+    }
+
+    /**
+     * 获取类型ID，未注册时返回null
+     */
+    public String idOf(Class<?> type) {
+        return idsByType.get(type);
+    }
+
+    /**
+     * 按类型ID查找类型，未注册时返回null
+     */
+    public Class<?> typeOf(String id) {
+        return typesById.get(id);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.shared.cache.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Redis缓存值的紧凑二进制编码
+ * 使用 Smile（二进制JSON）代替文本JSON，类型信息用 {@link CacheTypeRegistry} 中的短ID代替全限定类名，
+ * 编码结果超过阈值时使用 LZ4 压缩
+ *
+ * 编码格式：
+ * [魔数:1][格式版本:1][标志位:1][原始长度:4，仅压缩时][Smile数据]
+ * 开启兼容读取时，不以魔数开头的数据交给旧的JSON序列化器解析，便于从JSON编码平滑迁移
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 不是合法的UTF-8首字节，不会与旧的JSON数据混淆
+     */
+    private static final byte MAGIC = (byte) 0xB1;
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte FLAG_LZ4 = 1;
+    private static final byte FLAG_NULL_VALUE = 1 << 1;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final int LENGTH_FIELD = 4;
+
+    private final ObjectMapper smileMapper;
+    private final RedisSerializer<Object> legacySerializer;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * @param typeRegistry 类型ID注册表
+     * @param compressionThreshold 超过该字节数才压缩，小于等于0表示不压缩
+     * @param legacySerializer 旧数据的序列化器，为null时不兼容读取旧数据
+     */
+    public CompactCacheSerializer(CacheTypeRegistry typeRegistry, int compressionThreshold,
+                                  RedisSerializer<Object> legacySerializer) {
+        this.smileMapper = createSmileMapper(typeRegistry);
+        this.legacySerializer = legacySerializer;
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.fastDecompressor();
+    }
+
+    private static ObjectMapper createSmileMapper(CacheTypeRegistry typeRegistry) {
+        SmileFactory smileFactory = new SmileFactory();
+        // 共享重复出现的短字符串值（如餐次、未注册类型的类名），只写一次
+        smileFactory.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+
+        ObjectMapper mapper = new ObjectMapper(smileFactory);
+        mapper.findAndRegisterModules();
+        // DTO新增/删除字段后仍能读取旧数据
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        ObjectMapper.DefaultTypeResolverBuilder typer = new ObjectMapper.DefaultTypeResolverBuilder(
+                ObjectMapper.DefaultTyping.NON_FINAL, mapper.getPolymorphicTypeValidator()) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType,
+                                                PolymorphicTypeValidator subtypeValidator,
+                                                Collection<NamedType> subtypes, boolean forSer, boolean forDeser) {
+                return new CompactTypeIdResolver(baseType, config.getTypeFactory(), subtypeValidator, typeRegistry);
+            }
+        };
+        typer.init(JsonTypeInfo.Id.CUSTOM, null);
+        typer.inclusion(JsonTypeInfo.As.WRAPPER_ARRAY);
+        mapper.setDefaultTyping(typer);
+        return mapper;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value instanceof NullValue) {
+            return new byte[]{MAGIC, FORMAT_VERSION, FLAG_NULL_VALUE};
+        }
+
+        byte[] payload;
+        try {
+            payload = smileMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("缓存值编码失败: " + value.getClass().getName(), e);
+        }
+
+        if (compressionThreshold > 0 && payload.length > compressionThreshold) {
+            int maxLength = compressor.maxCompressedLength(payload.length);
+            byte[] compressed = new byte[HEADER_LENGTH + LENGTH_FIELD + maxLength];
+            int compressedLength = compressor.compress(payload, 0, payload.length,
+                    compressed, HEADER_LENGTH + LENGTH_FIELD, maxLength);
+            // 压缩收益不足时直接存原始数据
+            if (LENGTH_FIELD + compressedLength < payload.length) {
+                writeHeader(compressed, FLAG_LZ4);
+                writeInt(compressed, HEADER_LENGTH, payload.length);
+                return Arrays.copyOf(compressed, HEADER_LENGTH + LENGTH_FIELD + compressedLength);
+            }
+        }
+
+        byte[] result = new byte[HEADER_LENGTH + payload.length];
+        writeHeader(result, (byte) 0);
+        System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            if (legacySerializer != null) {
+                return legacySerializer.deserialize(bytes);
+            }
+            throw new SerializationException("不是紧凑编码的缓存数据，且未开启旧格式兼容读取");
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != FORMAT_VERSION) {
+            throw new SerializationException("不支持的缓存编码格式版本: " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+
+        byte flags = bytes[2];
+        if ((flags & FLAG_NULL_VALUE) != 0) {
+            return NullValue.INSTANCE;
+        }
+
+        try {
+            if ((flags & FLAG_LZ4) != 0) {
+                int originalLength = readInt(bytes, HEADER_LENGTH);
+                byte[] payload = decompressor.decompress(bytes, HEADER_LENGTH + LENGTH_FIELD, originalLength);
+                return smileMapper.readValue(payload, Object.class);
+            }
+            return smileMapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, Object.class);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("缓存值解码失败", e);
+        }
+    }
+
+    private static void writeHeader(byte[] target, byte flags) {
+        target[0] = MAGIC;
+        target[1] = FORMAT_VERSION;
+        target[2] = flags;
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] source, int offset) {
+        return ((source[offset] & 0xFF) << 24)
+                | ((source[offset + 1] & 0xFF) << 16)
+                | ((source[offset + 2] & 0xFF) << 8)
+                | (source[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.shared.cache.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.TypeIdResolverBase;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.io.IOException;
+
+/**
+ * 类型ID解析器：已注册的类型写短数字ID，其余类型退化为全限定类名
+ */
+class CompactTypeIdResolver extends TypeIdResolverBase {
+
+    private final CacheTypeRegistry registry;
+    private final ClassNameIdResolver fallback;
+
+    CompactTypeIdResolver(JavaType baseType, TypeFactory typeFactory,
+                          PolymorphicTypeValidator typeValidator, CacheTypeRegistry registry) {
+        super(baseType, typeFactory);
+        this.registry = registry;
+        this.fallback = new ClassNameIdResolver(baseType, typeFactory, typeValidator);
+    }
+
+    @Override
+    public String idFromValue(Object value) {
+        return idFromValueAndType(value, value.getClass());
+    }
+
+    @Override
+    public String idFromValueAndType(Object value, Class<?> suggestedType) {
+        String id = suggestedType != null ? registry.idOf(suggestedType) : null;
+        return id != null ? id : fallback.idFromValueAndType(value, suggestedType);
+    }
+
+    @Override
+    public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+        Class<?> type = registry.typeOf(id);
+        if (type != null) {
+            return context.getTypeFactory().constructSpecializedType(_baseType, type);
+        }
+        return fallback.typeFromId(context, id);
+    }
+
+    @Override
+    public JsonTypeInfo.Id getMechanism() {
+        return JsonTypeInfo.Id.CUSTOM;
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.shared.cache.writebehind;
+
+import com.example.shared.cache.MultiKeyCache;
+import com.example.shared.cache.invalidation.CacheInvalidationBus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 远程缓存写缓冲（write-behind）
+ * 同一key的多次写入/清除在缓冲区中合并，只保留最后一次；刷出时按批次对远程缓存做一次批量写入和一次批量清除，
+ * 完成后批量广播失效消息。
+ * 刷出时机：待写条目达到 batchSize 时立即触发，其余由 {@link RemoteWriteFlusher} 按 linger 间隔定时触发。
+ * 背压：待写条目达到 maxPending 时由调用线程同步刷出；异步线程池拒绝任务时同样退化为调用线程刷出，不向业务抛异常。
+ */
+public class RemoteWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteWriteBuffer.class);
+
+    private final String cacheName;
+    private final Cache remoteCache;
+    private final Executor executor;
+    private final CacheInvalidationBus invalidationBus;
+    private final int batchSize;
+    private final int maxPending;
+
+    /**
+     * 待写入远程缓存的条目，key相同的写操作互相覆盖
+     */
+    private final ConcurrentMap<Object, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 同一时刻只允许一个刷出过程，保证同一key的远程写入顺序与调用顺序一致
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * 是否已有提交到线程池但尚未开始的刷出任务，避免重复提交
+     */
+    private final AtomicBoolean flushSubmitted = new AtomicBoolean();
+
+    private final Timer flushTimer;
+
+    /**
+     * @param meterRegistry 为null时不注册监控指标
+     */
+    public RemoteWriteBuffer(String cacheName, Cache remoteCache, Executor executor,
+                             CacheInvalidationBus invalidationBus, int batchSize, int maxPending,
+                             MeterRegistry meterRegistry) {
+        this.cacheName = cacheName;
+        this.remoteCache = remoteCache;
+        this.executor = executor;
+        this.invalidationBus = invalidationBus;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPending = Math.max(this.batchSize, maxPending);
+
+        if (meterRegistry != null) {
+            Gauge.builder("cache.write.pending", pending, Map::size)
+                    .description("待写入远程缓存的条目数")
+                    .tag("cache", cacheName)
+                    .register(meterRegistry);
+            this.flushTimer = Timer.builder("cache.write.flush")
+                    .description("写缓冲单批刷出耗时")
+                    .tag("cache", cacheName)
+                    .register(meterRegistry);
+        } else {
+            this.flushTimer = null;
+        }
+    }
+
+    public void put(Object key, Object value) {
+        enqueue(key, PendingWrite.put(value));
+    }
+
+    public void putAll(Map<?, ?> entries) {
+        entries.forEach((key, value) -> pending.put(key, PendingWrite.put(value)));
+        afterEnqueue();
+    }
+
+    public void evict(Object key) {
+        enqueue(key, PendingWrite.evict());
+    }
+
+    public void evictAll(Collection<?> keys) {
+        keys.forEach(key -> pending.put(key, PendingWrite.evict()));
+        afterEnqueue();
+    }
+
+    /**
+     * 查询尚未刷出的写操作，读路径据此避免从远程缓存读回旧值
+     *
+     * @return 未刷出的写操作，没有时返回null
+     */
+    public PendingWrite pendingWrite(Object key) {
+        return pending.get(key);
+    }
+
+    /**
+     * 丢弃所有未刷出的写操作（整体清空缓存时使用）
+     */
+    public void discardPending() {
+        pending.clear();
+    }
+
+    /**
+     * 在刷出锁内执行远程操作，保证其不会与正在进行的刷出交错
+     */
+    public void runExclusive(Runnable task) {
+        flushLock.lock();
+        try {
+            task.run();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void enqueue(Object key, PendingWrite write) {
+        pending.put(key, write);
+        afterEnqueue();
+    }
+
+    private void afterEnqueue() {
+        int size = pending.size();
+        if (size >= maxPending) {
+            logger.warn("写缓冲已满，调用线程同步刷出: cache={}, pending={}", cacheName, size);
+            flush();
+        } else if (size >= batchSize) {
+            triggerFlush();
+        }
+    }
+
+    /**
+     * 异步触发一次刷出，线程池拒绝时在当前线程刷出
+     */
+    public void triggerFlush() {
+        if (pending.isEmpty() || !flushSubmitted.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                flushSubmitted.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            flushSubmitted.set(false);
+            logger.warn("缓存异步线程池已满，调用线程同步刷出: cache={}, pending={}", cacheName, pending.size());
+            flush();
+        }
+    }
+
+    /**
+     * 刷出当前缓冲区中的条目
+     * 只处理调用时已有的条目数量，避免持续写入时调用线程一直无法返回
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            int batches = pending.size() / batchSize + 1;
+            for (int i = 0; i < batches && !pending.isEmpty(); i++) {
+                flushBatch();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushBatch() {
+        Map<Object, PendingWrite> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<Object, PendingWrite>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<Object, PendingWrite> entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+        }
+
+        Map<Object, Object> puts = new LinkedHashMap<>();
+        List<Object> evicts = new ArrayList<>();
+        batch.forEach((key, write) -> {
+            if (write.isEvict()) {
+                evicts.add(key);
+            } else {
+                puts.put(key, write.getValue());
+            }
+        });
+
+        long start = System.nanoTime();
+        try {
+            writePuts(puts);
+            writeEvicts(evicts);
+        } finally {
+            // 只移除本批次写出的那一次操作，刷出期间同一key的新写入留待下一批
+            batch.forEach(pending::remove);
+            long elapsed = System.nanoTime() - start;
+            if (flushTimer != null) {
+                flushTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            logger.debug("写缓冲刷出完成: cache={}, puts={}, evicts={}, costMs={}",
+                    cacheName, puts.size(), evicts.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private void writePuts(Map<Object, Object> puts) {
+        if (puts.isEmpty()) {
+            return;
+        }
+        try {
+            if (remoteCache instanceof MultiKeyCache) {
+                ((MultiKeyCache) remoteCache).putAll(puts);
+            } else {
+                puts.forEach(remoteCache::put);
+            }
+        } catch (Exception e) {
+            logger.error("远程缓存批量更新失败: cache={}, count={}", cacheName, puts.size(), e);
+        } finally {
+            // 远程写入完成后再广播，避免其他节点从Redis读回旧值并回填本地
+            if (invalidationBus != null) {
+                invalidationBus.publishPutAll(cacheName, puts.keySet());
+            }
+        }
+    }
+
+    private void writeEvicts(List<Object> evicts) {
+        if (evicts.isEmpty()) {
+            return;
+        }
+        try {
+            if (remoteCache instanceof MultiKeyCache) {
+                ((MultiKeyCache) remoteCache).evictAll(evicts);
+            } else {
+                evicts.forEach(remoteCache::evict);
+            }
+        } catch (Exception e) {
+            logger.error("远程缓存批量清除失败: cache={}, count={}", cacheName, evicts.size(), e);
+        } finally {
+            if (invalidationBus != null) {
+                invalidationBus.publishEvictAll(cacheName, evicts);
+            }
+        }
+    }
+
+    /**
+     * 未刷出的写操作：写入某个值，或清除
+     */
+    public static final class PendingWrite {
+
+        private final boolean evict;
+        private final Object value;
+
+        private PendingWrite(boolean evict, Object value) {
+            this.evict = evict;
+            this.value = value;
+        }
+
+        // 每次写操作都是新实例，刷出后按实例移除时不会误删刷出期间的新写入
+        private static PendingWrite evict() {
+            return new PendingWrite(true, null);
+        }
+
+        private static PendingWrite put(Object value) {
+            return new PendingWrite(false, value);
+        }
+
+        public boolean isEvict() {
+            return evict;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.shared.cache.writebehind;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写缓冲定时刷出器
+ * 每隔 linger 时间触发所有已注册写缓冲的一次刷出；应用关闭时同步刷出剩余条目
+ */
+public class RemoteWriteFlusher implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteWriteFlusher.class);
+
+    private final List<RemoteWriteBuffer> buffers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+
+    public RemoteWriteFlusher(Duration linger) {
+        long lingerMillis = Math.max(1, linger.toMillis());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cache-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::tick, lingerMillis, lingerMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void register(RemoteWriteBuffer buffer) {
+        buffers.add(buffer);
+    }
+
+    private void tick() {
+        for (RemoteWriteBuffer buffer : buffers) {
+            try {
+                buffer.triggerFlush();
+            } catch (Exception e) {
+                // 定时任务抛出异常会被取消，这里必须吞掉
+                logger.error("触发写缓冲刷出失败", e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        for (RemoteWriteBuffer buffer : buffers) {
+            try {
+                buffer.flush();
+            } catch (Exception e) {
+                logger.warn("关闭时刷出写缓冲失败: {}", e.getMessage());
+            }
+        }
+    }
+}
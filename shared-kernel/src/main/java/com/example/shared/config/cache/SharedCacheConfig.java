@@ -1,26 +1,59 @@
 package com.example.shared.config.cache;
 
 import com.example.shared.cache.AsyncTwoLevelCache;
+import com.example.shared.cache.TimestampedValue;
+import com.example.shared.cache.endpoint.CacheAdminEndpoint;
+import com.example.shared.cache.metrics.CacheMetrics;
+import com.example.shared.cache.metrics.MicrometerCacheMetrics;
+import com.example.shared.cache.serializer.CacheTypeRegistry;
+import com.example.shared.cache.serializer.CompactCacheSerializer;
+import com.example.shared.cache.invalidation.CacheInvalidationBus;
+import com.example.shared.cache.invalidation.CacheInvalidationMessage;
+import com.example.shared.cache.invalidation.redis.RedisCacheInvalidationBus;
+import com.example.shared.cache.lease.CacheLoadLease;
+import com.example.shared.cache.namespace.CacheNamespaceEvict;
+import com.example.shared.cache.namespace.CacheNamespaceEvictInterceptor;
+import com.example.shared.cache.namespace.CacheNamespaces;
+import com.example.shared.cache.namespace.redis.RedisCacheNamespaceVersions;
+import com.example.shared.cache.redis.MultiKeyRedisCacheManager;
+import com.example.shared.cache.lease.redis.RedisCacheLoadLease;
+import com.example.shared.cache.writebehind.RemoteWriteBuffer;
+import com.example.shared.cache.writebehind.RemoteWriteFlusher;
 import com.example.shared.config.properties.CacheProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -45,7 +78,7 @@ public class SharedCacheConfig {
 
     /**
      * 配置本地缓存管理器 (Caffeine)
-     * 使用动态缓存创建，支持任意缓存名称
+     * 使用动态缓存创建，支持任意缓存名称；app.cache.specs 中单独配置的缓存按各自策略创建
      */
     @Bean
     public CacheManager caffeineCacheManager(CacheProperties cacheProperties) {
@@ -55,37 +88,101 @@ public class SharedCacheConfig {
                 .expireAfterWrite(config.getExpireAfterWrite())  // 使用配置的过期时间
                 .maximumSize(config.getMaximumSize())            // 使用配置的最大条目数
                 .recordStats());                                 // 启用统计
+
+        cacheProperties.getSpecs().forEach((name, spec) -> {
+            if (spec.getMode() != CacheProperties.Mode.REMOTE_ONLY) {
+                mgr.registerCustomCache(name, buildLocalCache(config, spec));
+            }
+        });
         return mgr;
     }
 
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> buildLocalCache(CacheProperties.Local defaults,
+                                                                                     CacheProperties.Spec spec) {
+        Duration expireAfterWrite = spec.getLocalExpireAfterWrite() != null
+                ? spec.getLocalExpireAfterWrite() : defaults.getExpireAfterWrite();
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats();
+        if (spec.getLocalMaximumWeight() != null) {
+            builder.maximumWeight(spec.getLocalMaximumWeight())
+                    .weigher((key, value) -> weigh(value));
+        } else {
+            builder.maximumSize(spec.getLocalMaximumSize() != null
+                    ? spec.getLocalMaximumSize() : defaults.getMaximumSize());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 估算本地缓存条目权重：集合/Map按元素个数，其余按1
+     */
+    private static int weigh(Object value) {
+        if (value instanceof TimestampedValue) {
+            value = ((TimestampedValue) value).getValue();
+        }
+        if (value instanceof Collection) {
+            return Math.max(1, ((Collection<?>) value).size());
+        }
+        if (value instanceof Map) {
+            return Math.max(1, ((Map<?, ?>) value).size());
+        }
+        return 1;
+    }
+
     /**
      * 配置Redis缓存管理器作为二级缓存
-     * 使用动态缓存创建，支持任意缓存名称
+     * 使用动态缓存创建，支持任意缓存名称；app.cache.specs 中可按缓存覆盖过期时间和编码方式
      */
     @Bean
     public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
                                          @Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper,
                                          CacheProperties cacheProperties) {
+        CacheProperties.Redis redisConfig = cacheProperties.getRedis();
+
         // 使用配置好的Redis专用ObjectMapper创建序列化器，支持Java 8日期时间类型和类型信息
         GenericJackson2JsonRedisSerializer jsonRedisSerializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper);
+        CompactCacheSerializer compactSerializer = createCompactSerializer(redisConfig.getCompact(), jsonRedisSerializer);
 
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(cacheProperties.getRedis().getTtl())  // 使用配置的过期时间
+                .entryTtl(redisConfig.getTtl())  // 使用配置的过期时间
                 .computePrefixWith(name -> name + "::")  // cacheName::key 格式
-                .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(jsonRedisSerializer)
-                );
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        redisConfig.getCodec() == CacheProperties.Codec.COMPACT ? compactSerializer : jsonRedisSerializer));
+
+        Map<String, RedisCacheConfiguration> perCacheConfigs = new HashMap<>();
+        cacheProperties.getSpecs().forEach((name, spec) -> {
+            RedisCacheConfiguration cacheConfig = config;
+            if (spec.getRedisTtl() != null) {
+                cacheConfig = cacheConfig.entryTtl(spec.getRedisTtl());
+            }
+            if (spec.getCodec() != null) {
+                cacheConfig = cacheConfig.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        spec.getCodec() == CacheProperties.Codec.COMPACT ? compactSerializer : jsonRedisSerializer));
+            }
+            if (cacheConfig != config) {
+                perCacheConfigs.put(name, cacheConfig);
+            }
+        });
+
+        // 支持 MGET / 管道写入 / 多key DEL 的批量操作
+        return new MultiKeyRedisCacheManager(connectionFactory, config, perCacheConfigs);
+    }
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
+    private CompactCacheSerializer createCompactSerializer(CacheProperties.Compact compactConfig,
+                                                           GenericJackson2JsonRedisSerializer legacySerializer) {
+        CacheTypeRegistry typeRegistry = new CacheTypeRegistry();
+        compactConfig.getTypeIds().forEach(typeRegistry::register);
+        return new CompactCacheSerializer(typeRegistry, compactConfig.getCompressionThreshold(),
+                compactConfig.isReadLegacyJson() ? legacySerializer : null);
     }
 
     /**
      * 配置异步缓存操作的线程池
      */
     @Bean
-    public Executor cacheAsyncExecutor(CacheProperties cacheProperties) {
+    public Executor cacheAsyncExecutor(CacheProperties cacheProperties,
+                                       ObjectProvider<MeterRegistry> meterRegistryProvider) {
         CacheProperties.Async config = cacheProperties.getAsync();
         ThreadPoolExecutor executor = new ThreadPoolExecutor(
                 config.getCorePoolSize(),
@@ -98,33 +195,179 @@ public class SharedCacheConfig {
                     t.setDaemon(true);
                     return t;
                 });
+        // 线程池队列长度、活跃线程数等指标（executor.queued 等，name=cacheAsyncExecutor）
+        meterRegistryProvider.ifAvailable(registry ->
+                new ExecutorServiceMetrics(executor, "cacheAsyncExecutor", Collections.emptyList()).bindTo(registry));
         return executor;
     }
 
+    /**
+     * 配置跨节点本地缓存失效总线（Redis Pub/Sub）
+     * 收到其他节点的失效消息后，直接清除本节点Caffeine中对应的条目
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheInvalidationBus cacheInvalidationBus(RedisConnectionFactory connectionFactory,
+                                                     @Qualifier("redisTemplate") RedisTemplate<String, Object> redisTemplate,
+                                                     @Qualifier("caffeineCacheManager") CacheManager localCacheManager,
+                                                     CacheProperties cacheProperties) {
+        RedisCacheInvalidationBus bus = new RedisCacheInvalidationBus(
+                connectionFactory, redisTemplate, cacheProperties.getInvalidation().getChannel());
+        bus.subscribe(message -> {
+            // 本节点没有用过的缓存无需处理，也避免为其创建空缓存
+            if (!localCacheManager.getCacheNames().contains(message.getCacheName())) {
+                return;
+            }
+            Cache localCache = localCacheManager.getCache(message.getCacheName());
+            if (localCache == null) {
+                return;
+            }
+            if (message.getType() == CacheInvalidationMessage.Type.CLEAR) {
+                localCache.clear();
+            } else {
+                localCache.evict(message.getKey());
+            }
+        });
+        return bus;
+    }
+
+    /**
+     * 配置远程缓存写缓冲的定时刷出器
+     * 依赖redisCacheManager，保证应用关闭时先刷出剩余写入再关闭Redis连接
+     */
+    @Bean
+    @DependsOn("redisCacheManager")
+    @ConditionalOnProperty(name = "app.cache.write-behind.enabled", havingValue = "true", matchIfMissing = true)
+    public RemoteWriteFlusher cacheRemoteWriteFlusher(CacheProperties cacheProperties) {
+        return new RemoteWriteFlusher(cacheProperties.getWriteBehind().getLinger());
+    }
+
+    /**
+     * 配置跨节点缓存加载租约，避免缓存过期时多个副本同时执行昂贵的重算
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.load-lease.enabled", havingValue = "true")
+    public CacheLoadLease cacheLoadLease(@Qualifier("redisTemplate") RedisTemplate<String, Object> redisTemplate,
+                                        CacheProperties cacheProperties) {
+        return new RedisCacheLoadLease(redisTemplate, cacheProperties.getLoadLease().getLeaseTime());
+    }
+
+    /**
+     * 配置命名空间分代失效，缓存key中可通过 @cacheNamespaces.key(...) 引用
+     */
+    @Bean
+    public CacheNamespaces cacheNamespaces(@Qualifier("redisTemplate") RedisTemplate<String, Object> redisTemplate,
+                                           CacheManager cacheManager,
+                                           ObjectProvider<CacheInvalidationBus> invalidationBusProvider,
+                                           CacheProperties cacheProperties) {
+        CacheProperties.Namespace config = cacheProperties.getNamespace();
+        return new CacheNamespaces(new RedisCacheNamespaceVersions(redisTemplate, config.getVersionTtl()),
+                cacheManager, invalidationBusProvider.getIfAvailable(), config.getLocalVersionTtl());
+    }
+
+    /**
+     * 为标注了 @CacheNamespaceEvict 的方法织入失效逻辑
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor cacheNamespaceEvictAdvisor(ObjectProvider<CacheNamespaces> cacheNamespacesProvider) {
+        return new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(CacheNamespaceEvict.class),
+                new CacheNamespaceEvictInterceptor(cacheNamespacesProvider));
+    }
+
+    /**
+     * 缓存运维端点：查看各缓存条目数与热点key，运行时按key或前缀清除
+     * 默认不通过HTTP暴露，需要在 management.endpoints.web.exposure.include 中加入 cacheadmin，
+     * 访问要求 ADMIN 角色（见各服务的 SecurityConfig）
+     */
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public CacheAdminEndpoint cacheAdminEndpoint(CacheManager cacheManager) {
+        return new CacheAdminEndpoint(cacheManager);
+    }
+
     /**
      * 配置二级异步缓存管理器
      * 读操作：先本地缓存，再远程缓存，回填本地
-     * 写操作：立刻更新本地缓存，异步更新远程缓存
+     * 写操作：立刻更新本地缓存，远程写入经写缓冲按key合并后批量刷出，完成后广播失效消息
+     * 每个缓存按 app.cache.specs 中的策略创建：层级模式、写入模式、软过期时间、负缓存时间
      */
     @Bean
     @Primary
     public CacheManager twoLevelAsyncCacheManager(
             @Qualifier("caffeineCacheManager") CacheManager localCacheManager,
             @Qualifier("redisCacheManager") CacheManager remoteCacheManager,
-            Executor cacheAsyncExecutor) {
+            Executor cacheAsyncExecutor,
+            ObjectProvider<CacheInvalidationBus> invalidationBusProvider,
+            ObjectProvider<CacheLoadLease> loadLeaseProvider,
+            ObjectProvider<RemoteWriteFlusher> writeFlusherProvider,
+            ObjectProvider<MeterRegistry> meterRegistryProvider,
+            ObjectProvider<CacheMetricsRegistrar> cacheMetricsRegistrarProvider,
+            CacheProperties cacheProperties) {
+
+        CacheInvalidationBus invalidationBus = invalidationBusProvider.getIfAvailable();
+        CacheLoadLease loadLease = loadLeaseProvider.getIfAvailable();
+        RemoteWriteFlusher writeFlusher = writeFlusherProvider.getIfAvailable();
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        CacheMetricsRegistrar cacheMetricsRegistrar = cacheMetricsRegistrarProvider.getIfAvailable();
+        CacheProperties.WriteBehind writeBehind = cacheProperties.getWriteBehind();
+        Duration leaseWaitTime = cacheProperties.getLoadLease().getWaitTime();
 
         return new CacheManager() {
+            // 每个缓存名称只创建一个实例，保证同一key的并发加载能够合并
+            private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
             @Override
             public Cache getCache(String name) {
-                Cache localCache = localCacheManager.getCache(name);
+                return caches.computeIfAbsent(name, this::createCache);
+            }
+
+            private Cache createCache(String name) {
+                CacheProperties.Spec spec = cacheProperties.specFor(name);
+                if (spec.getMode() == CacheProperties.Mode.LOCAL_ONLY) {
+                    return bindLocalStats(localCacheManager.getCache(name));
+                }
+                if (spec.getMode() == CacheProperties.Mode.REMOTE_ONLY) {
+                    return remoteCacheManager.getCache(name);
+                }
+
+                Cache localCache = bindLocalStats(localCacheManager.getCache(name));
                 Cache remoteCache = remoteCacheManager.getCache(name);
                 if (localCache != null && remoteCache != null) {
-                    return new AsyncTwoLevelCache(name, localCache, remoteCache, cacheAsyncExecutor);
+                    boolean syncWrite = spec.getWriteMode() == CacheProperties.WriteMode.SYNC;
+                    // 异步写入模式下，远程写操作经写缓冲按key合并后批量刷出
+                    RemoteWriteBuffer writeBuffer = null;
+                    if (!syncWrite && writeFlusher != null) {
+                        writeBuffer = new RemoteWriteBuffer(name, remoteCache, cacheAsyncExecutor, invalidationBus,
+                                writeBehind.getBatchSize(), writeBehind.getMaxPending(), meterRegistry);
+                        writeFlusher.register(writeBuffer);
+                    }
+                    CacheMetrics metrics = meterRegistry != null
+                            ? new MicrometerCacheMetrics(meterRegistry, name) : CacheMetrics.NOOP;
+                    return AsyncTwoLevelCache.builder(name, localCache, remoteCache, cacheAsyncExecutor)
+                            .invalidationBus(invalidationBus)
+                            .loadLease(loadLease, leaseWaitTime)
+                            .refreshAfter(spec.getRefreshAfter())
+                            .syncWrite(syncWrite)
+                            .writeBuffer(writeBuffer)
+                            .metrics(metrics)
+                            .negativeTtl(spec.getNegativeTtl())
+                            .build();
                 }
                 // 兜底：只有本地或只有远程
                 return localCache != null ? localCache : remoteCache;
             }
 
+            /**
+             * 动态创建的本地缓存不会被启动时的自动绑定覆盖，这里补充绑定Caffeine统计（cache.gets、cache.evictions等）
+             */
+            private Cache bindLocalStats(Cache localCache) {
+                if (localCache != null && cacheMetricsRegistrar != null) {
+                    cacheMetricsRegistrar.bindCacheToRegistry(localCache, Tag.of("cache.manager", "caffeine"));
+                }
+                return localCache;
+            }
+
             @Override
             public Collection<String> getCacheNames() {
                 // 两个管理器的缓存名合集
@@ -0,0 +1,24 @@
+package com.example.shared.config.mbplus;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.injector.DefaultSqlInjector;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.extension.injector.methods.InsertBatchSomeColumn;
+
+import java.util.List;
+
+/**
+ * 在默认方法之外为所有Mapper注入多行插入方法 insertBatchSomeColumn
+ * 只有继承 {@link com.example.shared.mapper.BatchBaseMapper} 的Mapper才能调用到该方法
+ */
+public class BatchSqlInjector extends DefaultSqlInjector {
+
+    @Override
+    public List<AbstractMethod> getMethodList(Class<?> mapperClass, TableInfo tableInfo) {
+        List<AbstractMethod> methodList = super.getMethodList(mapperClass, tableInfo);
+        // 仅在更新时填充的字段不参与插入
+        methodList.add(new InsertBatchSomeColumn(field -> field.getFieldFill() != FieldFill.UPDATE));
+        return methodList;
+    }
+}
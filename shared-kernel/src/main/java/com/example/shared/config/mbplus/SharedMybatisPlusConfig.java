@@ -1,14 +1,16 @@
 package com.example.shared.config.mbplus;
 
 import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.injector.ISqlInjector;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * MyBatis-Plus公共配置类
- * 提供MyBatis-Plus分页插件等公共配置
+ * 提供MyBatis-Plus分页插件、批量插入方法注入等公共配置
  */
 @Configuration
 public class SharedMybatisPlusConfig {
@@ -24,4 +26,14 @@ public class SharedMybatisPlusConfig {
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
         return interceptor;
     }
+
+    /**
+     * 配置SQL注入器
+     * 为继承 BatchBaseMapper 的Mapper提供多行插入方法
+     */
+    @Bean
+    @ConditionalOnMissingBean(ISqlInjector.class)
+    public ISqlInjector sqlInjector() {
+        return new BatchSqlInjector();
+    }
 }
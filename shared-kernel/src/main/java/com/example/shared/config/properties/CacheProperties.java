@@ -3,6 +3,8 @@ package com.example.shared.config.properties;
 import lombok.Data;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 缓存系统配置属性类
@@ -26,6 +28,42 @@ public class CacheProperties {
      */
     private Async async = new Async();
 
+    /**
+     * 远程缓存写缓冲配置
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * 跨节点本地缓存失效配置
+     */
+    private Invalidation invalidation = new Invalidation();
+
+    /**
+     * 跨节点加载租约配置
+     */
+    private LoadLease loadLease = new LoadLease();
+
+    /**
+     * 命名空间分代失效配置
+     */
+    private Namespace namespace = new Namespace();
+
+    /**
+     * 按缓存名称覆盖的策略，key为缓存名称（如 foodCategory、fileUrl），未配置的缓存使用全局配置
+     */
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    /**
+     * 获取指定缓存的策略，未单独配置时返回全部采用全局配置的默认策略
+     *
+     * @param cacheName 缓存名称
+     * @return 缓存策略
+     */
+    public Spec specFor(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec != null ? spec : new Spec();
+    }
+
     /**
      * 本地缓存配置
      */
@@ -51,6 +89,48 @@ public class CacheProperties {
          * 缓存过期时间（TTL）
          */
         private Duration ttl = Duration.ofMinutes(30);
+
+        /**
+         * 缓存值编码方式，可在 specs 中按缓存覆盖
+         */
+        private Codec codec = Codec.JSON;
+
+        /**
+         * 紧凑编码配置
+         */
+        private Compact compact = new Compact();
+    }
+
+    /**
+     * 紧凑编码配置（Smile二进制 + 类型短ID + LZ4压缩）
+     */
+    @Data
+    public static class Compact {
+        /**
+         * 编码结果超过该字节数时使用LZ4压缩，小于等于0表示不压缩
+         */
+        private int compressionThreshold = 1024;
+
+        /**
+         * 是否兼容读取旧的JSON编码数据，从JSON切换到紧凑编码期间应保持开启，直到旧数据全部过期
+         */
+        private boolean readLegacyJson = true;
+
+        /**
+         * 缓存值类型的短ID，key为ID（不小于100），value为全限定类名
+         * ID一经使用不可修改或复用；读写同一缓存的服务必须使用相同的配置
+         */
+        private Map<Integer, String> typeIds = new LinkedHashMap<>();
+    }
+
+    /**
+     * Redis缓存值编码方式
+     */
+    public enum Codec {
+        /** 带类型信息的JSON（GenericJackson2JsonRedisSerializer） */
+        JSON,
+        /** 紧凑二进制编码（CompactCacheSerializer） */
+        COMPACT
     }
 
     /**
@@ -78,4 +158,162 @@ public class CacheProperties {
          */
         private int queueCapacity = 1000;
     }
+
+    /**
+     * 远程缓存写缓冲配置（仅对异步写入模式的二级缓存生效）
+     * 同一key的多次写入只保留最后一次，按批次管道写入Redis
+     */
+    @Data
+    public static class WriteBehind {
+        /**
+         * 是否启用写缓冲，关闭时每次写操作单独提交到异步线程池
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每批刷出的最大条目数，待写条目达到该值时立即触发刷出
+         */
+        private int batchSize = 100;
+
+        /**
+         * 最长等待时间，未攒满一批的条目在该时间后刷出
+         */
+        private Duration linger = Duration.ofMillis(50);
+
+        /**
+         * 每个缓存最多缓冲的条目数，超过后由调用线程同步刷出（背压）
+         */
+        private int maxPending = 10000;
+    }
+
+    /**
+     * 跨节点本地缓存失效配置
+     */
+    @Data
+    public static class Invalidation {
+        /**
+         * 是否启用失效广播（多副本部署时应开启，否则其他节点会读到本地旧值直到过期）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 失效消息使用的Redis频道
+         */
+        private String channel = "cache-invalidation";
+    }
+
+    /**
+     * 跨节点加载租约配置
+     * 开启后同一key在整个集群内同一时刻只有一个节点执行加载，其他节点等待远程缓存回填
+     */
+    @Data
+    public static class LoadLease {
+        /**
+         * 是否启用跨节点加载租约（默认关闭，仅进程内合并并发加载）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 租约持有时间，应大于最慢一次加载的耗时
+         */
+        private Duration leaseTime = Duration.ofSeconds(30);
+
+        /**
+         * 未拿到租约的节点最长等待时间，超时后自行加载
+         */
+        private Duration waitTime = Duration.ofSeconds(3);
+    }
+
+    /**
+     * 命名空间分代失效配置
+     */
+    @Data
+    public static class Namespace {
+        /**
+         * 各节点本地记住命名空间版本号的时间；开启失效广播时版本变化会立即通知，这里只是兜底
+         */
+        private Duration localVersionTtl = Duration.ofSeconds(5);
+
+        /**
+         * Redis中版本号key的过期时间，每次递增后续期，必须大于所有缓存条目的TTL
+         */
+        private Duration versionTtl = Duration.ofDays(1);
+    }
+
+    /**
+     * 单个缓存的策略，未设置的项回退到全局配置
+     */
+    @Data
+    public static class Spec {
+        /**
+         * 缓存层级模式
+         */
+        private Mode mode = Mode.TWO_LEVEL;
+
+        /**
+         * 远程缓存写入模式
+         */
+        private WriteMode writeMode = WriteMode.ASYNC;
+
+        /**
+         * 本地缓存写入后过期时间，为空时使用 local.expire-after-write
+         */
+        private Duration localExpireAfterWrite;
+
+        /**
+         * 本地缓存最大条目数，为空时使用 local.maximum-size
+         */
+        private Long localMaximumSize;
+
+        /**
+         * 本地缓存最大权重，设置后代替最大条目数；集合/Map类型的值按元素个数计权重，其余值计1
+         * 适合单个条目大小差异很大的缓存（如分页列表）
+         */
+        private Long localMaximumWeight;
+
+        /**
+         * Redis缓存过期时间，为空时使用 redis.ttl
+         */
+        private Duration redisTtl;
+
+        /**
+         * Redis缓存值编码方式，为空时使用 redis.codec
+         */
+        private Codec codec;
+
+        /**
+         * 软过期时间（refresh-ahead / stale-while-revalidate），为空时不启用
+         * 条目超过该时间后仍直接返回旧值，同时在后台重新加载一次，避免昂贵条目过期时的延迟尖刺；
+         * 只对 @Cacheable(sync = true) 的方法生效，应明显小于本地缓存和Redis的过期时间
+         */
+        private Duration refreshAfter;
+
+        /**
+         * 负缓存时间：方法返回null时以占位缓存该时长（本地与Redis），防止不存在的ID反复穿透数据库；
+         * 为空时null结果不缓存。使用时不要在 @Cacheable 上写 unless = "#result == null"
+         */
+        private Duration negativeTtl;
+    }
+
+    /**
+     * 缓存层级模式
+     */
+    public enum Mode {
+        /** 本地 + Redis 二级缓存 */
+        TWO_LEVEL,
+        /** 仅本地缓存，各节点独立，不写Redis */
+        LOCAL_ONLY,
+        /** 仅Redis缓存，适合各节点必须看到同一份数据的场景 */
+        REMOTE_ONLY
+    }
+
+    /**
+     * 远程缓存写入模式
+     */
+    public enum WriteMode {
+        /** 本地立即写入，Redis在异步线程池中写入 */
+        ASYNC,
+        /** 在调用线程中同步写入Redis并广播失效，写操作返回时其他节点即可读到新值 */
+        SYNC
+    }
 }
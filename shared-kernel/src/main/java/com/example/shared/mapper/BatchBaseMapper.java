@@ -0,0 +1,51 @@
+package com.example.shared.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 支持多行插入的通用Mapper
+ * 一条 INSERT ... VALUES (...), (...) 语句写入多行，自增主键会回填到实体中。
+ * 注意：实体中为null的字段也会按null写入，不会使用数据库列默认值。
+ */
+public interface BatchBaseMapper<T> extends BaseMapper<T> {
+
+    /**
+     * 单条语句批量插入的默认行数，避免语句超过 max_allowed_packet
+     */
+    int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * 多行插入，由 {@link com.example.shared.config.mbplus.BatchSqlInjector} 注入
+     * 集合不能为空，调用方一般使用 {@link #insertBatch(List)}
+     */
+    int insertBatchSomeColumn(Collection<T> entityList);
+
+    /**
+     * 按 {@link #DEFAULT_BATCH_SIZE} 分批多行插入，空集合直接返回
+     *
+     * @return 插入的行数
+     */
+    default int insertBatch(List<T> entityList) {
+        return insertBatch(entityList, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 按指定行数分批多行插入，空集合直接返回
+     *
+     * @return 插入的行数
+     */
+    default int insertBatch(List<T> entityList, int batchSize) {
+        if (entityList == null || entityList.isEmpty()) {
+            return 0;
+        }
+        int size = Math.max(1, batchSize);
+        int count = 0;
+        for (int i = 0; i < entityList.size(); i += size) {
+            count += insertBatchSomeColumn(entityList.subList(i, Math.min(i + size, entityList.size())));
+        }
+        return count;
+    }
+}
@@ -17,15 +17,30 @@ import java.util.List;
 public class PageResult<T> implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private long total;       // 总记录数
+    /**
+     * 未统计总数时 total 的取值
+     */
+    public static final long TOTAL_UNKNOWN = -1;
+
+    private long total;       // 总记录数，未统计时为 TOTAL_UNKNOWN
     private List<T> records;  // 当前页数据
-    private int current;      // 当前页码
+    private int current;      // 当前页码，游标分页时为0
     private int size;         // 页大小
+    private String nextCursor; // 游标分页时下一页的游标，没有更多数据时为null
 
     /**
      * 创建分页结果
      */
     public static <T> PageResult<T> of(List<T> records, long total, int current, int size) {
-        return new PageResult<>(total, records, current, size);
+        return new PageResult<>(total, records, current, size, null);
+    }
+
+    /**
+     * 创建游标分页结果
+     *
+     * @param nextCursor 下一页的游标，没有更多数据时为null
+     */
+    public static <T> PageResult<T> ofCursor(List<T> records, long total, int size, String nextCursor) {
+        return new PageResult<>(total, records, 0, size, nextCursor);
     }
 }
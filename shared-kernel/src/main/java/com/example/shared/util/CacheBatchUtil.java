@@ -0,0 +1,84 @@
+package com.example.shared.util;
+
+import com.example.shared.cache.MultiKeyCache;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 缓存批量操作工具类
+ * 缓存支持 {@link MultiKeyCache} 时走批量接口（一次远程往返），否则退化为逐个key操作
+ */
+public final class CacheBatchUtil {
+
+    private CacheBatchUtil() {
+    }
+
+    /**
+     * 批量读取
+     *
+     * @param cacheManager 缓存管理器
+     * @param cacheName 缓存名称
+     * @param keys 缓存key集合
+     * @return 命中的条目，未命中的key不包含在结果中
+     */
+    public static Map<Object, Object> getAll(CacheManager cacheManager, String cacheName, Collection<?> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (cache instanceof MultiKeyCache) {
+            return ((MultiKeyCache) cache).getAll(keys);
+        }
+        Map<Object, Object> result = new LinkedHashMap<>();
+        for (Object key : keys) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (wrapper != null) {
+                result.put(key, wrapper.get());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量写入
+     *
+     * @param cacheManager 缓存管理器
+     * @param cacheName 缓存名称
+     * @param entries 缓存条目
+     */
+    public static void putAll(CacheManager cacheManager, String cacheName, Map<?, ?> entries) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || entries.isEmpty()) {
+            return;
+        }
+        if (cache instanceof MultiKeyCache) {
+            ((MultiKeyCache) cache).putAll(entries);
+        } else {
+            entries.forEach(cache::put);
+        }
+    }
+
+    /**
+     * 批量清除
+     *
+     * @param cacheManager 缓存管理器
+     * @param cacheName 缓存名称
+     * @param keys 缓存key集合
+     */
+    public static void evictAll(CacheManager cacheManager, String cacheName, Collection<?> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || keys.isEmpty()) {
+            return;
+        }
+        if (cache instanceof MultiKeyCache) {
+            ((MultiKeyCache) cache).evictAll(keys);
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.shared.cache;
+
+import com.example.shared.cache.lease.CacheLoadLease;
+import com.example.shared.cache.metrics.MicrometerCacheMetrics;
+import com.example.shared.cache.namespace.CacheNamespaces;
+import com.example.shared.cache.writebehind.RemoteWriteBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 二级缓存测试
+ */
+public class AsyncTwoLevelCacheTest {
+
+    private AsyncTwoLevelCache newCache() {
+        return AsyncTwoLevelCache.builder("test", new ConcurrentMapCache("local"),
+                new ConcurrentMapCache("remote"), Runnable::run).build();
+    }
+
+    @Test
+    public void testGetWithLoader_ConcurrentMissesLoadOnce() throws Exception {
+        AsyncTwoLevelCache cache = newCache();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> cache.get("allTrend_year", () -> {
+                    loads.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "trend";
+                })));
+            }
+            // 等待所有调用方进入加载或等待状态后再放行加载
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("trend", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals("trend", cache.getRemoteCache().get("allTrend_year").get());
+    }
+
+    @Test
+    public void testGetWithLoader_FailurePropagatesAndNextCallRetries() {
+        AsyncTwoLevelCache cache = newCache();
+
+        assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get("compliance", () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertEquals("ok", cache.get("compliance", () -> "ok"));
+    }
+
+    @Test
+    public void testGetWithLoader_StaleEntryServedAndRefreshedInBackground() throws Exception {
+        AsyncTwoLevelCache cache = AsyncTwoLevelCache.builder("test", new ConcurrentMapCache("local"),
+                new ConcurrentMapCache("remote"), Runnable::run).refreshAfter(Duration.ofMillis(10)).build();
+        cache.put("compliance_2024-01-01", 0.5);
+        Thread.sleep(20);
+
+        // 过了软过期时间：先返回旧值，后台刷新（同步执行器下立即完成）写入新值
+        assertEquals(0.5, cache.get("compliance_2024-01-01", () -> 0.8));
+        assertEquals(0.8, cache.get("compliance_2024-01-01").get());
+    }
+
+    @Test
+    public void testGet_RemoteFailureTreatedAsMiss() {
+        Cache brokenRemote = new ConcurrentMapCache("remote") {
+            @Override
+            public ValueWrapper get(Object key) {
+                throw new IllegalStateException("redis down");
+            }
+        };
+        AsyncTwoLevelCache cache = AsyncTwoLevelCache.builder("test", new ConcurrentMapCache("local"),
+                brokenRemote, Runnable::run).build();
+
+        assertNull(cache.get("detail_1"));
+        assertEquals("loaded", cache.get("detail_1", () -> "loaded"));
+    }
+
+    @Test
+    public void testPut_SyncWriteUpdatesRemoteOnCallerThread() {
+        // 异步执行器永远不执行任务，同步写入模式下远程缓存仍应立即更新
+        AsyncTwoLevelCache cache = AsyncTwoLevelCache.builder("test", new ConcurrentMapCache("local"),
+                new ConcurrentMapCache("remote"), task -> { }).syncWrite(true).build();
+
+        cache.put("detail_1", "record");
+
+        assertEquals("record", cache.getRemoteCache().get("detail_1").get());
+    }
+
+    @Test
+    public void testMultiKey_GetAllBackfillsLocalFromRemote() {
+        AsyncTwoLevelCache cache = newCache();
+        cache.putAll(Collections.singletonMap("daily_1", "stat1"));
+        cache.getRemoteCache().put("daily_2", "stat2");
+
+        Map<Object, Object> hits = cache.getAll(Arrays.asList("daily_1", "daily_2", "daily_3"));
+
+        assertEquals(2, hits.size());
+        assertEquals("stat1", hits.get("daily_1"));
+        assertEquals("stat2", hits.get("daily_2"));
+        assertEquals("stat2", cache.getLocalCache().get("daily_2").get());
+
+        cache.evictAll(Arrays.asList("daily_1", "daily_2"));
+        assertTrue(cache.getAll(Arrays.asList("daily_1", "daily_2")).isEmpty());
+        assertNull(cache.getRemoteCache().get("daily_1"));
+    }
+
+    @Test
+    public void testWriteBehind_CoalescesWritesPerKey() {
+        AtomicInteger remotePuts = new AtomicInteger();
+        Cache remote = new ConcurrentMapCache("remote") {
+            @Override
+            public void put(Object key, Object value) {
+                remotePuts.incrementAndGet();
+                super.put(key, value);
+            }
+        };
+        // 执行器不执行任务，只有手动flush才会写远程
+        RemoteWriteBuffer buffer = new RemoteWriteBuffer("test", remote, task -> { }, null, 100, 1000, null);
+        AsyncTwoLevelCache cache = AsyncTwoLevelCache.builder("test", new ConcurrentMapCache("local"), remote,
+                task -> { }).writeBuffer(buffer).build();
+
+        cache.put("daily_1", "v1");
+        cache.put("daily_1", "v2");
+        cache.evict("daily_2");
+        assertEquals(2, buffer.pendingCount());
+
+        buffer.flush();
+
+        assertEquals(0, buffer.pendingCount());
+        assertEquals(1, remotePuts.get());
+        assertEquals("v2", remote.get("daily_1").get());
+    }
+
+    @Test
+    public void testWriteBehind_RejectedExecutorFlushesOnCallerThread() {
+        Cache remote = new ConcurrentMapCache("remote");
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("queue full");
+        };
+        RemoteWriteBuffer buffer = new RemoteWriteBuffer("test", remote, rejecting, null, 1, 1000, null);
+        AsyncTwoLevelCache cache = AsyncTwoLevelCache.builder("test", new ConcurrentMapCache("local"), remote,
+                rejecting).writeBuffer(buffer).build();
+
+        cache.put("detail_1", "record");
+
+        assertEquals("record", remote.get("detail_1").get());
+        // 清空操作被线程池拒绝时同样退化为同步执行
+        cache.clear();
+        assertNull(remote.get("detail_1"));
+    }
+
+    @Test
+    public void testMetrics_RecordsHitsPerTierAndBackfill() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Cache remote = new ConcurrentMapCache("remote");
+        remote.put("daily_1", "stat");
+        AsyncTwoLevelCache cache = AsyncTwoLevelCache.builder("nutritionStat", new ConcurrentMapCache("local"), remote,
+                Runnable::run).metrics(new MicrometerCacheMetrics(registry, "nutritionStat")).build();
+
+        cache.get("daily_1");
+        cache.get("daily_1");
+        cache.get("daily_2");
+
+        assertEquals(1.0, tierGets(registry, "local", "hit"));
+        assertEquals(2.0, tierGets(registry, "local", "miss"));
+        assertEquals(1.0, tierGets(registry, "remote", "hit"));
+        assertEquals(1.0, tierGets(registry, "remote", "miss"));
+        assertEquals(1.0, registry.get("cache.backfills").counter().count());
+    }
+
+    private double tierGets(SimpleMeterRegistry registry, String tier, String result) {
+        return registry.get("cache.tier.gets").tags("cache", "nutritionStat", "tier", tier, "result", result)
+                .counter().count();
+    }
+
+    @Test
+    public void testNegativeCache_NullCachedUntilNegativeTtlExpires() throws Exception {
+        AsyncTwoLevelCache cache = AsyncTwoLevelCache.builder("test", new ConcurrentMapCache("local"),
+                new ConcurrentMapCache("remote"), Runnable::run).negativeTtl(Duration.ofMillis(50)).build();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("detail_404", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        // 负缓存有效期内：命中null，不再执行加载
+        assertNotNull(cache.get("detail_404"));
+        assertNull(cache.get("detail_404").get());
+        assertNull(cache.get("detail_404", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(1, loads.get());
+
+        Thread.sleep(80);
+        assertNull(cache.get("detail_404"));
+        assertEquals("created", cache.get("detail_404", () -> "created"));
+    }
+
+    @Test
+    public void testNegativeCache_DisabledDoesNotCacheNull() {
+        AsyncTwoLevelCache cache = newCache();
+        cache.put("detail_1", "record");
+
+        cache.put("detail_1", null);
+
+        assertNull(cache.get("detail_1"));
+        assertNull(cache.getRemoteCache().get("detail_1"));
+    }
+
+    @Test
+    public void testUncacheableKey_NeverStored() {
+        AsyncTwoLevelCache cache = newCache();
+        String key = "u1" + CacheNamespaces.UNCACHEABLE_MARKER + "records";
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("fresh", cache.get(key, () -> {
+            loads.incrementAndGet();
+            return "fresh";
+        }));
+        assertEquals("fresh", cache.get(key, () -> {
+            loads.incrementAndGet();
+            return "fresh";
+        }));
+        cache.put(key, "stale");
+        cache.putAll(Collections.singletonMap(key, "stale"));
+
+        assertEquals(2, loads.get());
+        assertNull(cache.get(key));
+        assertTrue(cache.getAll(Collections.singletonList(key)).isEmpty());
+        assertNull(cache.getLocalCache().get(key));
+        assertNull(cache.getRemoteCache().get(key));
+    }
+
+    @Test
+    public void testLeaseHolder_WritesRemoteBeforeRelease() throws Exception {
+        Cache remote = new ConcurrentMapCache("remote");
+        // 不会自动刷出的写缓冲
+        RemoteWriteBuffer buffer = new RemoteWriteBuffer("test", remote, task -> { }, null, 100, 1000, null);
+        List<Object> remoteAtRelease = new ArrayList<>();
+        CacheLoadLease lease = new CacheLoadLease() {
+            @Override
+            public String tryAcquire(String cacheName, Object key) {
+                return "token";
+            }
+
+            @Override
+            public void release(String cacheName, Object key, String token) {
+                Cache.ValueWrapper value = remote.get(key);
+                remoteAtRelease.add(value != null ? value.get() : null);
+            }
+        };
+        AsyncTwoLevelCache cache = AsyncTwoLevelCache.builder("test", new ConcurrentMapCache("local"), remote, task -> { })
+                .loadLease(lease, Duration.ofSeconds(1))
+                .writeBuffer(buffer)
+                .build();
+
+        assertEquals("loaded", cache.get("detail_1", () -> "loaded"));
+
+        assertEquals(Collections.singletonList("loaded"), remoteAtRelease);
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    public void testLeaseWaiter_RemoteFailureFallsBackToLoad() {
+        Cache brokenRemote = new ConcurrentMapCache("remote") {
+            @Override
+            public ValueWrapper get(Object key) {
+                throw new IllegalStateException("redis down");
+            }
+        };
+        CacheLoadLease heldElsewhere = new CacheLoadLease() {
+            @Override
+            public String tryAcquire(String cacheName, Object key) {
+                return null;
+            }
+
+            @Override
+            public void release(String cacheName, Object key, String token) {
+            }
+        };
+        AsyncTwoLevelCache cache = AsyncTwoLevelCache.builder("test", new ConcurrentMapCache("local"), brokenRemote, Runnable::run)
+                .loadLease(heldElsewhere, Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        assertEquals("loaded", cache.get("detail_1", () -> "loaded"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+}
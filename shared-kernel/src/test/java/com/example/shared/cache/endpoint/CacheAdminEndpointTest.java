@@ -0,0 +1,31 @@
+package com.example.shared.cache.endpoint;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缓存运维端点测试
+ */
+public class CacheAdminEndpointTest {
+
+    @Test
+    public void testUnknownCacheName_NotCreated() {
+        // 未指定名称的 ConcurrentMapCacheManager 与二级缓存管理器一样按名称懒创建
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheManager.getCache("foodDetail").put("1", "food");
+        CacheAdminEndpoint endpoint = new CacheAdminEndpoint(cacheManager);
+
+        assertNull(endpoint.cache("random-name", null));
+        assertNull(endpoint.evict("random-name", "1", null));
+        assertFalse(cacheManager.getCacheNames().contains("random-name"));
+
+        Map<String, Object> result = endpoint.evict("foodDetail", "1", null);
+        assertEquals("foodDetail", result.get("cache"));
+        assertNull(cacheManager.getCache("foodDetail").get("1"));
+        assertEquals(1, endpoint.caches().size());
+    }
+}
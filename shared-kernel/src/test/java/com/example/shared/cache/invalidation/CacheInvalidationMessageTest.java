@@ -0,0 +1,90 @@
+package com.example.shared.cache.invalidation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缓存失效消息编解码测试
+ */
+public class CacheInvalidationMessageTest {
+
+    @Test
+    public void testRoundTrip_StringKey() {
+        CacheInvalidationMessage message = new CacheInvalidationMessage(
+                CacheInvalidationMessage.Type.EVICT, "node-1", "nutritionStat", "daily_42_2025-05-01", 7L);
+
+        CacheInvalidationMessage decoded = CacheInvalidationMessage.decode(message.encode());
+
+        assertEquals(CacheInvalidationMessage.Type.EVICT, decoded.getType());
+        assertEquals("node-1", decoded.getNodeId());
+        assertEquals("nutritionStat", decoded.getCacheName());
+        assertEquals("daily_42_2025-05-01", decoded.getKey());
+        assertEquals(7L, decoded.getVersion());
+    }
+
+    @Test
+    public void testRoundTrip_KeepsNumericKeyType() {
+        CacheInvalidationMessage intKey = new CacheInvalidationMessage(
+                CacheInvalidationMessage.Type.PUT, "node-1", "foodCategory", 5, 1L);
+        CacheInvalidationMessage longKey = new CacheInvalidationMessage(
+                CacheInvalidationMessage.Type.PUT, "node-1", "user", 5L, 2L);
+
+        assertEquals(Integer.valueOf(5), CacheInvalidationMessage.decode(intKey.encode()).getKey());
+        assertEquals(Long.valueOf(5L), CacheInvalidationMessage.decode(longKey.encode()).getKey());
+    }
+
+    @Test
+    public void testRoundTrip_ClearAndSerializableKey() {
+        CacheInvalidationMessage clear = new CacheInvalidationMessage(
+                CacheInvalidationMessage.Type.CLEAR, "node-2", "food", null, 3L);
+        CacheInvalidationMessage composite = new CacheInvalidationMessage(
+                CacheInvalidationMessage.Type.EVICT, "node-2", "food", new SimpleKey(1, "a"), 4L);
+
+        assertNull(CacheInvalidationMessage.decode(clear.encode()).getKey());
+        assertEquals(new SimpleKey(1, "a"), CacheInvalidationMessage.decode(composite.encode()).getKey());
+    }
+
+    @Test
+    public void testUnsupportedKeyIsRejected() {
+        LocalDate date = LocalDate.of(2025, 5, 1);
+        CacheInvalidationMessage message = new CacheInvalidationMessage(
+                CacheInvalidationMessage.Type.EVICT, "node-2", "food", date, 5L);
+
+        assertFalse(CacheInvalidationMessage.isSupportedKey(date));
+        assertFalse(CacheInvalidationMessage.isSupportedKey(new SimpleKey(1, date)));
+        assertTrue(CacheInvalidationMessage.isSupportedKey(new SimpleKey(1, null, "a", 2L)));
+        assertThrows(IllegalArgumentException.class, message::encode);
+    }
+
+    @Test
+    public void testJavaSerializedKeyIsNotDeserialized() throws IOException {
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(serialized)) {
+            oos.writeObject(new HashMap<String, String>());
+        }
+        byte[] data = serialized.toByteArray();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1);
+        out.writeByte(CacheInvalidationMessage.Type.EVICT.ordinal());
+        out.writeUTF("attacker");
+        out.writeUTF("food");
+        out.writeLong(1L);
+        // 旧格式中JDK序列化key的类型标记
+        out.writeByte(4);
+        out.writeInt(data.length);
+        out.write(data);
+
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidationMessage.decode(bytes.toByteArray()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.shared.cache.namespace;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 命名空间分代失效测试
+ */
+public class CacheNamespacesTest {
+
+    /**
+     * 内存版本号存储
+     */
+    private static class InMemoryVersions implements CacheNamespaceVersions {
+        private final Map<String, Long> versions = new ConcurrentHashMap<>();
+        private boolean failing;
+        private boolean readFailing;
+
+        @Override
+        public long current(String cacheName, String namespace) {
+            if (readFailing) {
+                throw new IllegalStateException("redis down");
+            }
+            return versions.getOrDefault(cacheName + namespace, 0L);
+        }
+
+        @Override
+        public long increment(String cacheName, String namespace) {
+            if (failing) {
+                throw new IllegalStateException("redis down");
+            }
+            return versions.merge(cacheName + namespace, 1L, Long::sum);
+        }
+    }
+
+    @Test
+    public void testEvictOnlyChangesTargetNamespace() {
+        CacheNamespaces namespaces = new CacheNamespaces(new InMemoryVersions(), new ConcurrentMapCacheManager(),
+                null, Duration.ofMinutes(1));
+
+        assertEquals("u1:v0:", namespaces.key("dietRecord", "u1"));
+        namespaces.evict("dietRecord", "u1");
+
+        assertEquals("u1:v1:", namespaces.key("dietRecord", "u1"));
+        assertEquals("u2:v0:", namespaces.key("dietRecord", "u2"));
+    }
+
+    @Test
+    public void testEvictFailureFallsBackToClear() {
+        InMemoryVersions versions = new InMemoryVersions();
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheManager.getCache("dietRecord").put("u1:v0:records", "cached");
+        CacheNamespaces namespaces = new CacheNamespaces(versions, cacheManager, null, Duration.ofMinutes(1));
+
+        versions.failing = true;
+        namespaces.evict("dietRecord", "u1");
+
+        assertNull(cacheManager.getCache("dietRecord").get("u1:v0:records"));
+    }
+
+    @Test
+    public void testUnknownVersionKeyIsNotCached() {
+        InMemoryVersions versions = new InMemoryVersions();
+        versions.readFailing = true;
+        CacheNamespaces namespaces = new CacheNamespaces(versions, new ConcurrentMapCacheManager(),
+                null, Duration.ofMinutes(1));
+
+        String key = namespaces.key("dietRecord", "u1") + "records";
+
+        assertFalse(key.contains(":v-1:"));
+        assertTrue(CacheNamespaces.isUncacheable(key));
+        assertFalse(CacheNamespaces.isUncacheable("u1:v0:records"));
+
+        // 版本号恢复后重新生成正常的key
+        versions.readFailing = false;
+        assertEquals("u1:v0:", namespaces.key("dietRecord", "u1"));
+    }
+}
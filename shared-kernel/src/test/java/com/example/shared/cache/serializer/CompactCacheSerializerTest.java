@@ -0,0 +1,86 @@
+package com.example.shared.cache.serializer;
+
+import com.example.shared.response.PageResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 紧凑缓存编码测试
+ */
+public class CompactCacheSerializerTest {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Meal {
+        private Long id;
+        private String mealType;
+        private LocalDate date;
+        private BigDecimal calories;
+    }
+
+    private static GenericJackson2JsonRedisSerializer jsonSerializer() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+
+    private static CompactCacheSerializer compactSerializer(int compressionThreshold) {
+        CacheTypeRegistry registry = new CacheTypeRegistry();
+        registry.register(100, Meal.class.getName());
+        return new CompactCacheSerializer(registry, compressionThreshold, jsonSerializer());
+    }
+
+    private static PageResult<Meal> samplePage(int size) {
+        List<Meal> meals = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            meals.add(new Meal((long) i, "lunch", LocalDate.of(2024, 1, 1), new BigDecimal("520.5")));
+        }
+        return PageResult.of(meals, size, 1, size);
+    }
+
+    @Test
+    public void testRoundTripIsSmallerThanJson() {
+        CompactCacheSerializer serializer = compactSerializer(0);
+        PageResult<Meal> page = samplePage(20);
+
+        byte[] compact = serializer.serialize(page);
+        byte[] json = jsonSerializer().serialize(page);
+
+        assertEquals(page, serializer.deserialize(compact));
+        assertTrue(compact.length * 2 < json.length, "compact=" + compact.length + ", json=" + json.length);
+    }
+
+    @Test
+    public void testCompressedRoundTrip() {
+        PageResult<Meal> page = samplePage(200);
+
+        byte[] uncompressed = compactSerializer(0).serialize(page);
+        byte[] compressed = compactSerializer(256).serialize(page);
+
+        assertTrue(compressed.length < uncompressed.length);
+        assertEquals(page, compactSerializer(256).deserialize(compressed));
+    }
+
+    @Test
+    public void testReadsLegacyJsonAndNullValue() {
+        CompactCacheSerializer serializer = compactSerializer(1024);
+        PageResult<Meal> page = samplePage(3);
+
+        assertEquals(page, serializer.deserialize(jsonSerializer().serialize(page)));
+        assertSame(NullValue.INSTANCE, serializer.deserialize(serializer.serialize(NullValue.INSTANCE)));
+    }
+}
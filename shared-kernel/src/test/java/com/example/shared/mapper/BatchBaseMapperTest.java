@@ -0,0 +1,267 @@
+package com.example.shared.mapper;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.example.shared.config.mbplus.BatchSqlInjector;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 多行插入Mapper测试
+ * 分批逻辑用记录调用的桩Mapper验证；实际SQL与主键回填使用H2内存库（MySQL兼容模式）验证，
+ * 并与逐行 insert 对比语句数和耗时。H2 不在默认依赖中，需用 -Pdb-it 启用，否则这些用例跳过。
+ */
+public class BatchBaseMapperTest {
+
+    @TableName("batch_row")
+    public static class BatchRow {
+
+        @TableId(type = IdType.AUTO)
+        private Long id;
+        private String name;
+        private Integer amount;
+
+        public BatchRow() {
+        }
+
+        BatchRow(String name, Integer amount) {
+            this.name = name;
+            this.amount = amount;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Integer amount) {
+            this.amount = amount;
+        }
+    }
+
+    public interface BatchRowMapper extends BatchBaseMapper<BatchRow> {
+    }
+
+    /**
+     * 分批方法走真实实现，insertBatchSomeColumn 只记录每次调用的行数
+     */
+    private static BatchRowMapper recordingMapper(List<Integer> calls) {
+        BatchRowMapper mapper = mock(BatchRowMapper.class, CALLS_REAL_METHODS);
+        doAnswer(invocation -> {
+            int size = invocation.<Collection<?>>getArgument(0).size();
+            calls.add(size);
+            return size;
+        }).when(mapper).insertBatchSomeColumn(any());
+        return mapper;
+    }
+
+    private static List<BatchRow> rows(int count) {
+        List<BatchRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new BatchRow("row" + i, i));
+        }
+        return rows;
+    }
+
+    @Test
+    public void testInsertBatch_SplitsIntoChunks() {
+        List<Integer> calls = new ArrayList<>();
+        BatchRowMapper mapper = recordingMapper(calls);
+
+        assertEquals(1201, mapper.insertBatch(rows(1201)));
+        assertEquals(Arrays.asList(500, 500, 201), calls);
+
+        calls.clear();
+        assertEquals(7, mapper.insertBatch(rows(7), 3));
+        assertEquals(Arrays.asList(3, 3, 1), calls);
+
+        // 非法的批大小按1处理
+        calls.clear();
+        assertEquals(2, mapper.insertBatch(rows(2), 0));
+        assertEquals(Arrays.asList(1, 1), calls);
+    }
+
+    @Test
+    public void testInsertBatch_EmptyListSkipsStatement() {
+        List<Integer> calls = new ArrayList<>();
+        BatchRowMapper mapper = recordingMapper(calls);
+
+        assertEquals(0, mapper.insertBatch(Collections.emptyList()));
+        assertEquals(0, mapper.insertBatch(null));
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    public void testInsertBatch_H2WritesRowsAndBacksFillIds() throws Exception {
+        assumeTrue(isClassPresent("org.h2.Driver"), "H2 不在classpath中，使用 -Pdb-it 运行");
+
+        SqlSessionFactory sessionFactory = h2SessionFactory("batch", new StatementCounter());
+
+        List<BatchRow> rows = rows(1201);
+        rows.get(3).setAmount(null);
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            BatchRowMapper mapper = session.getMapper(BatchRowMapper.class);
+
+            assertEquals(0, mapper.insertBatch(Collections.emptyList()));
+            assertEquals(1201, mapper.insertBatch(rows));
+
+            assertEquals(1201L, mapper.selectCount(null));
+            Set<Long> ids = new HashSet<>();
+            for (BatchRow row : rows) {
+                assertNotNull(row.getId(), row.getName());
+                ids.add(row.getId());
+            }
+            assertEquals(1201, ids.size());
+            // 回填的主键与行对应，null字段按null写入
+            BatchRow stored = mapper.selectById(rows.get(3).getId());
+            assertEquals("row3", stored.getName());
+            assertNull(stored.getAmount());
+            assertEquals("row1200", mapper.selectById(rows.get(1200).getId()).getName());
+        }
+    }
+
+    @Test
+    public void testInsertBatch_H2ComparedWithPerRowInsert() throws Exception {
+        assumeTrue(isClassPresent("org.h2.Driver"), "H2 不在classpath中，使用 -Pdb-it 运行");
+
+        StatementCounter counter = new StatementCounter();
+        SqlSessionFactory sessionFactory = h2SessionFactory("batch_compare", counter);
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            BatchRowMapper mapper = session.getMapper(BatchRowMapper.class);
+            // 预热：加载驱动、解析语句，避免计入第一组的耗时
+            insertPerRow(mapper, rows(100));
+            mapper.insertBatch(rows(100));
+
+            // 一顿饭的食物条数（1、3、8、20）以及一次导入约1000行
+            for (int n : new int[]{1, 3, 8, 20, 1000}) {
+                List<BatchRow> perRow = rows(n);
+                counter.reset();
+                long start = System.nanoTime();
+                insertPerRow(mapper, perRow);
+                long perRowNanos = System.nanoTime() - start;
+                int perRowStatements = counter.get();
+
+                List<BatchRow> batch = rows(n);
+                counter.reset();
+                start = System.nanoTime();
+                assertEquals(n, mapper.insertBatch(batch));
+                long batchNanos = System.nanoTime() - start;
+                int batchStatements = counter.get();
+
+                System.out.printf("insert rows=%d  per-row: %d statements %.2fms  insertBatch: %d statements %.2fms%n",
+                        n, perRowStatements, perRowNanos / 1e6, batchStatements, batchNanos / 1e6);
+
+                // 耗时只输出不断言；语句数即到数据库的往返次数
+                assertEquals(n, perRowStatements);
+                int expected = (n + BatchBaseMapper.DEFAULT_BATCH_SIZE - 1) / BatchBaseMapper.DEFAULT_BATCH_SIZE;
+                assertEquals(expected, batchStatements);
+                assertTrue(batch.stream().allMatch(row -> row.getId() != null));
+            }
+        }
+    }
+
+    private static void insertPerRow(BatchRowMapper mapper, List<BatchRow> rows) {
+        for (BatchRow row : rows) {
+            mapper.insert(row);
+        }
+    }
+
+    /**
+     * 以H2内存库（MySQL兼容模式）创建 batch_row 表，按应用的配置注入多行插入方法
+     */
+    private static SqlSessionFactory h2SessionFactory(String database, StatementCounter counter) throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE batch_row (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "name VARCHAR(64) NOT NULL, amount INT)");
+        }
+
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        configuration.setEnvironment(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        GlobalConfig globalConfig = GlobalConfigUtils.getGlobalConfig(configuration);
+        globalConfig.setSqlInjector(new BatchSqlInjector());
+        configuration.addMapper(BatchRowMapper.class);
+        configuration.addInterceptor(counter);
+        return new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+
+    /**
+     * 统计执行的INSERT语句数
+     */
+    @Intercepts(@Signature(type = StatementHandler.class, method = "update", args = {Statement.class}))
+    static class StatementCounter implements Interceptor {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            count.incrementAndGet();
+            return invocation.proceed();
+        }
+
+        void reset() {
+            count.set(0);
+        }
+
+        int get() {
+            return count.get();
+        }
+    }
+
+    private static boolean isClassPresent(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
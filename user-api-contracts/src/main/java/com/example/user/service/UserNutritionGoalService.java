@@ -4,6 +4,9 @@ import com.example.user.command.NutritionGoalCommand;
 import com.example.user.dto.UserNutritionGoalResponseDTO;
 import com.example.shared.exception.BusinessException;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 用户营养目标服务接口
  */
@@ -17,6 +20,14 @@ public interface UserNutritionGoalService {
      */
     UserNutritionGoalResponseDTO getNutritionGoal(Long userId);
 
+    /**
+     * 批量获取多个用户的营养目标
+     *
+     * @param userIds 用户ID集合
+     * @return 用户ID到营养目标的映射，没有营养目标的用户不包含在内
+     */
+    Map<Long, UserNutritionGoalResponseDTO> getNutritionGoals(Collection<Long> userIds);
+
     /**
      * 更新用户营养目标（使用命令对象）
      * 注意：假设用户在注册时已经创建了默认营养目标，因此不需要检查是否存在
@@ -8,6 +8,9 @@ import com.example.user.dto.UserInfoDTO;
 import com.example.shared.exception.BusinessException;
 import com.example.shared.response.PageResult;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface UserService {
 
     /**
@@ -15,6 +18,14 @@ public interface UserService {
      */
     UserInfoDTO getUserById(Long id);
 
+    /**
+     * 根据ID批量获取用户信息
+     *
+     * @param ids 用户ID集合
+     * @return 用户ID到用户信息的映射，不存在的用户不包含在内
+     */
+    Map<Long, UserInfoDTO> getUsersByIds(Collection<Long> ids);
+
     /**
      * 根据用户名获取用户信息
      */
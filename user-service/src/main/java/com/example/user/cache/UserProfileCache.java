@@ -0,0 +1,158 @@
+package com.example.user.cache;
+
+import com.example.shared.util.CacheBatchUtil;
+import com.example.user.dto.UserInfoDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 用户资料缓存
+ * 资料按用户ID缓存（id_{id}）；用户名、邮箱、openid 只缓存到用户ID的映射（username_{x} 等），
+ * 资料变化时只需驱逐ID条目，登录标识变化时再驱逐新旧两个映射。
+ * 不存在的用户/登录标识按缓存的 negative-ttl 短时间缓存null。
+ */
+@Component
+public class UserProfileCache {
+
+    public static final String CACHE_NAME = "userProfile";
+
+    public static final String USERNAME = "username";
+    public static final String EMAIL = "email";
+    public static final String OPENID = "openid";
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public UserProfileCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 按用户ID读取资料，未命中时调用loader加载并缓存
+     */
+    public UserInfoDTO getById(Long id, Function<Long, UserInfoDTO> loader) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        return cache.get(idKey(id), () -> loader.apply(id));
+    }
+
+    /**
+     * 批量按用户ID读取资料，未命中的ID一次交给loader加载
+     *
+     * @param loader 输入未命中的用户ID，返回找到的资料
+     * @return 用户ID到资料的映射，不存在的用户不包含在内
+     */
+    public Map<Long, UserInfoDTO> getByIds(Collection<Long> ids, Function<List<Long>, Map<Long, UserInfoDTO>> loader) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        Map<String, Long> keys = new LinkedHashMap<>();
+        for (Long id : distinctIds) {
+            keys.put(idKey(id), id);
+        }
+
+        Map<Long, UserInfoDTO> result = new HashMap<>();
+        Map<Object, Object> cached = CacheBatchUtil.getAll(cacheManager, CACHE_NAME, keys.keySet());
+        List<Long> missedIds = new ArrayList<>();
+        keys.forEach((key, id) -> {
+            if (!cached.containsKey(key)) {
+                missedIds.add(id);
+            } else if (cached.get(key) instanceof UserInfoDTO) {
+                result.put(id, (UserInfoDTO) cached.get(key));
+            }
+        });
+        if (missedIds.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, UserInfoDTO> loaded = loader.apply(missedIds);
+        result.putAll(loaded);
+        Map<String, UserInfoDTO> backfill = new LinkedHashMap<>();
+        for (Long id : missedIds) {
+            backfill.put(idKey(id), loaded.get(id));
+        }
+        CacheBatchUtil.putAll(cacheManager, CACHE_NAME, backfill);
+        return result;
+    }
+
+    /**
+     * 按登录标识读取用户ID，未命中时调用loader查询并缓存
+     * 用户ID以字符串形式缓存：Redis的JSON序列化对数值不保留Long类型，较小的ID会被读回为Integer
+     *
+     * @param type {@link #USERNAME}、{@link #EMAIL} 或 {@link #OPENID}
+     */
+    public Long getIdByLoginKey(String type, String value, Supplier<Long> loader) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null || !StringUtils.hasText(value)) {
+            return loader.get();
+        }
+        Object cached = cache.get(loginKey(type, value), () -> {
+            Long id = loader.get();
+            return id != null ? id.toString() : null;
+        });
+        return toId(cached);
+    }
+
+    /**
+     * 兼容旧版本以数值形式写入的条目
+     */
+    private static Long toId(Object cached) {
+        if (cached == null) {
+            return null;
+        }
+        if (cached instanceof Number) {
+            return ((Number) cached).longValue();
+        }
+        return Long.valueOf(cached.toString());
+    }
+
+    /**
+     * 驱逐用户资料
+     */
+    public void evictUser(Long id) {
+        if (id != null) {
+            CacheBatchUtil.evictAll(cacheManager, CACHE_NAME, Collections.singletonList(idKey(id)));
+        }
+    }
+
+    /**
+     * 驱逐登录标识到用户ID的映射，参数为null的标识跳过
+     */
+    public void evictLoginKeys(String username, String email, String openid) {
+        List<String> keys = new ArrayList<>();
+        addLoginKey(keys, USERNAME, username);
+        addLoginKey(keys, EMAIL, email);
+        addLoginKey(keys, OPENID, openid);
+        CacheBatchUtil.evictAll(cacheManager, CACHE_NAME, keys);
+    }
+
+    private static void addLoginKey(List<String> keys, String type, String value) {
+        if (StringUtils.hasText(value)) {
+            keys.add(loginKey(type, value));
+        }
+    }
+
+    private static String idKey(Long id) {
+        return "id_" + id;
+    }
+
+    private static String loginKey(String type, String value) {
+        return type + "_" + value;
+    }
+}
@@ -26,6 +26,8 @@ public class SecurityConfig {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .authorizeRequests()
+                // 缓存运维端点只允许管理员访问
+                .antMatchers("/actuator/cacheadmin/**").hasRole("ADMIN")
                 // 用户相关接口需要认证
                 .anyRequest().authenticated()
                 .and()
@@ -9,15 +9,27 @@ import com.example.user.entity.UserNutritionGoal;
 import com.example.shared.exception.BusinessException;
 import com.example.user.service.UserNutritionGoalService;
 import com.example.user.mapper.UserNutritionGoalMapper;
+import com.example.shared.util.CacheBatchUtil;
 import org.apache.dubbo.config.annotation.DubboService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 用户营养目标服务实现类
@@ -29,18 +41,28 @@ public class UserNutritionGoalServiceImpl extends ServiceImpl<UserNutritionGoalM
 
     private static final Logger logger = LoggerFactory.getLogger(UserNutritionGoalServiceImpl.class);
 
+    /**
+     * 批量查询时每条IN语句包含的用户数
+     */
+    private static final int QUERY_CHUNK_SIZE = 500;
+
     private final UserNutritionGoalMapper userNutritionGoalMapper;
 
+    private final CacheManager cacheManager;
+
 
     @Autowired
     public UserNutritionGoalServiceImpl(
-            UserNutritionGoalMapper userNutritionGoalMapper) {
+            UserNutritionGoalMapper userNutritionGoalMapper,
+            CacheManager cacheManager) {
         this.userNutritionGoalMapper = userNutritionGoalMapper;
+        this.cacheManager = cacheManager;
     }
 
 
 
     @Override
+    @Cacheable(value = "nutritionGoal", key = "#userId")
     public UserNutritionGoalResponseDTO getNutritionGoal(Long userId) {
         if (userId == null) {
             throw new BusinessException(400, "用户ID不能为空");
@@ -53,6 +75,53 @@ public class UserNutritionGoalServiceImpl extends ServiceImpl<UserNutritionGoalM
         return convertToResponseDTO(nutritionGoal);
     }
 
+    @Override
+    public Map<Long, UserNutritionGoalResponseDTO> getNutritionGoals(Collection<Long> userIds) {
+        Map<Long, UserNutritionGoalResponseDTO> result = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+        Set<Long> distinctUserIds = new LinkedHashSet<>(userIds);
+        distinctUserIds.remove(null);
+
+        // 先批量读取缓存（与getNutritionGoal共用key），命中null表示该用户没有营养目标
+        Map<Object, Object> cached = CacheBatchUtil.getAll(cacheManager, "nutritionGoal", distinctUserIds);
+        List<Long> missedUserIds = new ArrayList<>();
+        for (Long userId : distinctUserIds) {
+            if (!cached.containsKey(userId)) {
+                missedUserIds.add(userId);
+            } else if (cached.get(userId) instanceof UserNutritionGoalResponseDTO) {
+                result.put(userId, (UserNutritionGoalResponseDTO) cached.get(userId));
+            }
+        }
+        if (missedUserIds.isEmpty()) {
+            return result;
+        }
+
+        // 未命中的用户按批次IN查询
+        Map<Long, UserNutritionGoalResponseDTO> loaded = new LinkedHashMap<>();
+        for (int i = 0; i < missedUserIds.size(); i += QUERY_CHUNK_SIZE) {
+            List<Long> chunk = missedUserIds.subList(i, Math.min(i + QUERY_CHUNK_SIZE, missedUserIds.size()));
+            QueryWrapper<UserNutritionGoal> queryWrapper = new QueryWrapper<>();
+            queryWrapper.in("user_id", chunk);
+            for (UserNutritionGoal nutritionGoal : userNutritionGoalMapper.selectList(queryWrapper)) {
+                loaded.put(nutritionGoal.getUserId(), convertToResponseDTO(nutritionGoal));
+            }
+        }
+        result.putAll(loaded);
+
+        // 回填缓存，没有营养目标的用户写入null（缓存配置了negative-ttl时短时间缓存）
+        Map<Long, UserNutritionGoalResponseDTO> backfill = new LinkedHashMap<>();
+        for (Long userId : missedUserIds) {
+            backfill.put(userId, loaded.get(userId));
+        }
+        CacheBatchUtil.putAll(cacheManager, "nutritionGoal", backfill);
+
+        logger.debug("批量查询营养目标: users={}, cacheHits={}, loaded={}",
+                distinctUserIds.size(), distinctUserIds.size() - missedUserIds.size(), loaded.size());
+        return result;
+    }
+
     /**
      * 将UserNutritionGoal实体转换为UserNutritionGoalResponseDTO
      */
@@ -82,6 +151,7 @@ public class UserNutritionGoalServiceImpl extends ServiceImpl<UserNutritionGoalM
 
 
     @Override
+    @CacheEvict(value = "nutritionGoal", key = "#command.userId")
     public boolean UpdateNutritionGoal(NutritionGoalCommand command) throws BusinessException {
         if (command == null) {
             throw new BusinessException(400, "营养目标命令对象不能为空");
@@ -162,6 +232,7 @@ public class UserNutritionGoalServiceImpl extends ServiceImpl<UserNutritionGoalM
      * @return 创建是否成功
      */
     @Override
+    @CacheEvict(value = "nutritionGoal", key = "#userId")
     public boolean createDefaultNutritionGoal(Long userId) {
         UserNutritionGoal goal = new UserNutritionGoal();
         goal.setUserId(userId);
@@ -3,6 +3,7 @@ package com.example.user.service;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.example.user.cache.UserProfileCache;
 import com.example.user.command.UserCreateCommand;
 import com.example.user.command.UserPageQueryCommand;
 import com.example.user.command.UserUpdateCommand;
@@ -22,6 +23,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.file.service.FileService;
+import com.example.file.support.PresignedUrls;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
@@ -29,8 +31,14 @@ import com.example.shared.config.properties.PasswordPolicyProperties;
 import com.example.shared.util.PasswordPolicyUtil;
 
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -41,47 +49,87 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final PasswordPolicyProperties passwordPolicyProperties;
+    private final UserProfileCache userProfileCache;
 
     @DubboReference
     private FileService fileService;
 
     private static final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
 
+    /**
+     * 批量查询时每条IN语句包含的用户数
+     */
+    private static final int QUERY_CHUNK_SIZE = 500;
+
     @Autowired
     public UserServiceImpl(UserMapper userMapper,
                            PasswordEncoder passwordEncoder,
                            PasswordPolicyProperties passwordPolicyProperties,
-                           FileService fileService) {
+                           FileService fileService,
+                           UserProfileCache userProfileCache) {
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.passwordPolicyProperties = passwordPolicyProperties;
         this.fileService = fileService;
+        this.userProfileCache = userProfileCache;
     }
 
     @Override
     public UserInfoDTO getUserByUsername(String username) {
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("username", username);
-        User user = userMapper.selectOne(queryWrapper);
-        return convertToDTO(user);
+        return getUserByLoginKey(UserProfileCache.USERNAME, "username", username);
     }
 
     @Override
     public UserInfoDTO getUserById(Long id) {
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("id", id);
-        User user = userMapper.selectOne(queryWrapper);
-        return convertToDTO(user);
+        return userProfileCache.getById(id, this::loadUserById);
+    }
+
+    @Override
+    public Map<Long, UserInfoDTO> getUsersByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return userProfileCache.getByIds(ids, this::loadUsersByIds);
     }
 
     @Override
     public UserInfoDTO getUserByEmail(String email) {
+        return getUserByLoginKey(UserProfileCache.EMAIL, "email", email);
+    }
+
+    /**
+     * 登录标识先经缓存解析为用户ID（未命中时只查询id列），再按ID读取缓存的用户资料
+     */
+    private UserInfoDTO getUserByLoginKey(String type, String column, String value) {
+        Long userId = userProfileCache.getIdByLoginKey(type, value, () -> {
+            QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("id").eq(column, value);
+            User user = userMapper.selectOne(queryWrapper);
+            return user != null ? user.getId() : null;
+        });
+        return userId != null ? getUserById(userId) : null;
+    }
+
+    private UserInfoDTO loadUserById(Long id) {
         QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("email", email);
+        queryWrapper.eq("id", id);
         User user = userMapper.selectOne(queryWrapper);
         return convertToDTO(user);
     }
 
+    private Map<Long, UserInfoDTO> loadUsersByIds(List<Long> ids) {
+        Map<Long, UserInfoDTO> result = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += QUERY_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(i, Math.min(i + QUERY_CHUNK_SIZE, ids.size()));
+            QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+            queryWrapper.in("id", chunk);
+            for (User user : userMapper.selectList(queryWrapper)) {
+                result.put(user.getId(), convertToDTO(user));
+            }
+        }
+        return result;
+    }
+
 
 
     @Override
@@ -135,6 +183,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                 throw new BusinessException(409, "用户信息重复");
             }
         }
+        // 注册前查询过的登录标识可能缓存了null
+        userProfileCache.evictLoginKeys(user.getUsername(), user.getEmail(), user.getOpenid());
+        userProfileCache.evictUser(user.getId());
         return convertToDTO(user);
     }
 
@@ -144,6 +195,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         user.setId(userId);
         user.setStatus(status);
         int count = userMapper.updateById(user);
+        userProfileCache.evictUser(userId);
         return count > 0;
     }
 
@@ -179,16 +231,23 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             updateUser.setPassword(passwordEncoder.encode(command.getPassword()));
         }
 
+        // 用户名、邮箱变更时新旧登录标识的映射都要清除
+        User oldUser = (command.getUsername() != null || command.getEmail() != null)
+                ? userMapper.selectById(command.getId()) : null;
+
         // 执行更新，MyBatis-Plus只会更新非null字段
-        return this.updateById(updateUser);
+        boolean updated = this.updateById(updateUser);
+        userProfileCache.evictUser(command.getId());
+        if (oldUser != null) {
+            userProfileCache.evictLoginKeys(oldUser.getUsername(), oldUser.getEmail(), null);
+        }
+        userProfileCache.evictLoginKeys(command.getUsername(), command.getEmail(), null);
+        return updated;
     }
 
     @Override
     public UserInfoDTO getUserByOpenid(String openid) {
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("openid", openid);
-        User user = userMapper.selectOne(queryWrapper);
-        return convertToDTO(user);
+        return getUserByLoginKey(UserProfileCache.OPENID, "openid", openid);
     }
 
     /**
@@ -265,29 +324,27 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     /**
      * 处理用户头像URL，生成可访问的完整URL
+     * 整页头像通过一次RPC批量生成有效期为30分钟的预签名URL
      */
     private PageResult<UserInfoDTO> processUserAvatars(PageResult<UserInfoDTO> result) {
-        List<UserInfoDTO> processedUsers = result.getRecords().stream()
-                .map(user -> {
-                    // 如果用户有头像URL，则生成可访问的完整URL
-                    if (user != null && StringUtils.hasText(user.getAvatarUrl())) {
-                        try {
-                            // 生成有效期为30分钟的预签名URL
-                            String fullAvatarUrl = fileService.generateDownloadPresignedUrl(user.getAvatarUrl(), 30);
-                            user.setAvatarUrl(fullAvatarUrl);
-                        } catch (Exception e) {
-                            // 如果生成URL失败，记录错误但不影响其他用户数据返回
-                            log.error("生成用户 " + user.getId() + " 的头像URL失败: " + e.getMessage(), e);
-                            // 将avatarUrl设为空，前端会显示用户名首字母作为头像
-                            user.setAvatarUrl("");
-                        }
-                    }
-                    return user;
-                })
-                .collect(Collectors.toList());
+        List<UserInfoDTO> users = result.getRecords();
+        Set<UserInfoDTO> signed = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            PresignedUrls.signAll(fileService, users, 30, UserInfoDTO::getAvatarUrl, (user, url) -> {
+                user.setAvatarUrl(url);
+                signed.add(user);
+            });
+        } catch (Exception e) {
+            // 如果生成URL失败，记录错误但不影响用户数据返回
+            log.error("批量生成用户头像URL失败: " + e.getMessage(), e);
+        }
 
-        // 更新处理后的用户列表
-        result.setRecords(processedUsers);
+        // 未能生成URL的头像设为空，前端会显示用户名首字母作为头像
+        for (UserInfoDTO user : users) {
+            if (user != null && StringUtils.hasText(user.getAvatarUrl()) && !signed.contains(user)) {
+                user.setAvatarUrl("");
+            }
+        }
         return result;
     }
 
@@ -313,6 +370,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         updateUser.setAvatarUrl(avatarUrl);
 
         int count = userMapper.updateById(updateUser);
+        userProfileCache.evictUser(userId);
         if (count <= 0) {
             throw new BusinessException(500, "更新头像失败");
         }
@@ -320,8 +378,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 如果存在旧头像，则删除
         if (oldAvatarPath != null && !oldAvatarPath.isEmpty()) {
             try {
-                // 直接使用数据库中保存的路径删除文件
-                fileService.deleteFile(oldAvatarPath);
+                // 直接使用数据库中保存的路径，交给文件服务的删除队列异步删除
+                fileService.enqueueDelete(Collections.singletonList(oldAvatarPath));
             } catch (Exception e) {
                 // 删除旧头像失败不影响更新，只记录错误
                 log.error("删除旧头像文件失败：" + e.getMessage(), e);
@@ -387,6 +445,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         updateUser.setPassword(encodedPassword);
 
         int count = userMapper.updateById(updateUser);
+        userProfileCache.evictUser(userId);
         if (count <= 0) {
             throw new BusinessException(500, "密码更新失败");
         }
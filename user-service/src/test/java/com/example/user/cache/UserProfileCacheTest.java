@@ -0,0 +1,144 @@
+package com.example.user.cache;
+
+import com.example.shared.config.redis.SharedRedisConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户资料缓存测试：值经过与Redis层相同的序列化器往返，模拟本地未命中、Redis命中的情况
+ */
+public class UserProfileCacheTest {
+
+    /**
+     * 以Redis序列化后的字节保存条目的缓存，null与RedisCache一样单独编码，不经过JSON序列化器
+     */
+    static class SerializingCache extends AbstractValueAdaptingCache {
+
+        private static final byte[] NULL_VALUE = new byte[0];
+
+        private final Map<Object, byte[]> store = new ConcurrentHashMap<>();
+        private final GenericJackson2JsonRedisSerializer serializer =
+                new GenericJackson2JsonRedisSerializer(new SharedRedisConfig().redisObjectMapper());
+
+        SerializingCache() {
+            super(true);
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            byte[] bytes = store.get(key);
+            if (bytes == null) {
+                return null;
+            }
+            return bytes == NULL_VALUE ? NullValue.INSTANCE : serializer.deserialize(bytes);
+        }
+
+        @Override
+        public String getName() {
+            return UserProfileCache.CACHE_NAME;
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return store;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper wrapper = get(key);
+            if (wrapper != null) {
+                return (T) wrapper.get();
+            }
+            try {
+                T value = valueLoader.call();
+                put(key, value);
+                return value;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            Object storeValue = toStoreValue(value);
+            store.put(key, storeValue == NullValue.INSTANCE ? NULL_VALUE : serializer.serialize(storeValue));
+        }
+
+        @Override
+        public void evict(Object key) {
+            store.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            store.clear();
+        }
+    }
+
+    private SerializingCache cache;
+    private UserProfileCache userProfileCache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new SerializingCache();
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(Collections.singletonList(cache));
+        cacheManager.afterPropertiesSet();
+        userProfileCache = new UserProfileCache(cacheManager);
+    }
+
+    @Test
+    public void testLoginKeyRoundTripsThroughRedisSerializer() {
+        AtomicInteger loads = new AtomicInteger();
+
+        Long first = userProfileCache.getIdByLoginKey(UserProfileCache.USERNAME, "alice", () -> {
+            loads.incrementAndGet();
+            return 42L;
+        });
+        Long second = userProfileCache.getIdByLoginKey(UserProfileCache.USERNAME, "alice", () -> {
+            loads.incrementAndGet();
+            return 0L;
+        });
+
+        assertEquals(Long.valueOf(42L), first);
+        assertEquals(Long.valueOf(42L), second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testMissingLoginKeyIsCachedAsNull() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(userProfileCache.getIdByLoginKey(UserProfileCache.EMAIL, "nobody@example.com", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(userProfileCache.getIdByLoginKey(UserProfileCache.EMAIL, "nobody@example.com", () -> {
+            loads.incrementAndGet();
+            return 1L;
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testNumericEntryWrittenByOlderVersionIsReadAsLong() {
+        cache.put("openid_wx-1", 7L);
+
+        Long id = userProfileCache.getIdByLoginKey(UserProfileCache.OPENID, "wx-1", () -> null);
+
+        assertEquals(Long.valueOf(7L), id);
+    }
+}